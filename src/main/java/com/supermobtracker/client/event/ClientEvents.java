@@ -16,17 +16,24 @@ import net.minecraft.entity.EntityList;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.client.event.GuiScreenEvent;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.InputEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
 import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.client.input.KeyBindings;
 import com.supermobtracker.client.gui.GuiIconButton;
 import com.supermobtracker.client.gui.GuiMobTracker;
+import com.supermobtracker.client.util.DisplayEntityCache;
+import com.supermobtracker.client.util.SpawnAtlas;
 import com.supermobtracker.config.ModConfig;
 import com.supermobtracker.config.ModConfig.HudPosition;
+import com.supermobtracker.spawn.ExternalSpawnHints;
+import com.supermobtracker.spawn.SpawnSeedStore;
+import com.supermobtracker.spawn.SpawnTableIndex;
 import com.supermobtracker.tracking.SpawnTrackerManager;
 
 
@@ -57,6 +64,8 @@ public class ClientEvents {
         Minecraft mc = Minecraft.getMinecraft();
         if (mc.world == null || mc.player == null) return;
 
+        SpawnAtlas.onClientTick();
+
         // If we just switched to model xray mode, clear any existing temporary glow from the outline mode
         if (ModConfig.isClientUseModelXRay()) {
             if (!clearedOutlineGlowForXray) {
@@ -90,6 +99,33 @@ public class ClientEvents {
         }
     }
 
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (!event.getWorld().isRemote) return;
+
+        // Display entities hold a reference to the client world, so they must not outlive it
+        DisplayEntityCache.clear();
+
+        // Seeds are saved in batches rather than after each analysis
+        SpawnSeedStore.save();
+
+        // Hint conditions hold the dimension resolved in this world
+        ExternalSpawnHints.clearResolvedConditions();
+    }
+
+    @SubscribeEvent
+    public void onConnect(FMLNetworkEvent.ClientConnectedToServerEvent event) {
+        // The server and the mods may have changed the spawn lists since the last world
+        SpawnTableIndex.rebuildInBackground();
+    }
+
+    @SubscribeEvent
+    public void onDisconnect(FMLNetworkEvent.ClientDisconnectionFromServerEvent event) {
+        // Fired on the network thread, the atlas is only touched on the client thread.
+        // Dimension changes also unload the client world, so the atlas is not stopped on unload.
+        Minecraft.getMinecraft().addScheduledTask(SpawnAtlas::stop);
+    }
+
     // The outline mode owns this temporary glow state, so switching to model xray must clear it immediately.
     private void clearTemporaryGlow(List<Entity> entities) {
         for (Entity entity : entities) clearTemporaryGlow(entity);
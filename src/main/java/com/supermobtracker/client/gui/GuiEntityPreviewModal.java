@@ -9,6 +9,7 @@ import net.minecraft.client.resources.I18n;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.ResourceLocation;
 
+import com.supermobtracker.client.util.DisplayEntityCache;
 import com.supermobtracker.client.util.GuiDrawingUtils;
 import com.supermobtracker.config.ModConfig;
 
@@ -22,7 +23,6 @@ public class GuiEntityPreviewModal {
 
     private final GuiScreen parent;
     private final ResourceLocation entityId;
-    private final Entity entity;
     private final String entityName;
 
     private static final int TITLE_HEIGHT = 24;
@@ -34,10 +34,9 @@ public class GuiEntityPreviewModal {
     // Modal dimensions (calculated on show)
     private int modalX, modalY, modalWidth, modalHeight;
 
-    public GuiEntityPreviewModal(GuiScreen parent, ResourceLocation entityId, Entity entity, String entityName) {
+    public GuiEntityPreviewModal(GuiScreen parent, ResourceLocation entityId, String entityName) {
         this.parent = parent;
         this.entityId = entityId;
-        this.entity = entity;
         this.entityName = entityName;
     }
 
@@ -146,7 +145,10 @@ public class GuiEntityPreviewModal {
      * @param fontRenderer Font renderer for text
      */
     public void draw(int mouseX, int mouseY, float partialTicks, FontRenderer fontRenderer) {
-        if (!visible || entity == null) return;
+        if (!visible) return;
+
+        Entity entity = DisplayEntityCache.get(entityId);
+        if (entity == null) return;
 
         // Draw semi-transparent background overlay
         Gui.drawRect(0, 0, parent.width, parent.height, 0xC0000000);
@@ -18,6 +18,7 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.client.ClientSettings;
+import com.supermobtracker.client.util.DisplayEntityCache;
 import com.supermobtracker.client.util.GuiDrawingUtils;
 import com.supermobtracker.config.ModConfig;
 import com.supermobtracker.spawn.SpawnConditionAnalyzer;
@@ -303,7 +304,7 @@ public class GuiGalleryView {
 
         // Get all entities that have a valid instance (same logic as MobListWidget)
         List<ResourceLocation> ids = ForgeRegistries.ENTITIES.getKeys().stream()
-            .filter(id -> analyzer.getEntityInstance(id) != null)
+            .filter(DisplayEntityCache::isCreatable)
             .collect(Collectors.toList());
 
         // Count i18n name occurrences for disambiguation
@@ -399,6 +400,8 @@ public class GuiGalleryView {
     }
 
     private String formatEntityName(ResourceLocation id, boolean applyI18n) {
-        return TranslationUtils.formatEntityName(id, analyzer.getEntityInstance(id), applyI18n);
+        String name = applyI18n ? DisplayEntityCache.getDisplayName(id) : null;
+
+        return name != null ? name : TranslationUtils.formatEntityName(id, null, applyI18n);
     }
 }
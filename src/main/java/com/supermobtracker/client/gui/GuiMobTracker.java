@@ -7,7 +7,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -26,17 +28,25 @@ import net.minecraft.entity.Entity;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextFormatting;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.client.ClientSettings;
+import com.supermobtracker.client.util.AsyncSpawnAnalysis;
+import com.supermobtracker.client.util.DisplayEntityCache;
 import com.supermobtracker.client.util.GuiDrawingUtils;
 import com.supermobtracker.config.ModConfig;
 import com.supermobtracker.drops.DropSimulator;
 import com.supermobtracker.integration.jei.JEIHelper;
 import com.supermobtracker.spawn.BiomeDimensionMapper;
+import com.supermobtracker.spawn.ConditionInteraction;
 import com.supermobtracker.spawn.ConditionUtils;
+import com.supermobtracker.spawn.QueriedCondition;
 import com.supermobtracker.spawn.SpawnConditionAnalyzer;
+import com.supermobtracker.spawn.SpawnConditionsCache;
+import com.supermobtracker.spawn.SpawnTableIndex;
 import com.supermobtracker.tracking.SpawnTrackerManager;
+import com.supermobtracker.util.IntervalSet;
 import com.supermobtracker.util.TranslationUtils;
 import com.supermobtracker.util.Utils;
 
@@ -47,12 +57,15 @@ public class GuiMobTracker extends GuiScreen {
     private ResourceLocation selected;
     private final SpawnConditionAnalyzer analyzer = new SpawnConditionAnalyzer();
     private SpawnConditionAnalyzer.SpawnConditions spawnConditions;
+    private List<String> analysisErrorHints = Collections.emptyList();
+    private AsyncSpawnAnalysis.Task pendingAnalysis = null;
     private long lastClickTime = 0L;
     private ResourceLocation lastClickId = null;
 
     // Cache for spawn conditions to avoid regenerating on window resize
     private static ResourceLocation cachedEntityId = null;
     private static SpawnConditionAnalyzer.SpawnConditions cachedSpawnConditions = null;
+    private static List<String> cachedErrorHints = Collections.emptyList();
 
     // JEI button bounds (updated during draw)
     private int jerButtonX, jerButtonY, jerButtonW, jerButtonH;
@@ -101,6 +114,7 @@ public class GuiMobTracker extends GuiScreen {
     private static final int dimensionColor = 0xFFDDAA;
     private static final int biomeColor = 0xAADDFF;
     private static final int hintColor = 0xFFAAAA;
+    private static final int interactionColor = 0xDDCCFF;
 
     private final ResourceLocation initialSelected;
     private final GuiScreen returnScreen;
@@ -163,16 +177,15 @@ public class GuiMobTracker extends GuiScreen {
         }
 
         if (restoreId != null) {
-            if (analyzer.getEntityInstance(restoreId) != null) {
+            if (DisplayEntityCache.isCreatable(restoreId)) {
                 this.selected = restoreId;
 
                 // Reuse cached spawn conditions if the entity ID matches
                 if (restoreId.equals(cachedEntityId) && cachedSpawnConditions != null) {
                     this.spawnConditions = cachedSpawnConditions;
-                } else {
-                    this.spawnConditions = analyzer.analyze(restoreId);
-                    cachedEntityId = restoreId;
-                    cachedSpawnConditions = this.spawnConditions;
+                    this.analysisErrorHints = cachedErrorHints;
+                } else if (pendingAnalysis == null || !restoreId.equals(pendingAnalysis.entityId)) {
+                    startAnalysis(restoreId);
 
                     DropSimulator.getOrStartSimulation(restoreId);
                 }
@@ -187,15 +200,53 @@ public class GuiMobTracker extends GuiScreen {
 
     public void selectEntity(ResourceLocation id) {
         this.selected = id;
-        this.spawnConditions = analyzer.analyze(id);
-        cachedEntityId = id;
-        cachedSpawnConditions = this.spawnConditions;
+        if (id != null) {
+            startAnalysis(id);
+        } else if (pendingAnalysis != null) {
+            pendingAnalysis.cancel();
+            pendingAnalysis = null;
+        }
         ModConfig.setClientLastSelectedEntity(id != null ? id.toString() : "");
 
        // Start drop simulation in background so it may be ready when the player opens the drops window
         if (id != null) DropSimulator.getOrStartSimulation(id);
     }
 
+    /**
+     * Analyze the spawn conditions in the background, replacing (and cancelling) any analysis in progress.
+     * The right panel shows a progress indicator until the result is published.
+     * Results from a previous session are reused directly when still valid.
+     */
+    private void startAnalysis(ResourceLocation id) {
+        if (pendingAnalysis != null) pendingAnalysis.cancel();
+
+        SpawnConditionAnalyzer.SpawnConditions persisted = SpawnConditionsCache.get(id);
+        this.spawnConditions = persisted;
+        this.analysisErrorHints = Collections.emptyList();
+        cachedEntityId = id;
+        cachedSpawnConditions = persisted;
+        cachedErrorHints = Collections.emptyList();
+
+        pendingAnalysis = persisted == null ? AsyncSpawnAnalysis.submit(id, this::onAnalysisComplete) : null;
+    }
+
+    /**
+     * Publish a finished analysis, called on the client thread.
+     */
+    private void onAnalysisComplete(AsyncSpawnAnalysis.Task task) {
+        // Keep the result for reopening the tracker, even if this screen is gone
+        if (task.entityId.equals(cachedEntityId)) {
+            cachedSpawnConditions = task.getResult();
+            cachedErrorHints = task.getErrorHints();
+        }
+
+        if (task != pendingAnalysis) return;
+
+        pendingAnalysis = null;
+        this.spawnConditions = task.getResult();
+        this.analysisErrorHints = task.getErrorHints();
+    }
+
     public ResourceLocation getSelectedEntity() {
         return this.selected;
     }
@@ -308,7 +359,7 @@ public class GuiMobTracker extends GuiScreen {
                 Entity entity = analyzer.getInitializedEntityInstance(selected);
                 if (entity != null) {
                     String entityName = formatEntityName(selected, true);
-                    previewModal = new GuiEntityPreviewModal(this, selected, entity, entityName);
+                    previewModal = new GuiEntityPreviewModal(this, selected, entityName);
                     previewModal.show(width, height);
 
                     return;
@@ -318,7 +369,8 @@ public class GuiMobTracker extends GuiScreen {
             // Handle biomes label click - copy to clipboard
             List<String> biomes = biomeTooltipWidget.getLines();
             if (biomes != null && !biomes.isEmpty() && biomeTooltipWidget.isHovered(mouseX, mouseY)) {
-                String biomeList = String.join("\n", biomes);
+                // Failed biomes are struck through in the tooltip, the clipboard gets plain names
+                String biomeList = TextFormatting.getTextWithoutFormattingCodes(String.join("\n", biomes));
                 GuiScreen.setClipboardString(biomeList);
 
                 String entityName = formatEntityName(selected, true);
@@ -364,6 +416,7 @@ public class GuiMobTracker extends GuiScreen {
                 // Clear cache and re-analyze
                 cachedEntityId = null;
                 cachedSpawnConditions = null;
+                SpawnConditionsCache.invalidate(selected);
                 selectEntity(selected);
 
                 return;
@@ -544,6 +597,41 @@ public class GuiMobTracker extends GuiScreen {
         return builder.toString();
     }
 
+    private String formatConditionName(QueriedCondition condition) {
+        return I18n.format("gui.mobtracker.condition." + condition.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Format a value of a {@link ConditionInteraction}, see there for the encoding.
+     */
+    private String formatConditionValue(QueriedCondition condition, int value) {
+        switch (condition) {
+            case TIME_OF_DAY: return I18n.format("gui.mobtracker.timeOfDay." + timeOfDayName(value));
+            case WEATHER: return I18n.format("gui.mobtracker.weather." + ConditionUtils.DEFAULT_WEATHERS.get(value));
+            case MOON_PHASE: return I18n.format("gui.mobtracker.moonphase." + value);
+            case CAN_SEE_SKY:
+            case SLIME_CHUNK:
+            case NETHER:
+                return I18n.format(value != 0 ? "gui.mobtracker.condition.yes" : "gui.mobtracker.condition.no");
+            default: return String.valueOf(value);
+        }
+    }
+
+    private String formatConditionValues(QueriedCondition condition, List<Integer> values, String sep) {
+        if (values.isEmpty()) return I18n.format("gui.mobtracker.interaction.none");
+        if (condition == QueriedCondition.LIGHT_LEVEL) return IntervalSet.of(values).format(sep);
+
+        return values.stream().map(value -> formatConditionValue(condition, value)).collect(Collectors.joining(sep));
+    }
+
+    private static String timeOfDayName(int ticks) {
+        if (ticks >= 23000 || ticks < 500) return "dawn";
+        if (ticks < 12000) return "day";
+        if (ticks < 13000) return "dusk";
+
+        return "night";
+    }
+
     private void drawRightPanel(int mouseX, int mouseY, float partialTicks) {
         int leftWidth = Math.min(width / 2, 250);
         int panelX = leftWidth + 10;
@@ -680,8 +768,22 @@ public class GuiMobTracker extends GuiScreen {
 
         textY += dropsButtonH + 4;
 
+        // Analysis still running in the background
+        if (pendingAnalysis != null) {
+            textY += 10;
+
+            int dots = (int) (pendingAnalysis.getElapsedMillis() / 400L % 4L);
+            String seconds = String.format(Locale.ROOT, "%.1f", pendingAnalysis.getElapsedMillis() / 1000.0);
+            String analyzing = I18n.format("gui.mobtracker.analyzing", seconds) + "...".substring(0, dots);
+            drawWrappedString(fontRenderer, analyzing, textX, textY, 12, textW, 0xAAAAAA);
+
+            biomeTooltipWidget.clear();
+
+            return;
+        }
+
         // Check if analysis failed (crashed) vs entity cannot spawn naturally
-        List<String> errorHints = analyzer.getErrorHints();
+        List<String> errorHints = analysisErrorHints;
         boolean analysisCrashed = !errorHints.isEmpty() && errorHints.stream().anyMatch(h -> h.contains("crashed"));
 
         // Entities without native biomes (not in any spawn table) cannot spawn naturally.
@@ -711,12 +813,12 @@ public class GuiMobTracker extends GuiScreen {
         // Only show spawn condition details if they have valid data
         if (!spawnConditions.failed()) {
             if (!spawnConditions.lightLevels.isEmpty()) {
-                String lightLevels = I18n.format("gui.mobtracker.lightLevels", Utils.formatRangeFromList(spawnConditions.lightLevels, sep));
+                String lightLevels = I18n.format("gui.mobtracker.lightLevels", spawnConditions.lightLevels.format(sep));
                 textY = drawWrappedString(fontRenderer, lightLevels, condsX, textY, 12, textW, lightColor);
             }
 
             if (!spawnConditions.yLevels.isEmpty()) {
-                String yPos = I18n.format("gui.mobtracker.yPos", Utils.formatRangeFromList(spawnConditions.yLevels, sep));
+                String yPos = I18n.format("gui.mobtracker.yPos", spawnConditions.yLevels.format(sep));
                 textY = drawWrappedString(fontRenderer, yPos, condsX, textY, 12, textW, ylevelColor);
             }
 
@@ -778,6 +880,20 @@ public class GuiMobTracker extends GuiScreen {
                 String netherText = I18n.format("gui.mobtracker.nether." + netherKey);
                 textY = drawWrappedString(fontRenderer, netherText, condsX, textY, 12, textW, skyColor);
             }
+
+            // Display the combined limits of conditions that depend on each other
+            for (ConditionInteraction interaction : spawnConditions.interactions) {
+                String header = I18n.format("gui.mobtracker.interaction",
+                    formatConditionName(interaction.first), formatConditionName(interaction.second));
+                textY = drawWrappedString(fontRenderer, header, condsX, textY, 12, textW, interactionColor);
+
+                for (int j = 0; j < interaction.getSecondValueCount(); j++) {
+                    String allowed = formatConditionValues(interaction.first, interaction.getFirstValuesAllowedWith(j), sep);
+                    String line = I18n.format("gui.mobtracker.interaction.line",
+                        formatConditionValue(interaction.second, interaction.getSecondValue(j)), allowed);
+                    textY = drawWrappedString(fontRenderer, line, condsX + 6, textY, 12, textW - 6, interactionColor);
+                }
+            }
         } else {
             String noConditions = I18n.format("gui.mobtracker.noSpawnConditions");
             textY = drawWrappedString(fontRenderer, noConditions, condsX, textY, 12, textW, 0xFFAAAA);
@@ -853,6 +969,12 @@ public class GuiMobTracker extends GuiScreen {
         int biomesLabelY = textY;
         textY = drawSingleString(fontRenderer, biomesLabel, condsX, textY, 12, biomeColor);
 
+        Set<String> failedBiomes = new HashSet<>(spawnConditions.failedBiomes);
+        if (!failedBiomes.isEmpty()) {
+            String failedLabel = I18n.format("gui.mobtracker.biomes.failed", failedBiomes.size());
+            textY = drawWrappedString(fontRenderer, failedLabel, condsX + 6, textY, 12, textW, hintColor);
+        }
+
         List<String> hints = spawnConditions.hints;
         if (!hints.isEmpty()) {
             textY += 10;
@@ -882,9 +1004,12 @@ public class GuiMobTracker extends GuiScreen {
             sortedBiomes = sortedBiomes.stream().filter(b -> !b.contains("jeid:error_biome"))
                                                 .collect(Collectors.toList());
 
-            // Translate biome names for display
-            List<String> translatedBiomes = sortedBiomes.stream().map(TranslationUtils::translateBiomeName)
-                                                                 .collect(Collectors.toList());
+            // Translate biome names for display, striking through the biomes the mob failed to spawn in
+            List<String> translatedBiomes = sortedBiomes.stream()
+                .map(b -> failedBiomes.contains(b)
+                    ? TextFormatting.STRIKETHROUGH + TranslationUtils.translateBiomeName(b) + TextFormatting.RESET
+                    : TranslationUtils.translateBiomeName(b))
+                .collect(Collectors.toList());
 
             // Deduplicate biomes for tooltip
             translatedBiomes = new ArrayList<>(new LinkedHashSet<>(translatedBiomes));
@@ -927,7 +1052,9 @@ public class GuiMobTracker extends GuiScreen {
      * @return Formatted entity name
      */
     private String formatEntityName(ResourceLocation id, boolean applyI18n) {
-        return TranslationUtils.formatEntityName(id, analyzer.getEntityInstance(id), applyI18n);
+        String name = applyI18n ? DisplayEntityCache.getDisplayName(id) : null;
+
+        return name != null ? name : TranslationUtils.formatEntityName(id, null, applyI18n);
     }
 
     class MobListWidget {
@@ -967,7 +1094,7 @@ public class GuiMobTracker extends GuiScreen {
             this.tracker = tracker;
 
             all.addAll(ForgeRegistries.ENTITIES.getKeys().stream()
-                .filter(id -> analyzer.getEntityInstance(id) != null)
+                .filter(DisplayEntityCache::isCreatable)
                 .collect(Collectors.toList()));
 
             rebuildFiltered();
@@ -984,12 +1111,30 @@ public class GuiMobTracker extends GuiScreen {
             }
         }
 
+        private Set<ResourceLocation> getEntitiesInBiomes(String biomeFilter) {
+            SpawnTableIndex index = SpawnTableIndex.get();
+            Set<ResourceLocation> entities = new HashSet<>();
+
+            for (String biome : index.getBiomesWithSpawns()) {
+                boolean matches = biome.toLowerCase().contains(biomeFilter)
+                    || TranslationUtils.translateBiomeName(biome).toLowerCase().contains(biomeFilter);
+                if (matches) entities.addAll(index.getEntities(biome));
+            }
+
+            return entities;
+        }
+
         private void rebuildFiltered() {
             String filterLower = this.filter.toLowerCase();
 
+            // "@name" lists the mobs in the spawn lists of the matching biomes
+            Set<ResourceLocation> biomeMatches = filterLower.startsWith("@") ? getEntitiesInBiomes(filterLower.substring(1)) : null;
+
             // Filter by both raw ID and i18n name
             List<ResourceLocation> base = all.stream()
                 .filter(id -> {
+                    if (biomeMatches != null) return biomeMatches.contains(id);
+
                     if (id.toString().toLowerCase().contains(filterLower)) return true;
 
                     String i18nName = tracker.formatEntityName(id, true).toLowerCase();
@@ -0,0 +1,195 @@
+package com.supermobtracker.client.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.spawn.SpawnConditionAnalyzer;
+import com.supermobtracker.spawn.SpawnConditionsCache;
+import com.supermobtracker.util.EntityWatchdog;
+
+
+/**
+ * Runs the spawn condition analysis of the selected mob on a background thread, so mobs with
+ * tricky (random) spawn conditions do not freeze the game while the tracker GUI is open.
+ * <p>
+ * Only the latest request matters: submitting a new one cancels the previous analysis, which
+ * stops at its next spawn check. Results are published back on the client thread.
+ * <p>
+ * The low-priority background analyses of the {@link SpawnAtlas} run on a thread of their own, under
+ * the per-entity time budget, so a mob hanging the atlas never holds up the analyses requested by the user.
+ * They are also cancelled whenever the user requests an analysis, to leave it the CPU.
+ */
+public final class AsyncSpawnAnalysis {
+    private static final ExecutorService executor = createExecutor("SMT-SpawnAnalysis");
+    private static final ExecutorService backgroundExecutor = createExecutor("SMT-SpawnAtlas");
+    // Only used on the background thread, replaced when the configured budget changes
+    private static EntityWatchdog backgroundWatchdog = null;
+
+    private static Task latest = null;
+    private static Task background = null;
+
+    private AsyncSpawnAnalysis() {}
+
+    /**
+     * Start analyzing the given entity, cancelling the previous analysis and any background analysis.
+     * Must be called on the client thread.
+     *
+     * @param entityId the entity to analyze
+     * @param onComplete called on the client thread with the finished task, unless it was cancelled
+     */
+    public static Task submit(ResourceLocation entityId, Consumer<Task> onComplete) {
+        if (latest != null) latest.cancel();
+        if (background != null) background.cancel();
+
+        Task task = createTask(entityId, false);
+        task.future = executor.submit(() -> task.run(onComplete));
+        latest = task;
+
+        return task;
+    }
+
+    /**
+     * Start a low-priority analysis whose result only goes to the {@link SpawnConditionsCache}.
+     * It is cancelled by the next {@link #submit} call, check {@link Task#isCancelled()} to retry it.
+     * Must be called on the client thread.
+     */
+    public static Task submitBackground(ResourceLocation entityId) {
+        if (background != null) background.cancel();
+
+        Task task = createTask(entityId, true);
+        task.future = backgroundExecutor.submit(() -> task.run(null));
+        background = task;
+
+        return task;
+    }
+
+    private static EntityWatchdog getBackgroundWatchdog() {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(ModConfig.clientAnalysisEntityTimeBudget);
+        if (backgroundWatchdog == null || backgroundWatchdog.getBudgetNanos() != budgetNanos) {
+            if (backgroundWatchdog != null) backgroundWatchdog.shutdown();
+            backgroundWatchdog = EntityWatchdog.fromConfig("SMT-SpawnAtlas");
+        }
+
+        return backgroundWatchdog;
+    }
+
+    private static ExecutorService createExecutor(String name) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Task createTask(ResourceLocation entityId, boolean lowPriority) {
+        // The analyzed instance lives in the client world, so it is created here rather than on the worker
+        SpawnConditionAnalyzer analyzer = new SpawnConditionAnalyzer();
+        analyzer.getEntityInstance(entityId);
+
+        return new Task(entityId, analyzer, lowPriority);
+    }
+
+    /**
+     * A single analysis request.
+     */
+    public static final class Task {
+        public final ResourceLocation entityId;
+        private final SpawnConditionAnalyzer analyzer;
+        private final boolean lowPriority;
+        private final long startTime = System.currentTimeMillis();
+        private volatile Future<?> future;
+        private volatile boolean cancelled = false;
+        private volatile boolean done = false;
+        private volatile SpawnConditionAnalyzer.SpawnConditions result;
+        private volatile List<String> errorHints = Collections.emptyList();
+
+        private Task(ResourceLocation entityId, SpawnConditionAnalyzer analyzer, boolean lowPriority) {
+            this.entityId = entityId;
+            this.analyzer = analyzer;
+            this.lowPriority = lowPriority;
+        }
+
+        private void run(Consumer<Task> onComplete) {
+            if (cancelled) return;
+
+            try {
+                result = lowPriority ? analyzeWithBudget() : analyzer.analyze(entityId);
+                errorHints = analyzer.getErrorHints();
+
+                // Written here rather than on publish, to keep the disk write off the client thread
+                SpawnConditionsCache.put(entityId, result, !lowPriority);
+
+                // Otherwise the atlas would analyze the mob again every session
+                if (lowPriority && !SpawnConditionsCache.isCacheable(result)) {
+                    SpawnConditionsCache.putUnavailable(entityId, "uncacheable");
+                }
+            } catch (CancellationException e) {
+                return;
+            } catch (TimeoutException e) {
+                SuperMobTracker.LOGGER.warn("Spawn atlas analysis of {} exceeded its time budget, skipping it", entityId);
+                errorHints = Collections.singletonList("Spawn analysis timed out");
+                SpawnConditionsCache.putUnavailable(entityId, "timeout");
+            } catch (Throwable t) {
+                // Interrupted while waiting for the watchdog
+                if (cancelled) return;
+
+                // analyze() already handles the entity's own failures, this is a bug on our side
+                SuperMobTracker.LOGGER.error("Background spawn analysis of {} failed", entityId, t);
+                errorHints = Collections.singletonList("Spawn analysis crashed");
+            }
+
+            done = true;
+            if (onComplete == null) return;
+
+            Minecraft.getMinecraft().addScheduledTask(() -> {
+                if (!cancelled) onComplete.accept(this);
+            });
+        }
+
+        private SpawnConditionAnalyzer.SpawnConditions analyzeWithBudget() throws TimeoutException {
+            return getBackgroundWatchdog().call(() -> {
+                Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+                return analyzer.analyze(entityId);
+            });
+        }
+
+        /**
+         * Cancel the analysis. A cancelled task never publishes its result.
+         */
+        public void cancel() {
+            cancelled = true;
+
+            Future<?> running = future;
+            if (running != null) running.cancel(true);
+        }
+
+        public boolean isDone() { return done; }
+        public boolean isCancelled() { return cancelled; }
+
+        /**
+         * Time since the analysis was requested, in milliseconds.
+         */
+        public long getElapsedMillis() {
+            return System.currentTimeMillis() - startTime;
+        }
+
+        /**
+         * The analysis result, or null if the entity cannot spawn naturally or the analysis failed.
+         */
+        public SpawnConditionAnalyzer.SpawnConditions getResult() { return result; }
+
+        public List<String> getErrorHints() { return errorHints; }
+    }
+}
@@ -0,0 +1,174 @@
+package com.supermobtracker.client.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityAgeable;
+import net.minecraft.entity.EntityList;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.registry.EntityEntry;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.spawn.ConditionUtils;
+import com.supermobtracker.util.TranslationUtils;
+
+
+/**
+ * Shared, size-bounded cache of display entities used by the previews
+ * (mob tracker panel, gallery, preview modal and JEI loot recipes).
+ * <p>
+ * Entities are created in the client world and initialized for display once.
+ * The least recently used ones are dropped when the cache is full, and the
+ * whole cache is cleared when the client world unloads.
+ * <p>
+ * The mob lists cover the whole registry, so they only keep the display name of each entity,
+ * taken from a throwaway instance, rather than the entities themselves.
+ */
+public final class DisplayEntityCache {
+    private static final int MAX_ENTRIES = 128;
+
+    private static final Map<ResourceLocation, EntityLiving> entities =
+        new LinkedHashMap<ResourceLocation, EntityLiving>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResourceLocation, EntityLiving> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+    // Entities that could not be created, so broken constructors are not retried every frame
+    private static final Set<ResourceLocation> failedEntityIds = new HashSet<>();
+
+    // Display names of the listed entities, null for those that cannot be created
+    private static final Map<ResourceLocation, String> listedNames = new HashMap<>();
+
+    private DisplayEntityCache() {}
+
+    /**
+     * Get the display entity for the given id, creating and initializing it if needed.
+     *
+     * @param entityId the entity registry name
+     * @return the display entity, or null if there is no client world or it cannot be created
+     */
+    @Nullable
+    public static EntityLiving get(ResourceLocation entityId) {
+        if (entityId == null) return null;
+
+        World world = Minecraft.getMinecraft().world;
+        if (world == null) return null;
+
+        EntityLiving entity = entities.get(entityId);
+        if (entity != null && entity.world == world) return entity;
+        if (failedEntityIds.contains(entityId)) return null;
+
+        entity = createEntity(entityId, world);
+        if (entity == null) {
+            failedEntityIds.add(entityId);
+            return null;
+        }
+
+        initializeEntityForDisplay(entityId, entity);
+        entities.put(entityId, entity);
+
+        return entity;
+    }
+
+    /**
+     * Whether the entity can be created in the client world, e.g. to list it.
+     */
+    public static boolean isCreatable(ResourceLocation entityId) {
+        return getDisplayName(entityId) != null;
+    }
+
+    /**
+     * Get the display name of the given entity without keeping an instance around.
+     *
+     * @return the name, or null if there is no client world or the entity cannot be created
+     */
+    @Nullable
+    public static String getDisplayName(ResourceLocation entityId) {
+        if (entityId == null) return null;
+        if (listedNames.containsKey(entityId)) return listedNames.get(entityId);
+
+        World world = Minecraft.getMinecraft().world;
+        if (world == null) return null;
+
+        EntityLiving entity = entities.get(entityId);
+        if (entity == null || entity.world != world) entity = createEntity(entityId, world);
+
+        String name = null;
+        if (entity != null) {
+            try {
+                name = TranslationUtils.formatEntityName(entityId, entity, true);
+            } catch (Throwable t) {
+                if (ConditionUtils.shouldShowCrashes()) {
+                    SuperMobTracker.LOGGER.error("Error getting the display name of {}", entityId, t);
+                }
+            }
+        }
+
+        listedNames.put(entityId, name);
+        return name;
+    }
+
+    /**
+     * Drop every cached entity, releasing the world they reference.
+     */
+    public static void clear() {
+        entities.clear();
+        failedEntityIds.clear();
+        listedNames.clear();
+    }
+
+    @Nullable
+    private static EntityLiving createEntity(ResourceLocation entityId, World world) {
+        EntityEntry entry = ForgeRegistries.ENTITIES.getValue(entityId);
+        if (entry == null || !EntityLiving.class.isAssignableFrom(entry.getEntityClass())) return null;
+
+        try {
+            Entity entity = EntityList.createEntityByIDFromName(entityId, world);
+            if (entity instanceof EntityLiving) return (EntityLiving) entity;
+        } catch (Throwable t) {
+            if (ConditionUtils.shouldShowCrashes()) {
+                SuperMobTracker.LOGGER.error("Error creating display entity for {}", entityId, t);
+            }
+        }
+
+        return null;
+    }
+
+    private static void initializeEntityForDisplay(ResourceLocation entityId, EntityLiving entity) {
+        World world = entity.world;
+        if (world == null) return;
+
+        entity.setLocationAndAngles(0.5D, Math.max(1, world.getSeaLevel()), 0.5D, 0.0F, 0.0F);
+
+        try {
+            entity.onInitialSpawn(world.getDifficultyForLocation(new BlockPos(entity)), null);
+        } catch (Throwable t) {
+            if (ConditionUtils.shouldShowCrashes()) {
+                SuperMobTracker.LOGGER.error("Error initializing display entity for {}", entityId, t);
+            }
+        }
+
+        if (!(entity instanceof EntityAgeable)) return;
+
+        try {
+            ((EntityAgeable) entity).setScaleForAge(entity.isChild());
+        } catch (Throwable t) {
+            if (ConditionUtils.shouldShowCrashes()) {
+                SuperMobTracker.LOGGER.error("Error applying age scale for display entity {}", entityId, t);
+            }
+        }
+    }
+}
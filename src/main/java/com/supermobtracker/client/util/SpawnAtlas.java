@@ -0,0 +1,203 @@
+package com.supermobtracker.client.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.registry.EntityEntry;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.spawn.SpawnConditionsCache;
+import com.supermobtracker.spawn.SpawnSeedStore;
+import com.supermobtracker.tracking.SpawnTrackerManager;
+
+
+/**
+ * Opt-in background precomputation of the spawn conditions of every mob in the pack, so the
+ * tracker shows them without any analysis delay. Results are stored in the {@link SpawnConditionsCache}.
+ * <p>
+ * Mobs are analyzed one at a time at low priority, in order: tracked mobs, then the mobs allowed by
+ * the whitelist/blacklist, then everything else. Mobs already cached for the current fingerprint, or
+ * marked as having no cacheable result, are skipped. A user-requested analysis preempts the precompute, and the interrupted mob is queued again.
+ * <p>
+ * Driven by the client tick, so all of its state is only touched on the client thread.
+ */
+public final class SpawnAtlas {
+    // Cached mobs are skipped without analysis, bound the lookups per tick to avoid a hitch on join
+    private static final int MAX_CACHE_CHECKS_PER_TICK = 64;
+
+    private static final Deque<ResourceLocation> queue = new ArrayDeque<>();
+    private static AsyncSpawnAnalysis.Task inFlight = null;
+    private static boolean started = false;
+    private static boolean finished = false;
+    private static boolean paused = false;
+    private static int total = 0;
+    private static int analyzed = 0;
+    private static int reused = 0;
+    private static long startTime = 0L;
+
+    private SpawnAtlas() {}
+
+    /**
+     * Advance the precompute. Called every client tick while in a world.
+     */
+    public static void onClientTick() {
+        if (!started) {
+            if (!ModConfig.clientSpawnAtlasPrecompute) return;
+
+            start();
+        }
+
+        if (finished) return;
+
+        if (inFlight != null) {
+            if (inFlight.isDone()) {
+                analyzed++;
+            } else if (inFlight.isCancelled()) {
+                queue.addFirst(inFlight.entityId);
+            } else {
+                return;
+            }
+
+            inFlight = null;
+        }
+
+        if (paused) return;
+
+        for (int i = 0; i < MAX_CACHE_CHECKS_PER_TICK && !queue.isEmpty(); i++) {
+            ResourceLocation id = queue.pollFirst();
+            if (SpawnConditionsCache.contains(id)) {
+                reused++;
+                continue;
+            }
+
+            inFlight = AsyncSpawnAnalysis.submitBackground(id);
+            return;
+        }
+
+        if (queue.isEmpty()) finish();
+    }
+
+    /**
+     * Start the precompute for the current world, even if it is disabled in the config.
+     * Does nothing if it already started.
+     */
+    public static void start() {
+        if (started) return;
+
+        started = true;
+        finished = false;
+        paused = false;
+        analyzed = 0;
+        reused = 0;
+        startTime = System.currentTimeMillis();
+
+        queue.clear();
+        queue.addAll(getPrioritizedEntities());
+        total = queue.size();
+
+        SuperMobTracker.LOGGER.info("Precomputing the spawn atlas of {} mobs", total);
+    }
+
+    /**
+     * Stop the precompute and forget its progress, e.g. when leaving the world.
+     */
+    public static void stop() {
+        if (inFlight != null) inFlight.cancel();
+
+        inFlight = null;
+        queue.clear();
+        started = false;
+        finished = false;
+        paused = false;
+
+        SpawnConditionsCache.save();
+        SpawnSeedStore.save();
+    }
+
+    /**
+     * Pause or resume the precompute. Pausing cancels the mob being analyzed, it is analyzed again on resume.
+     */
+    public static void setPaused(boolean value) {
+        if (paused == value) return;
+
+        paused = value;
+        if (!paused) return;
+
+        if (inFlight != null) inFlight.cancel();
+        SpawnConditionsCache.save();
+        SpawnSeedStore.save();
+    }
+
+    public static boolean isStarted() { return started; }
+    public static boolean isFinished() { return finished; }
+    public static boolean isPaused() { return paused; }
+    public static int getTotal() { return total; }
+    public static int getAnalyzed() { return analyzed; }
+    public static int getReused() { return reused; }
+
+    /**
+     * Number of mobs left, including the one being analyzed.
+     */
+    public static int getRemaining() {
+        return queue.size() + (inFlight != null ? 1 : 0);
+    }
+
+    @Nullable
+    public static ResourceLocation getCurrent() {
+        return inFlight != null ? inFlight.entityId : null;
+    }
+
+    public static long getElapsedMillis() {
+        return started ? System.currentTimeMillis() - startTime : 0L;
+    }
+
+    private static void finish() {
+        finished = true;
+        SpawnConditionsCache.save();
+        SpawnSeedStore.save();
+
+        SuperMobTracker.LOGGER.info("Spawn atlas complete: {} mobs analyzed, {} already cached, in {}s",
+            analyzed, reused, getElapsedMillis() / 1000);
+    }
+
+    private static List<ResourceLocation> getPrioritizedEntities() {
+        List<ResourceLocation> registered = new ArrayList<>(ForgeRegistries.ENTITIES.getKeys());
+        registered.sort(Comparator.comparing(ResourceLocation::toString));
+
+        Set<ResourceLocation> ordered = new LinkedHashSet<>();
+        for (ResourceLocation id : SpawnTrackerManager.getTrackedIds()) {
+            if (isLiving(id)) ordered.add(id);
+        }
+
+        List<ResourceLocation> filtered = new ArrayList<>();
+        for (ResourceLocation id : registered) {
+            if (!isLiving(id)) continue;
+
+            if (ModConfig.isEntityAllowed(id.toString())) {
+                ordered.add(id);
+            } else {
+                filtered.add(id);
+            }
+        }
+        ordered.addAll(filtered);
+
+        return new ArrayList<>(ordered);
+    }
+
+    private static boolean isLiving(ResourceLocation id) {
+        EntityEntry entry = ForgeRegistries.ENTITIES.getValue(id);
+
+        return entry != null && EntityLiving.class.isAssignableFrom(entry.getEntityClass());
+    }
+}
@@ -0,0 +1,388 @@
+package com.supermobtracker.command;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+
+/**
+ * Compares the machine-readable outputs of two {@code /smtanalyze} runs of the same kind
+ * (mobs or loot), to spot the regressions between two versions of a pack.
+ * <p>
+ * Timings are compared on their median (p50). A mob only counts as slower or faster when
+ * the change exceeds the relative threshold, twice the baseline standard deviation, and
+ * an absolute noise floor, so that jitter on fast mobs is not reported.
+ */
+public final class AnalysisRunDiff {
+    public static final double DEFAULT_THRESHOLD_PERCENT = 20.0;
+    private static final long NOISE_FLOOR_NANOS = 1_000_000L;
+
+    // Statuses meaning the mob could not be processed at all, on either kind of run.
+    // Quarantined mobs are skipped because of earlier crashes, so they are not fixed.
+    private static final Set<String> CRASH_STATUSES = new HashSet<>(Arrays.asList(
+        "CRASHED", "WORLD_CREATION_FAILED", "ENTITY_CONSTRUCTION_FAILED", "TIMEOUT", "QUARANTINED"));
+
+    private AnalysisRunDiff() {}
+
+    /**
+     * A single mob record of a run.
+     */
+    static final class RunEntry {
+        final String entityId;
+        final String mod;
+        final String status;
+        final String error;
+        final long p50;
+        final double stdDev;
+        // "itemId@metadata" keys, null when the run does not record drops
+        final Set<String> drops;
+
+        RunEntry(String entityId, String mod, String status, String error, long p50, double stdDev, Set<String> drops) {
+            this.entityId = entityId;
+            this.mod = mod;
+            this.status = status;
+            this.error = error;
+            this.p50 = p50;
+            this.stdDev = stdDev;
+            this.drops = drops;
+        }
+
+        boolean isCrash() {
+            return CRASH_STATUSES.contains(status);
+        }
+    }
+
+    /**
+     * A whole run, as loaded from its JSON file.
+     */
+    static final class Run {
+        final File file;
+        final String type;
+        final String generated;
+        final int samples;
+        final Map<String, RunEntry> entries;
+
+        Run(File file, String type, String generated, int samples, Map<String, RunEntry> entries) {
+            this.file = file;
+            this.type = type;
+            this.generated = generated;
+            this.samples = samples;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * Per-mob timing change between two runs.
+     */
+    static final class TimingDelta {
+        final String entityId;
+        final long baselineP50;
+        final long currentP50;
+
+        TimingDelta(String entityId, long baselineP50, long currentP50) {
+            this.entityId = entityId;
+            this.baselineP50 = baselineP50;
+            this.currentP50 = currentP50;
+        }
+
+        double getPercentChange() {
+            return percentChange(baselineP50, currentP50);
+        }
+    }
+
+    /**
+     * Drop-set change of a single mob between two loot runs.
+     */
+    static final class DropDelta {
+        final String entityId;
+        final Set<String> added;
+        final Set<String> removed;
+
+        DropDelta(String entityId, Set<String> added, Set<String> removed) {
+            this.entityId = entityId;
+            this.added = added;
+            this.removed = removed;
+        }
+    }
+
+    /**
+     * Everything the report shows, computed once by {@link #compare}.
+     */
+    static final class Result {
+        final Run baseline;
+        final Run current;
+        final double thresholdPercent;
+        final List<TimingDelta> regressions = new ArrayList<>();
+        final List<TimingDelta> improvements = new ArrayList<>();
+        final List<RunEntry> newCrashes = new ArrayList<>();
+        final List<RunEntry> fixedCrashes = new ArrayList<>();
+        final List<DropDelta> dropChanges = new ArrayList<>();
+        final List<String> onlyInBaseline = new ArrayList<>();
+        final List<String> onlyInCurrent = new ArrayList<>();
+        // mod -> [baseline p50 sum, current p50 sum], over the mobs present in both runs
+        final Map<String, long[]> modTotals = new TreeMap<>();
+        int comparedCount = 0;
+        long baselineTotal = 0;
+        long currentTotal = 0;
+        double medianRatio = 1.0;
+
+        Result(Run baseline, Run current, double thresholdPercent) {
+            this.baseline = baseline;
+            this.current = current;
+            this.thresholdPercent = thresholdPercent;
+        }
+    }
+
+    /**
+     * Load a run from the JSON companion of a report.
+     *
+     * @throws IOException if the file cannot be read or is not an analysis output
+     */
+    static Run load(File file) throws IOException {
+        JsonElement rootElement;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            rootElement = new JsonParser().parse(reader);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid JSON in " + file.getName() + ": " + e.getMessage(), e);
+        }
+
+        if (rootElement == null || !rootElement.isJsonObject()) {
+            throw new IOException(file.getName() + " is not an analysis output");
+        }
+
+        JsonObject root = rootElement.getAsJsonObject();
+        String type = getString(root, "type");
+        JsonArray mobs = root.has("mobs") && root.get("mobs").isJsonArray() ? root.getAsJsonArray("mobs") : null;
+        if (type == null || mobs == null) throw new IOException(file.getName() + " is not an analysis output");
+
+        Map<String, RunEntry> entries = new LinkedHashMap<>();
+        for (JsonElement rawMob : mobs) {
+            if (!rawMob.isJsonObject()) continue;
+
+            JsonObject mob = rawMob.getAsJsonObject();
+            String entityId = getString(mob, "id");
+            if (entityId == null) continue;
+
+            JsonObject total = mob.has("total") && mob.get("total").isJsonObject() ? mob.getAsJsonObject("total") : null;
+            long p50 = total != null && total.has("p50") ? total.get("p50").getAsLong() : 0L;
+            double stdDev = total != null && total.has("stdDev") ? total.get("stdDev").getAsDouble() : 0.0;
+
+            Set<String> drops = null;
+            if (mob.has("drops") && mob.get("drops").isJsonArray()) {
+                drops = new LinkedHashSet<>();
+                for (JsonElement rawDrop : mob.getAsJsonArray("drops")) {
+                    if (!rawDrop.isJsonArray() || rawDrop.getAsJsonArray().size() < 2) continue;
+
+                    JsonArray drop = rawDrop.getAsJsonArray();
+                    drops.add(drop.get(0).getAsString() + "@" + drop.get(1).getAsInt());
+                }
+            }
+
+            String mod = getString(mob, "mod");
+            String status = getString(mob, "status");
+            entries.put(entityId, new RunEntry(entityId, mod != null ? mod : "?", status != null ? status : "?",
+                getString(mob, "error"), p50, stdDev, drops));
+        }
+
+        int samples = root.has("samples") ? root.get("samples").getAsInt() : 0;
+        return new Run(file, type, getString(root, "generated"), samples, entries);
+    }
+
+    /**
+     * Compare two runs of the same type.
+     *
+     * @param thresholdPercent the relative p50 change above which a mob counts as slower or faster
+     */
+    static Result compare(Run baseline, Run current, double thresholdPercent) {
+        Result result = new Result(baseline, current, thresholdPercent);
+        List<Double> ratios = new ArrayList<>();
+
+        for (RunEntry before : baseline.entries.values()) {
+            RunEntry after = current.entries.get(before.entityId);
+            if (after == null) {
+                result.onlyInBaseline.add(before.entityId);
+                continue;
+            }
+
+            if (after.isCrash() && !before.isCrash()) result.newCrashes.add(after);
+            if (before.isCrash() && !after.isCrash()) result.fixedCrashes.add(after);
+
+            if (before.drops != null && after.drops != null && !before.drops.equals(after.drops)) {
+                Set<String> added = new LinkedHashSet<>(after.drops);
+                added.removeAll(before.drops);
+                Set<String> removed = new LinkedHashSet<>(before.drops);
+                removed.removeAll(after.drops);
+                result.dropChanges.add(new DropDelta(before.entityId, added, removed));
+            }
+
+            // Crashed mobs usually fail fast, so their timings say nothing about performance
+            if (before.isCrash() || after.isCrash()) continue;
+
+            result.comparedCount++;
+            result.baselineTotal += before.p50;
+            result.currentTotal += after.p50;
+            if (before.p50 > 0) ratios.add((double) after.p50 / before.p50);
+
+            long[] modTotal = result.modTotals.get(before.mod);
+            if (modTotal == null) {
+                modTotal = new long[2];
+                result.modTotals.put(before.mod, modTotal);
+            }
+            modTotal[0] += before.p50;
+            modTotal[1] += after.p50;
+
+            long delta = after.p50 - before.p50;
+            long noise = Math.max(NOISE_FLOOR_NANOS, (long) (2 * before.stdDev));
+            if (Math.abs(delta) <= noise) continue;
+
+            TimingDelta timingDelta = new TimingDelta(before.entityId, before.p50, after.p50);
+            if (timingDelta.getPercentChange() > thresholdPercent) {
+                result.regressions.add(timingDelta);
+            } else if (timingDelta.getPercentChange() < -thresholdPercent) {
+                result.improvements.add(timingDelta);
+            }
+        }
+
+        for (RunEntry after : current.entries.values()) {
+            if (baseline.entries.containsKey(after.entityId)) continue;
+
+            // New mobs that crash are new crashes too
+            result.onlyInCurrent.add(after.entityId);
+            if (after.isCrash()) result.newCrashes.add(after);
+        }
+
+        result.regressions.sort((a, b) -> Long.compare(b.currentP50 - b.baselineP50, a.currentP50 - a.baselineP50));
+        result.improvements.sort((a, b) -> Long.compare(a.currentP50 - a.baselineP50, b.currentP50 - b.baselineP50));
+
+        if (!ratios.isEmpty()) {
+            Collections.sort(ratios);
+            result.medianRatio = ratios.get(ratios.size() / 2);
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the human-readable report of a comparison.
+     */
+    static void write(Result result, File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("=== Analysis Diff Report (" + result.current.type + ") ===");
+            writer.println("Baseline: " + describe(result.baseline));
+            writer.println("Current: " + describe(result.current));
+            writer.printf("Threshold: %.1f%% p50 change, beyond max(%.2fms, 2 x baseline stddev)%n",
+                result.thresholdPercent, NOISE_FLOOR_NANOS / 1_000_000.0);
+            writer.println("Generated: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+            writer.println();
+
+            writer.println("--- Summary ---");
+            writer.println("Compared: " + result.comparedCount + " mobs (" + result.onlyInBaseline.size()
+                + " only in baseline, " + result.onlyInCurrent.size() + " only in current)");
+            writer.printf("Total p50 time: %.2fms -> %.2fms (%+.1f%%)%n",
+                result.baselineTotal / 1_000_000.0,
+                result.currentTotal / 1_000_000.0,
+                percentChange(result.baselineTotal, result.currentTotal));
+            writer.printf("Median p50 ratio: %.3fx%n", result.medianRatio);
+            writer.println("Regressions: " + result.regressions.size() + ", Improvements: " + result.improvements.size()
+                + ", New crashes: " + result.newCrashes.size() + ", Fixed crashes: " + result.fixedCrashes.size()
+                + ", Drop-set changes: " + result.dropChanges.size());
+            writer.println();
+
+            writer.println("--- Regressions (largest slowdown first) ---");
+            for (TimingDelta delta : result.regressions) writeTimingDelta(writer, delta);
+            writer.println();
+
+            writer.println("--- New crashes ---");
+            for (RunEntry entry : result.newCrashes) {
+                writer.println(entry.entityId + " - " + entry.status + (entry.error != null ? ": " + entry.error : ""));
+            }
+            writer.println();
+
+            if (!result.dropChanges.isEmpty()) {
+                writer.println("--- Drop-set changes ---");
+                for (DropDelta delta : result.dropChanges) {
+                    writer.println(delta.entityId + " - Added: " + delta.added + ", Removed: " + delta.removed);
+                }
+                writer.println();
+            }
+
+            writer.println("--- Per-mod p50 totals (flagged beyond threshold) ---");
+            for (Map.Entry<String, long[]> modTotal : result.modTotals.entrySet()) {
+                long before = modTotal.getValue()[0];
+                long after = modTotal.getValue()[1];
+                double change = percentChange(before, after);
+                boolean beyondNoise = Math.abs(after - before) > NOISE_FLOOR_NANOS;
+                String flag = "";
+                if (beyondNoise && change > result.thresholdPercent) flag = " [REGRESSION]";
+                if (beyondNoise && change < -result.thresholdPercent) flag = " [IMPROVEMENT]";
+
+                writer.printf("%s - %.2fms -> %.2fms (%+.1f%%)%s%n",
+                    modTotal.getKey(), before / 1_000_000.0, after / 1_000_000.0, change, flag);
+            }
+            writer.println();
+
+            writer.println("--- Fixed crashes ---");
+            for (RunEntry entry : result.fixedCrashes) writer.println(entry.entityId + " - " + entry.status);
+            writer.println();
+
+            writer.println("--- Improvements (largest speedup first) ---");
+            for (TimingDelta delta : result.improvements) writeTimingDelta(writer, delta);
+            writer.println();
+
+            writer.println("--- Only in baseline ---");
+            for (String entityId : result.onlyInBaseline) writer.println(entityId);
+            writer.println();
+
+            writer.println("--- Only in current ---");
+            for (String entityId : result.onlyInCurrent) writer.println(entityId);
+        }
+    }
+
+    private static void writeTimingDelta(PrintWriter writer, TimingDelta delta) {
+        writer.printf("%s - p50: %.2fms -> %.2fms (%+.1f%%)%n",
+            delta.entityId,
+            delta.baselineP50 / 1_000_000.0,
+            delta.currentP50 / 1_000_000.0,
+            delta.getPercentChange());
+    }
+
+    private static String describe(Run run) {
+        return run.file.getName() + " (generated " + (run.generated != null ? run.generated : "?")
+            + ", " + run.samples + " samples, " + run.entries.size() + " mobs)";
+    }
+
+    private static double percentChange(long before, long after) {
+        if (before <= 0) return after > 0 ? 100.0 : 0.0;
+
+        return (after - before) * 100.0 / before;
+    }
+
+    private static String getString(JsonObject object, String key) {
+        if (!object.has(key) || !object.get(key).isJsonPrimitive()) return null;
+
+        return object.get(key).getAsString();
+    }
+}
@@ -1,20 +1,37 @@
 package com.supermobtracker.command;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nonnull;
 
+import com.google.gson.stream.JsonWriter;
+
 import net.minecraft.client.Minecraft;
 import net.minecraft.command.CommandBase;
 import net.minecraft.command.CommandException;
@@ -31,13 +48,21 @@ import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.client.util.SpawnAtlas;
+import com.supermobtracker.config.ModConfig;
 import com.supermobtracker.drops.DropSimulator;
 import com.supermobtracker.drops.DropSimulator.ProfileResult;
+import com.supermobtracker.drops.LootAnalysisExport;
+import com.supermobtracker.drops.LootAnalysisRunner.LootPerformanceEntry;
+import com.supermobtracker.drops.SimulationHealth;
 import com.supermobtracker.network.NetworkHandler;
 import com.supermobtracker.network.PacketRequestLootAnalysis;
 import com.supermobtracker.spawn.BiomeDimensionMapper;
 import com.supermobtracker.spawn.ConditionUtils;
 import com.supermobtracker.spawn.SpawnConditionAnalyzer;
+import com.supermobtracker.spawn.SpawnSeedStore;
+import com.supermobtracker.util.EntityWatchdog;
+import com.supermobtracker.util.TimingStats;
 
 
 /**
@@ -45,14 +70,19 @@ import com.supermobtracker.spawn.SpawnConditionAnalyzer;
  * Works locally in singleplayer, or delegates to server in multiplayer for loot analysis.
  * Usage:
  *   /smtanalyze - Run all analyses with default parameters
- *   /smtanalyze mobs [samples] - Analyze all mobs with performance metrics
+ *   /smtanalyze mobs [samples] [threads] - Analyze all mobs with performance metrics, optionally in parallel
  *   /smtanalyze loot [samples] [simulationCount] - Analyze loot drops for all mobs
  *   /smtanalyze dimension [samples] [extendedCount] [numGrids] - Benchmark dimension mapping
+ *   /smtanalyze diff <baseline.json> <current.json> [thresholdPercent] - Compare two runs
+ *   /smtanalyze quarantine [clear] - List or lift the auto-quarantined simulation entities
+ *   /smtanalyze atlas [pause|resume] - Show, pause or resume the spawn atlas precompute
  */
 public class CommandAnalyze extends CommandBase implements IClientCommand {
     private static final int DEFAULT_SAMPLES = 10;
     private static final int DEFAULT_LOOT_SIMULATION_COUNT = 10000;
+    private static final int MAX_MOB_ANALYSIS_THREADS = 64;
     private static final String OUTPUT_DIR = "supermobtracker";
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
 
     @Override
     @Nonnull
@@ -63,7 +93,10 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
     @Override
     @Nonnull
     public String getUsage(@Nonnull ICommandSender sender) {
-        return "/smtanalyze [mobs|loot|dimension] [samples] [simulationCount|extendedCount] [numGrids]";
+        return "/smtanalyze [mobs|loot|dimension] [samples] [threads|simulationCount|extendedCount] [numGrids]"
+            + " | /smtanalyze diff <baseline.json> <current.json> [thresholdPercent]"
+            + " | /smtanalyze quarantine [clear]"
+            + " | /smtanalyze atlas [pause|resume]";
     }
 
     @Override
@@ -80,7 +113,12 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
     @Nonnull
     public List<String> getTabCompletions(@Nonnull MinecraftServer server, @Nonnull ICommandSender sender,
             String[] args, BlockPos targetPos) {
-        if (args.length == 1) return getListOfStringsMatchingLastWord(args, "mobs", "loot", "dimension");
+        if (args.length == 1) return getListOfStringsMatchingLastWord(args, "mobs", "loot", "dimension", "diff", "quarantine", "atlas");
+        if ((args.length == 2 || args.length == 3) && "diff".equalsIgnoreCase(args[0])) {
+            return getListOfStringsMatchingLastWord(args, listRunOutputs());
+        }
+        if (args.length == 2 && "quarantine".equalsIgnoreCase(args[0])) return getListOfStringsMatchingLastWord(args, "clear");
+        if (args.length == 2 && "atlas".equalsIgnoreCase(args[0])) return getListOfStringsMatchingLastWord(args, "pause", "resume");
 
         return Collections.emptyList();
     }
@@ -98,12 +136,59 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         }
 
         String subCommand = args[0].toLowerCase();
+        if ("diff".equals(subCommand)) {
+            if (args.length < 3 || args.length > 4) throw new CommandException("/smtanalyze diff <baseline.json> <current.json> [thresholdPercent]");
+
+            File baselineFile = resolveRunOutput(args[1]);
+            File currentFile = resolveRunOutput(args[2]);
+            double thresholdPercent = args.length > 3 ? parseDouble(args[3], 0.0, 1000.0) : AnalysisRunDiff.DEFAULT_THRESHOLD_PERCENT;
+            new Thread(() -> runDiff(sender, baselineFile, currentFile, thresholdPercent), "SMT-AnalysisDiff").start();
+
+            return;
+        }
+
+        if ("quarantine".equals(subCommand)) {
+            if (args.length > 2 || (args.length == 2 && !"clear".equalsIgnoreCase(args[1]))) {
+                throw new CommandException("/smtanalyze quarantine [clear]");
+            }
+
+            if (args.length == 2) {
+                SimulationHealth.clear();
+                sendMessage(sender, TextFormatting.GREEN, "Cleared the simulation health history, no entity is quarantined anymore.");
+            } else {
+                listQuarantine(sender);
+            }
+
+            return;
+        }
+
+        if ("atlas".equals(subCommand)) {
+            String action = args.length == 2 ? args[1].toLowerCase() : "";
+            if (args.length > 2 || (args.length == 2 && !"pause".equals(action) && !"resume".equals(action))) {
+                throw new CommandException("/smtanalyze atlas [pause|resume]");
+            }
+
+            if ("pause".equals(action)) {
+                SpawnAtlas.setPaused(true);
+            } else if ("resume".equals(action)) {
+                // Also starts it for this world when the precompute is disabled in the config
+                SpawnAtlas.start();
+                SpawnAtlas.setPaused(false);
+            }
+
+            showAtlasProgress(sender);
+
+            return;
+        }
+
         int samples = args.length > 1 ? parseInt(args[1], 1, 100) : DEFAULT_SAMPLES;
 
         switch (subCommand) {
             case "mobs":
-                sendMessage(sender, TextFormatting.YELLOW, "Analyzing all mobs (" + samples + " samples)...");
-                new Thread(() -> runMobAnalysis(sender, samples), "SMT-MobAnalysis").start();
+                int threads = args.length > 2 ? parseInt(args[2], 1, MAX_MOB_ANALYSIS_THREADS) : 1;
+                sendMessage(sender, TextFormatting.YELLOW, "Analyzing all mobs (" + samples + " samples"
+                    + (threads > 1 ? ", " + threads + " threads" : "") + ")...");
+                new Thread(() -> runMobAnalysis(sender, samples, threads), "SMT-MobAnalysis").start();
                 break;
 
             case "loot":
@@ -144,7 +229,7 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
             }
 
             try {
-                runMobAnalysis(sender, samples);
+                runMobAnalysis(sender, samples, 1);
             } catch (Exception e) {
                 sendMessage(sender, TextFormatting.RED, "Mob analysis failed: " + e.getMessage());
                 SuperMobTracker.LOGGER.error("Mob analysis failed", e);
@@ -178,8 +263,13 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
      * - noDimension: biomes couldn't be mapped to any dimension
      * - noNativeBiomes: doesn't spawn naturally (no biomes in spawn tables)
      * - crashed: threw an exception during analysis
+     * - timedOut: exceeded the per-entity time budget
+     * <p>
+     * With more than one thread, mobs are analyzed on a fork-join pool and timed with the CPU time of
+     * the analyzing thread, as wall time would include the other workers' contention. Reports list
+     * the mobs in the same order whatever the completion order.
      */
-    private void runMobAnalysis(ICommandSender sender, int samples) {
+    private void runMobAnalysis(ICommandSender sender, int samples, int threads) {
         ConditionUtils.suppressProfiling(true);
         long startTime = System.nanoTime();
         String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
@@ -190,8 +280,9 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         List<MobPerformanceEntry> noDimensionMobs = new ArrayList<>();
         List<MobPerformanceEntry> noNativeBiomeMobs = new ArrayList<>();
         List<MobPerformanceEntry> crashedMobs = new ArrayList<>();
+        List<MobPerformanceEntry> timedOutMobs = new ArrayList<>();
+        List<MobPerformanceEntry> allMobs = new ArrayList<>();
 
-        SpawnConditionAnalyzer analyzer = new SpawnConditionAnalyzer();
         List<ResourceLocation> entityIds = new ArrayList<>();
 
         // Collect all living entities
@@ -199,60 +290,41 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
             if (EntityLiving.class.isAssignableFrom(entry.getEntityClass())) entityIds.add(entry.getRegistryName());
         }
 
-        int total = entityIds.size();
-        int current = 0;
-
-        for (ResourceLocation entityId : entityIds) {
-            current++;
-            if (current % 50 == 0) sendProgress(sender, "Progress: " + current + "/" + total + " mobs analyzed...");
-
-            List<Long> timings = new ArrayList<>();
-            SpawnConditionAnalyzer.SpawnConditions result = null;
-            String error = null;
-            boolean hasNativeBiomes = false;
-
-            for (int i = 0; i < samples; i++) {
-                // Clear caches between samples for accurate timing
-                analyzer = new SpawnConditionAnalyzer();
-
-                long sampleStart = System.nanoTime();
-                result = analyzer.analyze(entityId);
-                long sampleTime = System.nanoTime() - sampleStart;
-                timings.add(sampleTime);
-
-                hasNativeBiomes = analyzer.hasNativeBiomes();
+        boolean cpuTime = threads > 1 && THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        MobPerformanceEntry[] entries = new MobPerformanceEntry[entityIds.size()];
 
-                // Check if analysis crashed internally
-                Throwable lastError = analyzer.getLastError();
-                if (lastError != null) {
-                    error = lastError.getClass().getSimpleName() + ": " + lastError.getMessage();
-                    break; // No point retrying
-                }
+        if (threads > 1) {
+            analyzeMobsInParallel(sender, entityIds, samples, threads, cpuTime, entries);
+        } else {
+            EntityWatchdog watchdog = EntityWatchdog.fromConfig("SMT-MobAnalysis");
+            for (int i = 0; i < entries.length; i++) {
+                if ((i + 1) % 50 == 0) sendProgress(sender, "Progress: " + (i + 1) + "/" + entries.length + " mobs analyzed...");
+                entries[i] = analyzeMobPerformance(entityIds.get(i), samples, watchdog, cpuTime);
             }
+            watchdog.shutdown();
+        }
 
-            // Categorize the result
-            if (error != null) {
-                crashedMobs.add(new MobPerformanceEntry(entityId.toString(), timings, false, null, null, error));
-            } else if (!hasNativeBiomes) {
-                noNativeBiomeMobs.add(new MobPerformanceEntry(entityId.toString(), timings, false, null, null, null));
-            } else if (result == null) {
-                // Has biomes but result is null - shouldn't happen, but track it
-                failedMobs.add(new MobPerformanceEntry(entityId.toString(), timings, false, null, null, null));
-            } else if (result.dimension == null) {
-                // Has biomes but couldn't map to dimension
-                noDimensionMobs.add(new MobPerformanceEntry(entityId.toString(), timings, false, null, result.biomes, null));
-            } else if (result.isSparse()) {
-                // Analysis returned multiple ranges (sparse) which indicates incomplete or ambiguous sampling
-                sparseMobs.add(new MobPerformanceEntry(entityId.toString(), timings, false, result.dimension, result.biomes, null));
-            } else if (result.failed()) {
-                failedMobs.add(new MobPerformanceEntry(entityId.toString(), timings, false, result.dimension, result.biomes, null));
-            } else {
-                successfulMobs.add(new MobPerformanceEntry(entityId.toString(), timings, true, result.dimension, result.biomes, null));
+        // Outside of the timed analyses, which only record the seeds they find
+        SpawnSeedStore.save();
+
+        // Categorize in registry order, whatever order the mobs completed in
+        for (MobPerformanceEntry entry : entries) {
+            switch (entry.status) {
+                case "TIMEOUT": timedOutMobs.add(entry); break;
+                case "CRASHED": crashedMobs.add(entry); break;
+                case "NO_NATIVE_BIOMES": noNativeBiomeMobs.add(entry); break;
+                case "NO_DIMENSION": noDimensionMobs.add(entry); break;
+                case "SPARSE": sparseMobs.add(entry); break;
+                case "FAILED": failedMobs.add(entry); break;
+                default: successfulMobs.add(entry); break;
             }
+            allMobs.add(entry);
         }
 
-        // Sort each list by average (slowest time first)
-        Comparator<MobPerformanceEntry> byAverageTime = (a, b) -> Double.compare(b.getAverageTime(), a.getAverageTime());
+        // Sort each list by average (slowest time first), ties by ID so reports are stable across runs
+        Comparator<MobPerformanceEntry> byAverageTime = Comparator
+            .comparingDouble((MobPerformanceEntry e) -> -e.getAverageTime())
+            .thenComparing(e -> e.entityId);
         successfulMobs.sort(byAverageTime);
         failedMobs.sort(byAverageTime);
         sparseMobs.sort(byAverageTime);
@@ -261,18 +333,17 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         crashedMobs.sort(byAverageTime);
 
         // Write successful mobs to file
+        String baseFilename = "mob_performance_" + samples + "samples_" + timestamp;
         File successFile = writePerformanceReport(
-            "mob_performance_" + samples + "samples_" + timestamp + ".txt",
+            baseFilename + ".txt",
             "Successful Mob Analysis Performance Report",
             null,
             successfulMobs,
             samples,
-            "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Dimension: X",
-            (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Dimension: %s%n",
+            "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Dimension: X",
+            (writer, entry) -> writer.printf("%s - %s | Dimension: %s%n",
                 entry.entityId,
-                entry.getAverageTime() / 1_000_000.0,
-                entry.getWorstTime() / 1_000_000.0,
-                entry.getBestTime() / 1_000_000.0,
+                entry.timings.formatMillis(),
                 entry.dimension != null ? entry.dimension : "?"),
             sender
         );
@@ -281,6 +352,9 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
             return;
         }
 
+        // Write the machine-readable companion (all mobs, every category)
+        writeMobAnalysisExport(getOutputFile(baseFilename + ".json"), samples, threads, cpuTime, allMobs, sender);
+
         // Write failed mobs to file
         if (!failedMobs.isEmpty()) {
             writePerformanceReport(
@@ -289,12 +363,10 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
                 "These mobs have native biomes but spawn conditions could not be determined.",
                 failedMobs,
                 samples,
-                "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Dimension: X",
-                (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Dimension: %s%n",
+                "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Dimension: X",
+                (writer, entry) -> writer.printf("%s - %s | Dimension: %s%n",
                     entry.entityId,
-                    entry.getAverageTime() / 1_000_000.0,
-                    entry.getWorstTime() / 1_000_000.0,
-                    entry.getBestTime() / 1_000_000.0,
+                    entry.timings.formatMillis(),
                     entry.dimension != null ? entry.dimension : "?"),
                 sender
             );
@@ -308,12 +380,10 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
                 "These mobs produced sparse/ambiguous spawn condition results (multiple ranges detected).",
                 sparseMobs,
                 samples,
-                "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Dimension: X",
-                (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Dimension: %s%n",
+                "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Dimension: X",
+                (writer, entry) -> writer.printf("%s - %s | Dimension: %s%n",
                     entry.entityId,
-                    entry.getAverageTime() / 1_000_000.0,
-                    entry.getWorstTime() / 1_000_000.0,
-                    entry.getBestTime() / 1_000_000.0,
+                    entry.timings.formatMillis(),
                     entry.dimension != null ? entry.dimension : "?"),
                 sender
             );
@@ -327,17 +397,30 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
                 "These mobs caused exceptions during spawn condition analysis.",
                 crashedMobs,
                 samples,
-                "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Error: X",
-                (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Error: %s%n",
+                "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Error: X",
+                (writer, entry) -> writer.printf("%s - %s | Error: %s%n",
                     entry.entityId,
-                    entry.getAverageTime() / 1_000_000.0,
-                    entry.getWorstTime() / 1_000_000.0,
-                    entry.getBestTime() / 1_000_000.0,
+                    entry.timings.formatMillis(),
                     entry.error),
                 sender
             );
         }
 
+        // Write timed out mobs to file
+        if (!timedOutMobs.isEmpty()) {
+            timedOutMobs.sort(Comparator.comparing(a -> a.entityId));
+            writePerformanceReport(
+                "timeout_performance_" + samples + "samples_" + timestamp + ".txt",
+                "Timed Out Mob Analysis Report",
+                "These mobs exceeded the per-entity time budget and were skipped.",
+                timedOutMobs,
+                samples,
+                "Format: [Entity ID] | Error: X",
+                (writer, entry) -> writer.printf("%s | Error: %s%n", entry.entityId, entry.error),
+                sender
+            );
+        }
+
         // Write noDimension mobs to file (biomes couldn't be mapped to any dimension)
         if (!noDimensionMobs.isEmpty()) {
             writePerformanceReport(
@@ -346,14 +429,12 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
                 "These mobs have native biomes that couldn't be mapped to any dimension.",
                 noDimensionMobs,
                 samples,
-                "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Biomes: [list]",
+                "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Biomes: [list]",
                 (writer, entry) -> {
                     String biomeList = entry.biomes != null ? String.join(", ", entry.biomes) : "?";
-                    writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Biomes: %s%n",
+                    writer.printf("%s - %s | Biomes: %s%n",
                         entry.entityId,
-                        entry.getAverageTime() / 1_000_000.0,
-                        entry.getWorstTime() / 1_000_000.0,
-                        entry.getBestTime() / 1_000_000.0,
+                        entry.timings.formatMillis(),
                         biomeList);
                 },
                 sender
@@ -380,10 +461,127 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         long elapsed = System.nanoTime() - startTime;
         sendMessage(sender, TextFormatting.GREEN, "Mob analysis complete! Time: " + formatDuration(elapsed));
         sendMessage(sender, TextFormatting.AQUA, "Successful: " + successfulMobs.size() + ", Failed: " + failedMobs.size() + 
-            ", Sparse: " + sparseMobs.size() + ", No dimension: " + noDimensionMobs.size() + ", Crashed: " + crashedMobs.size() + ", No biomes: " + noNativeBiomeMobs.size());
+            ", Sparse: " + sparseMobs.size() + ", No dimension: " + noDimensionMobs.size() + ", Crashed: " + crashedMobs.size() + ", Timed out: " + timedOutMobs.size() + ", No biomes: " + noNativeBiomeMobs.size());
         sendMessage(sender, TextFormatting.AQUA, "Results saved to: " + successFile.getParent());
     }
 
+    /**
+     * Analyze the mobs on a fork-join pool. Each worker has its own watchdog, and the analysis
+     * takes a simulated world of its own for every dimension out of the analyzer's pool.
+     * Results are stored at the index of their mob, so the caller sees them in registry order.
+     */
+    private void analyzeMobsInParallel(ICommandSender sender, List<ResourceLocation> entityIds, int samples,
+                                       int threads, boolean cpuTime, MobPerformanceEntry[] entries) {
+        Queue<EntityWatchdog> watchdogs = new ConcurrentLinkedQueue<>();
+        ThreadLocal<EntityWatchdog> workerWatchdog = ThreadLocal.withInitial(() -> {
+            EntityWatchdog watchdog = EntityWatchdog.fromConfig(Thread.currentThread().getName());
+            watchdogs.add(watchdog);
+            return watchdog;
+        });
+
+        AtomicInteger workerCount = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("SMT-MobAnalysis-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        AtomicInteger completed = new AtomicInteger();
+        try {
+            // A parallel stream started from a task of the pool runs on that pool
+            pool.submit(() -> IntStream.range(0, entries.length).parallel().forEach(i -> {
+                entries[i] = analyzeMobPerformance(entityIds.get(i), samples, workerWatchdog.get(), cpuTime);
+
+                int done = completed.incrementAndGet();
+                if (done % 50 == 0) sendProgress(sender, "Progress: " + done + "/" + entries.length + " mobs analyzed...");
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while analyzing mobs", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parallel mob analysis failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            for (EntityWatchdog watchdog : watchdogs) watchdog.shutdown();
+        }
+    }
+
+    /**
+     * Analyze a single mob {@code samples} times and categorize the result.
+     *
+     * @param watchdog enforces the per-entity time budget, must not be shared with another thread
+     * @param cpuTime whether to time the samples with the CPU time of the analysis rather than wall time,
+     *                including the time its worker threads spent on it
+     */
+    private MobPerformanceEntry analyzeMobPerformance(ResourceLocation entityId, int samples, EntityWatchdog watchdog,
+                                                      boolean cpuTime) {
+        long[] sampleTimings = new long[samples];
+        int sampleCount = 0;
+        SpawnConditionAnalyzer.SpawnConditions result = null;
+        String error = null;
+        boolean hasNativeBiomes = false;
+        boolean timedOut = false;
+
+        // The other workers of a parallel run already keep the cores busy
+        boolean parallel = Thread.currentThread() instanceof ForkJoinWorkerThread;
+
+        for (int i = 0; i < samples; i++) {
+            // Clear caches between samples for accurate timing
+            SpawnConditionAnalyzer analyzer = new SpawnConditionAnalyzer();
+            analyzer.setInlineEnsemble(parallel);
+            long[] cpuElapsed = new long[1];
+
+            long sampleStart = System.nanoTime();
+            try {
+                result = watchdog.call(() -> {
+                    long cpuStart = cpuTime ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+                    SpawnConditionAnalyzer.SpawnConditions analyzed = analyzer.analyze(entityId);
+                    if (cpuTime) {
+                        cpuElapsed[0] = THREAD_MX_BEAN.getCurrentThreadCpuTime() - cpuStart + analyzer.getWorkerCpuNanos();
+                    }
+
+                    return analyzed;
+                });
+            } catch (TimeoutException e) {
+                sampleTimings[sampleCount++] = watchdog.getBudgetNanos();
+                error = "Exceeded time budget of " + ModConfig.clientAnalysisEntityTimeBudget + "s";
+                timedOut = true;
+                break; // No point retrying
+            }
+            long sampleTime = cpuTime ? cpuElapsed[0] : System.nanoTime() - sampleStart;
+            sampleTimings[sampleCount++] = sampleTime;
+
+            hasNativeBiomes = analyzer.hasNativeBiomes();
+
+            // Check if analysis crashed internally
+            Throwable lastError = analyzer.getLastError();
+            if (lastError != null) {
+                error = lastError.getClass().getSimpleName() + ": " + lastError.getMessage();
+                break; // No point retrying
+            }
+        }
+
+        TimingStats timings = TimingStats.of(sampleTimings, sampleCount);
+        String id = entityId.toString();
+
+        if (timedOut) return new MobPerformanceEntry(id, "TIMEOUT", timings, false, null, null, error);
+        if (error != null) return new MobPerformanceEntry(id, "CRASHED", timings, false, null, null, error);
+        if (!hasNativeBiomes) return new MobPerformanceEntry(id, "NO_NATIVE_BIOMES", timings, false, null, null, null);
+
+        // Has biomes but result is null - shouldn't happen, but track it
+        if (result == null) return new MobPerformanceEntry(id, "FAILED", timings, false, null, null, null);
+
+        // Has biomes but couldn't map to dimension
+        if (result.dimension == null) return new MobPerformanceEntry(id, "NO_DIMENSION", timings, false, null, result.biomes, null);
+
+        // Analysis returned multiple ranges (sparse) which indicates incomplete or ambiguous sampling
+        if (result.isSparse()) return new MobPerformanceEntry(id, "SPARSE", timings, false, result.dimension, result.biomes, null);
+        if (result.failed()) return new MobPerformanceEntry(id, "FAILED", timings, false, result.dimension, result.biomes, null);
+
+        return new MobPerformanceEntry(id, "SUCCESS", timings, true, result.dimension, result.biomes, null);
+    }
+
     /**
      * Benchmark dimension mapping with customizable parameters.
      * Tracks both total initialization time and per-dimension timing.
@@ -490,6 +688,8 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
      * - entityConstructionFailed: entity couldn't be constructed
      * - worldCreationFailed: simulation world couldn't be created
      * - crashed: threw an exception during simulation
+     * - timedOut: exceeded the per-entity time budget
+     * - quarantined: skipped after repeated crashes or timeouts in previous runs
      */
     private void runLootAnalysis(ICommandSender sender, int samples, int simulationCount) {
         long startTime = System.nanoTime();
@@ -502,6 +702,9 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         List<LootPerformanceEntry> entityConstructionFailedMobs = new ArrayList<>();
         List<LootPerformanceEntry> worldCreationFailedMobs = new ArrayList<>();
         List<LootPerformanceEntry> crashedMobs = new ArrayList<>();
+        List<LootPerformanceEntry> timedOutMobs = new ArrayList<>();
+        List<LootPerformanceEntry> quarantinedMobs = new ArrayList<>();
+        List<LootPerformanceEntry> allMobs = new ArrayList<>();
 
         List<ResourceLocation> entityIds = new ArrayList<>();
 
@@ -512,19 +715,25 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
 
         int total = entityIds.size();
         int current = 0;
+        EntityWatchdog watchdog = EntityWatchdog.fromConfig("SMT-LootAnalysis");
 
         for (ResourceLocation entityId : entityIds) {
             current++;
             if (current % 50 == 0) sendProgress(sender, "Loot progress: " + current + "/" + total + " mobs analyzed...");
 
-            List<Long> timings = new ArrayList<>();
+            long[] timings = new long[samples];
+            long[] setupTimings = new long[samples];
+            int sampleCount = 0;
             ProfileResult lastResult = null;
 
             long entityStart = System.nanoTime();
             for (int i = 0; i < samples; i++) {
-                ProfileResult result = DropSimulator.profileEntity(entityId, simulationCount);
-                timings.add(result.durationNanos);
+                ProfileResult result = DropSimulator.profileEntityWithBudget(watchdog, entityId, simulationCount, null);
+                timings[sampleCount] = result.durationNanos;
+                setupTimings[sampleCount++] = result.setupNanos;
                 lastResult = result;
+
+                if (result.endsSampling()) break; // No point retrying
             }
             long entityTimeMs = (System.nanoTime() - entityStart) / 1_000_000;
 
@@ -535,15 +744,18 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
 
             if (lastResult == null) continue;
 
-            int dropCount = (lastResult.result != null && lastResult.result.drops != null) ? lastResult.result.drops.size() : 0;
-            LootPerformanceEntry entry = new LootPerformanceEntry(entityId.toString(), timings, lastResult.status, dropCount, lastResult.error);
+            LootPerformanceEntry entry = new LootPerformanceEntry(entityId.toString(),
+                Arrays.copyOf(timings, sampleCount), Arrays.copyOf(setupTimings, sampleCount), lastResult);
+            allMobs.add(entry);
 
             switch (lastResult.status) {
                 case SUCCESS:
                     successfulMobs.add(entry);
+                    SimulationHealth.recordP99(entityId, entry.timings.getP99());
                     break;
                 case NO_DROPS:
                     noDropsMobs.add(entry);
+                    SimulationHealth.recordP99(entityId, entry.timings.getP99());
                     break;
                 case INVALID_ENTITY:
                     invalidEntityMobs.add(entry);
@@ -560,9 +772,18 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
                 case CRASHED:
                     crashedMobs.add(entry);
                     break;
+                case TIMEOUT:
+                    timedOutMobs.add(entry);
+                    break;
+                case QUARANTINED:
+                    quarantinedMobs.add(entry);
+                    break;
             }
         }
 
+        watchdog.shutdown();
+        SimulationHealth.save();
+
         // Sort each list by average time (slowest first)
         Comparator<LootPerformanceEntry> byAverageTime = (a, b) -> Double.compare(b.getAverageTime(), a.getAverageTime());
         successfulMobs.sort(byAverageTime);
@@ -570,23 +791,25 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         crashedMobs.sort(byAverageTime);
 
         // Write successful mobs to file
+        String baseFilename = "loot_performance_" + samples + "samples_" + simulationCount + "sims_" + timestamp;
         File successFile = writePerformanceReport(
-            "loot_performance_" + samples + "samples_" + simulationCount + "sims_" + timestamp + ".txt",
+            baseFilename + ".txt",
             "Successful Loot Analysis Performance Report",
             null,
             successfulMobs,
             samples,
-            "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Drop types: X",
-            (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Drop types: %d%n",
+            "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Drop types: X",
+            (writer, entry) -> writer.printf("%s - %s | Drop types: %d%n",
                 entry.entityId,
-                entry.getAverageTime() / 1_000_000.0,
-                entry.getWorstTime() / 1_000_000.0,
-                entry.getBestTime() / 1_000_000.0,
+                entry.timings.formatMillis(),
                 entry.dropCount),
             sender
         );
         if (successFile == null) return;
 
+        // Write the machine-readable companion (all mobs, every status)
+        LootAnalysisExport.write(successFile.getParentFile(), baseFilename, samples, simulationCount, allMobs);
+
         // Write no drops mobs to file
         if (!noDropsMobs.isEmpty()) {
             noDropsMobs.sort(Comparator.comparing(a -> a.entityId));
@@ -639,17 +862,45 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
                 "These mobs caused exceptions during loot simulation.",
                 crashedMobs,
                 samples,
-                "Format: [Entity ID] - Avg: Xms, Worst: Xms, Best: Xms | Error: X",
-                (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Error: %s%n",
+                "Format: [Entity ID] - Avg: Xms, P50: Xms, P90: Xms, P99: Xms, StdDev: Xms, Worst: Xms, Best: Xms | Error: X",
+                (writer, entry) -> writer.printf("%s - %s | Error: %s%n",
                     entry.entityId,
-                    entry.getAverageTime() / 1_000_000.0,
-                    entry.getWorstTime() / 1_000_000.0,
-                    entry.getBestTime() / 1_000_000.0,
+                    entry.timings.formatMillis(),
                     entry.error != null ? entry.error : "Unknown"),
                 sender
             );
         }
 
+        // Write timed out mobs to file
+        if (!timedOutMobs.isEmpty()) {
+            timedOutMobs.sort(Comparator.comparing(a -> a.entityId));
+            writePerformanceReport(
+                "loot_timeout_" + samples + "samples_" + simulationCount + "sims_" + timestamp + ".txt",
+                "Timed Out - Loot Analysis Report",
+                "These mobs exceeded the per-entity time budget and were skipped.",
+                timedOutMobs,
+                samples,
+                "Format: [Entity ID] | Error: X",
+                (writer, entry) -> writer.printf("%s | Error: %s%n", entry.entityId, entry.error),
+                sender
+            );
+        }
+
+        // Write quarantined mobs to file
+        if (!quarantinedMobs.isEmpty()) {
+            quarantinedMobs.sort(Comparator.comparing(a -> a.entityId));
+            writePerformanceReport(
+                "loot_quarantined_" + samples + "samples_" + simulationCount + "sims_" + timestamp + ".txt",
+                "Quarantined - Loot Analysis Report",
+                "These mobs repeatedly crashed or timed out in previous runs and were skipped.",
+                quarantinedMobs,
+                samples,
+                null,
+                (writer, entry) -> writer.println(entry.entityId),
+                sender
+            );
+        }
+
         long elapsed = System.nanoTime() - startTime;
 
         // Clear cached profiling resources to free memory
@@ -658,22 +909,118 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         sendMessage(sender, TextFormatting.GREEN, "Loot analysis complete! Time: " + formatDuration(elapsed));
         sendMessage(sender, TextFormatting.AQUA, "Successful: " + successfulMobs.size() + ", No drops: " + noDropsMobs.size() + 
             ", Invalid: " + invalidEntityMobs.size() + ", Construction failed: " + entityConstructionFailedMobs.size() + 
-            ", Crashed: " + crashedMobs.size());
+            ", Crashed: " + crashedMobs.size() + ", Timed out: " + timedOutMobs.size() + ", Quarantined: " + quarantinedMobs.size());
         sendMessage(sender, TextFormatting.AQUA, "Results saved to: " + successFile.getParent());
     }
 
+    /**
+     * Compare the machine-readable outputs of two runs of the same kind, and write a diff report.
+     */
+    private void runDiff(ICommandSender sender, File baselineFile, File currentFile, double thresholdPercent) {
+        AnalysisRunDiff.Run baseline;
+        AnalysisRunDiff.Run current;
+        try {
+            baseline = AnalysisRunDiff.load(baselineFile);
+            current = AnalysisRunDiff.load(currentFile);
+        } catch (IOException e) {
+            sendMessage(sender, TextFormatting.RED, "Failed to load analysis output: " + e.getMessage());
+            return;
+        }
+
+        if (!baseline.type.equals(current.type)) {
+            sendMessage(sender, TextFormatting.RED, "Cannot compare a " + baseline.type + " run with a " + current.type + " run.");
+            return;
+        }
+
+        AnalysisRunDiff.Result result = AnalysisRunDiff.compare(baseline, current, thresholdPercent);
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        File reportFile = getOutputFile("diff_" + current.type + "_" + timestamp + ".txt");
+        try {
+            AnalysisRunDiff.write(result, reportFile);
+        } catch (IOException e) {
+            sendMessage(sender, TextFormatting.RED, "Failed to write " + reportFile.getName() + ": " + e.getMessage());
+            return;
+        }
+
+        TextFormatting color = result.regressions.isEmpty() && result.newCrashes.isEmpty() ? TextFormatting.GREEN : TextFormatting.YELLOW;
+        sendMessage(sender, color, "Diff complete: " + result.comparedCount + " mobs compared, "
+            + result.regressions.size() + " regressions, " + result.improvements.size() + " improvements, "
+            + result.newCrashes.size() + " new crashes, " + result.dropChanges.size() + " drop-set changes.");
+        sendMessage(sender, TextFormatting.AQUA, "Results saved to: " + reportFile.getAbsolutePath());
+    }
+
+    /**
+     * List the entities currently quarantined by the simulation health history.
+     */
+    private void listQuarantine(ICommandSender sender) {
+        List<SimulationHealth.Entry> quarantined = SimulationHealth.getQuarantined();
+        if (quarantined.isEmpty()) {
+            sendMessage(sender, TextFormatting.GREEN, "No entity is quarantined.");
+            return;
+        }
+
+        sendMessage(sender, TextFormatting.YELLOW, quarantined.size() + " quarantined entities (re-probed after "
+            + ModConfig.clientQuarantineCooldownHours + "h or a mod update):");
+        for (SimulationHealth.Entry entry : quarantined) {
+            sendMessage(sender, TextFormatting.GRAY, entry.entityId + " - Crashes: " + entry.crashes
+                + ", Timeouts: " + entry.timeouts + ", Strikes: " + entry.strikes);
+        }
+    }
+
+    private void showAtlasProgress(ICommandSender sender) {
+        if (!SpawnAtlas.isStarted()) {
+            sendMessage(sender, TextFormatting.YELLOW, "The spawn atlas precompute is not running. Enable it in the config, or start it with /smtanalyze atlas resume.");
+            return;
+        }
+
+        int done = SpawnAtlas.getAnalyzed() + SpawnAtlas.getReused();
+        String counts = done + "/" + SpawnAtlas.getTotal() + " mobs (" + SpawnAtlas.getAnalyzed() + " analyzed, "
+            + SpawnAtlas.getReused() + " already cached) in " + formatDuration(SpawnAtlas.getElapsedMillis() * 1_000_000L);
+
+        if (SpawnAtlas.isFinished()) {
+            sendMessage(sender, TextFormatting.GREEN, "Spawn atlas complete: " + counts);
+        } else if (SpawnAtlas.isPaused()) {
+            sendMessage(sender, TextFormatting.YELLOW, "Spawn atlas paused at " + counts);
+        } else {
+            ResourceLocation current = SpawnAtlas.getCurrent();
+            sendMessage(sender, TextFormatting.AQUA, "Spawn atlas: " + counts
+                + (current != null ? ", analyzing " + current : ""));
+        }
+    }
+
+    /**
+     * Resolve a run output given either as a file name inside the output directory, or as a path.
+     */
+    private File resolveRunOutput(String name) throws CommandException {
+        File file = new File(OUTPUT_DIR, name);
+        if (!file.isFile()) file = new File(name);
+        if (!file.isFile()) throw new CommandException("Analysis output not found: " + name);
+
+        return file;
+    }
+
+    private String[] listRunOutputs() {
+        String[] names = new File(OUTPUT_DIR).list((dir, name) -> name.endsWith(".json"));
+        if (names == null) return new String[0];
+
+        Arrays.sort(names);
+        return names;
+    }
+
     // --- Helper classes ---
 
     private static class MobPerformanceEntry {
         final String entityId;
-        final List<Long> timings;
+        final String status;
+        final TimingStats timings;
         final boolean success;
         final String dimension;
         final List<String> biomes;
         final String error;
 
-        MobPerformanceEntry(String entityId, List<Long> timings, boolean success, String dimension, List<String> biomes, String error) {
+        MobPerformanceEntry(String entityId, String status, TimingStats timings, boolean success, String dimension, List<String> biomes, String error) {
             this.entityId = entityId;
+            this.status = status;
             this.timings = timings;
             this.success = success;
             this.dimension = dimension;
@@ -681,9 +1028,9 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
             this.error = error;
         }
 
-        long getWorstTime() { return Collections.max(timings); }
-        long getBestTime() { return Collections.min(timings); }
-        double getAverageTime() { return timings.stream().mapToLong(Long::longValue).average().orElse(0); }
+        long getWorstTime() { return timings.getMax(); }
+        long getBestTime() { return timings.getMin(); }
+        double getAverageTime() { return timings.getMean(); }
     }
 
     private static class DimensionPerformanceEntry {
@@ -704,26 +1051,6 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         double getAverageTime() { return timings.stream().mapToLong(Long::longValue).average().orElse(0); }
     }
 
-    private static class LootPerformanceEntry {
-        final String entityId;
-        final List<Long> timings;
-        final ProfileResult.Status status;
-        final int dropCount;
-        final String error;
-
-        LootPerformanceEntry(String entityId, List<Long> timings, ProfileResult.Status status, int dropCount, String error) {
-            this.entityId = entityId;
-            this.timings = timings;
-            this.status = status;
-            this.dropCount = dropCount;
-            this.error = error;
-        }
-
-        long getWorstTime() { return Collections.max(timings); }
-        long getBestTime() { return Collections.min(timings); }
-        double getAverageTime() { return timings.stream().mapToLong(Long::longValue).average().orElse(0); }
-    }
-
     /**
      * Functional interface for writing entries to a PrintWriter.
      * @param <T> the type of entry to write
@@ -775,6 +1102,51 @@ public class CommandAnalyze extends CommandBase implements IClientCommand {
         }
     }
 
+    /**
+     * Writes the machine-readable companion of the mob analysis reports, in the same layout
+     * as the loot one (see {@link LootAnalysisExport}), so both can be compared with {@code diff}.
+     */
+    private void writeMobAnalysisExport(File file, int samples, int threads, boolean cpuTime,
+                                        List<MobPerformanceEntry> entries, ICommandSender sender) {
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("type").value("mobs");
+            writer.name("version").value(LootAnalysisExport.FORMAT_VERSION);
+            writer.name("generated").value(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+            writer.name("samples").value(samples);
+            writer.name("threads").value(threads);
+            writer.name("clock").value(cpuTime ? "cpu" : "wall");
+
+            writer.name("mobs");
+            writer.beginArray();
+            for (MobPerformanceEntry entry : entries) {
+                writer.beginObject();
+                writer.name("id").value(entry.entityId);
+                writer.name("mod").value(new ResourceLocation(entry.entityId).getNamespace());
+                writer.name("status").value(entry.status);
+                if (entry.error != null) writer.name("error").value(entry.error);
+                if (entry.dimension != null) writer.name("dimension").value(entry.dimension);
+
+                writer.name("total");
+                entry.timings.writeJson(writer);
+
+                writer.name("samples");
+                writer.beginArray();
+                for (long sample : entry.timings.getSortedSamples()) writer.value(sample);
+                writer.endArray();
+
+                writer.endObject();
+            }
+            writer.endArray();
+
+            writer.endObject();
+        } catch (IOException e) {
+            sendMessage(sender, TextFormatting.RED, "Failed to write " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
     // --- Utility methods ---
 
     private File getOutputFile(String filename) {
@@ -29,7 +29,9 @@ import com.supermobtracker.drops.DropSimulator;
 import com.supermobtracker.drops.DropSimulator.ProfileResult;
 import com.supermobtracker.drops.LootDump;
 import com.supermobtracker.drops.LootDump.DumpWriteResult;
+import com.supermobtracker.drops.SimulationHealth;
 import com.supermobtracker.integration.jei.JEIIntegration;
+import com.supermobtracker.util.EntityWatchdog;
 
 
 /**
@@ -96,6 +98,9 @@ public class CommandLootDump extends CommandBase implements IClientCommand {
 
         Map<ResourceLocation, DropSimulator.DropSimulationResult> results = new LinkedHashMap<>();
         int failedCount = 0;
+        int timedOutCount = 0;
+        int quarantinedCount = 0;
+        EntityWatchdog watchdog = EntityWatchdog.fromConfig("SMT-LootDump");
 
         try {
             for (int index = 0; index < entityIds.size(); index++) {
@@ -106,9 +111,13 @@ public class CommandLootDump extends CommandBase implements IClientCommand {
                 }
 
                 try {
-                    ProfileResult result = DropSimulator.profileEntity(entityId, simulationCount);
+                    ProfileResult result = DropSimulator.profileEntityWithBudget(watchdog, entityId, simulationCount, null);
                     if (result.status == ProfileResult.Status.SUCCESS && result.result != null && result.hasDrops()) {
                         results.put(entityId, result.result);
+                    } else if (result.status == ProfileResult.Status.TIMEOUT) {
+                        timedOutCount++;
+                    } else if (result.status == ProfileResult.Status.QUARANTINED) {
+                        quarantinedCount++;
                     } else if (result.status != ProfileResult.Status.NO_DROPS) {
                         failedCount++;
                     }
@@ -128,12 +137,23 @@ public class CommandLootDump extends CommandBase implements IClientCommand {
                 sendMessage(sender, TextFormatting.YELLOW,
                     "Skipped " + failedCount + " mobs whose loot could not be simulated.");
             }
+            if (timedOutCount > 0) {
+                sendMessage(sender, TextFormatting.YELLOW,
+                    "Skipped " + timedOutCount + " mobs that exceeded the time budget of "
+                        + ModConfig.clientAnalysisEntityTimeBudget + "s.");
+            }
+            if (quarantinedCount > 0) {
+                sendMessage(sender, TextFormatting.YELLOW,
+                    "Skipped " + quarantinedCount + " quarantined mobs (see /smtanalyze quarantine).");
+            }
             sendMessage(sender, TextFormatting.AQUA,
                 "JEI loot data saved to: " + writeResult.file.getAbsolutePath());
         } catch (Exception error) {
             SuperMobTracker.LOGGER.error("Failed to write mob loot dump", error);
             sendMessage(sender, TextFormatting.RED, "Failed to write loot dump: " + error.getMessage());
         } finally {
+            watchdog.shutdown();
+            SimulationHealth.save();
             DropSimulator.clearProfileCache();
         }
     }
@@ -62,10 +62,45 @@ public class ModConfig {
 
     @Config.Name("spawnCheckRetries")
     @Config.LangKey(PREFIX + "spawnCheckRetries")
-    @Config.Comment("Maximum retries for spawn condition checks. Higher values handle random spawn conditions better but increase analysis time.")
+    @Config.Comment("Maximum retries for spawn condition checks. Higher values handle random spawn conditions better but increase analysis time. Checks that do not use randomness are never retried.")
     @Config.RangeInt(min = 1, max = 10000)
     public static int clientSpawnCheckRetries = 100;
 
+    @Config.Name("spawnSearchBudget")
+    @Config.LangKey(PREFIX + "spawnSearchBudget")
+    @Config.Comment({
+        "Maximum spawn checks spent searching for a first working combination of conditions (time, weather, moon phase, ground block...) when analyzing a mob.",
+        "Mobs that exhaust it are reported as failed, with a hint to raise it."
+    })
+    @Config.RangeInt(min = 100, max = 10000000)
+    public static int clientSpawnSearchBudget = 50000;
+
+    @Config.Name("spawnInteractionAnalysis")
+    @Config.LangKey(PREFIX + "spawnInteractionAnalysis")
+    @Config.Comment({
+        "Detect spawn conditions that depend on each other (e.g. a light limit that only applies at night) and show their combined limits.",
+        "Costs a few extra spawn checks per analyzed mob, more for mobs with such conditions."
+    })
+    public static boolean clientSpawnInteractionAnalysis = true;
+
+    @Config.Name("spawnBiomeVerificationBudget")
+    @Config.LangKey(PREFIX + "spawnBiomeVerificationBudget")
+    @Config.Comment({
+        "Time in milliseconds spent checking that an analyzed mob also spawns in the other biomes of its spawn lists, in parallel.",
+        "Biomes where it cannot spawn are flagged in the biome list. 0 disables the check."
+    })
+    @Config.RangeInt(min = 0, max = 60000)
+    public static int clientSpawnBiomeVerificationBudget = 2000;
+
+    @Config.Name("spawnEnsembleWidth")
+    @Config.LangKey(PREFIX + "spawnEnsembleWidth")
+    @Config.Comment({
+        "Number of independent analyses, each rolling different random spawn checks, run in parallel for mobs with random spawn checks whose first analysis looks incomplete.",
+        "Their results are combined, and the extra analyses stop early once they no longer add anything. 1 disables them."
+    })
+    @Config.RangeInt(min = 1, max = 16)
+    public static int clientSpawnEnsembleWidth = 4;
+
     @Config.Name("trackedEntityIds")
     @Config.LangKey(PREFIX + "trackedEntityIds")
     @Config.Comment("List of entity IDs currently being tracked.")
@@ -139,6 +174,38 @@ public class ModConfig {
     })
     public static String[] clientUnstableSimulationEntities = DEFAULT_UNSTABLE_SIMULATION_ENTITIES.clone();
 
+    @Config.Name("analysisEntityTimeBudget")
+    @Config.LangKey(PREFIX + "analysisEntityTimeBudget")
+    @Config.Comment({
+        "Wall-clock budget in seconds for one entity in one sample of a registry-wide analysis (/smtanalyze, /smtlootdump, spawn atlas).",
+        "Entities that exceed it are reported as TIMEOUT and the run moves on to the next entity."
+    })
+    @Config.RangeInt(min = 1, max = 3600)
+    public static int clientAnalysisEntityTimeBudget = 60;
+
+    @Config.Name("quarantineStrikes")
+    @Config.LangKey(PREFIX + "quarantineStrikes")
+    @Config.Comment({
+        "Consecutive drop simulation crashes or timeouts after which an entity is automatically quarantined.",
+        "Quarantined entities are skipped by the drop simulation, /smtlootdump and /smtanalyze loot. 0 disables auto-quarantine."
+    })
+    @Config.RangeInt(min = 0, max = 100)
+    public static int clientQuarantineStrikes = 2;
+
+    @Config.Name("quarantineCooldownHours")
+    @Config.LangKey(PREFIX + "quarantineCooldownHours")
+    @Config.Comment("Hours after its last failure before a quarantined entity is simulated again. It is also retried when its mod's version changes.")
+    @Config.RangeInt(min = 1, max = 8760)
+    public static int clientQuarantineCooldownHours = 72;
+
+    @Config.Name("spawnAtlasPrecompute")
+    @Config.LangKey(PREFIX + "spawnAtlasPrecompute")
+    @Config.Comment({
+        "Analyze the spawn conditions of every mob in the background after joining a world, tracked mobs first,",
+        "so the tracker shows them instantly. Progress and pausing are available with /smtanalyze atlas."
+    })
+    public static boolean clientSpawnAtlasPrecompute = false;
+
     @Config.Name("shouldRenderEntities")
     @Config.LangKey(PREFIX + "shouldRenderEntities")
     @Config.Comment("Entity IDs that crash or spam errors when rendered. These entities will not render at all in the preview or gallery.")
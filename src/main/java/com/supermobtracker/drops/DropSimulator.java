@@ -7,8 +7,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nullable;
+
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
@@ -39,6 +42,7 @@ import com.supermobtracker.network.NetworkHandler;
 import com.supermobtracker.network.PacketDropSimulationProgress;
 import com.supermobtracker.network.PacketDropSimulationResult;
 import com.supermobtracker.network.PacketRequestDropSimulation;
+import com.supermobtracker.util.EntityWatchdog;
 import com.supermobtracker.util.LogMuter;
 import com.supermobtracker.util.ReflectionUtils;
 
@@ -310,6 +314,12 @@ public class DropSimulator {
                 return;
             }
 
+            if (SimulationHealth.isQuarantined(entityId)) {
+                sendError("gui.mobtracker.drops.quarantined");
+
+                return;
+            }
+
             // Create fake world for simulation
             DropSimulationWorld simWorld;
             try {
@@ -415,11 +425,16 @@ public class DropSimulator {
                 }
             } catch (Exception e) {
                 SuperMobTracker.LOGGER.warn("Error during server drop simulation for {}", entityId, e);
+                SimulationHealth.recordCrash(entityId);
+                SimulationHealth.save();
                 sendError("gui.mobtracker.drops.simulationFailed");
 
                 return;
             }
 
+            SimulationHealth.recordSuccess(entityId);
+            SimulationHealth.save();
+
             // Build result
             List<DropEntry> entries = new ArrayList<>();
             for (DropAccumulator acc : dropMap.values()) {
@@ -541,6 +556,13 @@ public class DropSimulator {
                 return;
             }
 
+            if (SimulationHealth.isQuarantined(entityId)) {
+                errorMessage = "gui.mobtracker.drops.quarantined";
+                completed = true;
+
+                return;
+            }
+
             // Create fake world for simulation - bypasses constructor to avoid side effects
             DropSimulationWorld simWorld;
             try {
@@ -669,6 +691,8 @@ public class DropSimulator {
                     // If we get here after the pre-test passed, something else is wrong
                     // Log once and abort
                     SuperMobTracker.LOGGER.warn("Error during drop simulation for {}", entityId, e);
+                    SimulationHealth.recordCrash(entityId);
+                    SimulationHealth.save();
                     errorMessage = "gui.mobtracker.drops.simulationFailed";
                     completed = true;
 
@@ -691,6 +715,9 @@ public class DropSimulator {
 
             result = new DropSimulationResult(entityId, entries, total);
             completed = true;
+
+            SimulationHealth.recordSuccess(entityId);
+            SimulationHealth.save();
         }
     }
 
@@ -897,7 +924,11 @@ public class DropSimulator {
             /** Entity construction failed */
             ENTITY_CONSTRUCTION_FAILED,
             /** An exception occurred during simulation */
-            CRASHED
+            CRASHED,
+            /** Simulation exceeded the per-entity time budget of a bulk analysis and was abandoned */
+            TIMEOUT,
+            /** Skipped, the entity is auto-quarantined after repeated crashes or timeouts */
+            QUARANTINED
         }
 
         public final ResourceLocation entityId;
@@ -905,29 +936,78 @@ public class DropSimulator {
         public final DropSimulationResult result;
         public final String error;
         public final long durationNanos;
+        /** Time spent before the kill simulations (world, player and test entity), included in durationNanos */
+        public final long setupNanos;
 
         ProfileResult(ResourceLocation entityId, Status status, DropSimulationResult result, String error, long durationNanos) {
+            this(entityId, status, result, error, durationNanos, durationNanos);
+        }
+
+        ProfileResult(ResourceLocation entityId, Status status, DropSimulationResult result, String error,
+                      long durationNanos, long setupNanos) {
             this.entityId = entityId;
             this.status = status;
             this.result = result;
             this.error = error;
             this.durationNanos = durationNanos;
+            this.setupNanos = setupNanos;
+        }
+
+        /**
+         * Result for a simulation abandoned after exceeding its time budget.
+         */
+        public static ProfileResult timedOut(ResourceLocation entityId, long budgetNanos) {
+            return new ProfileResult(entityId, Status.TIMEOUT, null,
+                "Exceeded time budget of " + (budgetNanos / 1_000_000_000L) + "s", budgetNanos);
+        }
+
+        /**
+         * Time spent simulating the kills themselves.
+         */
+        public long getSimulationNanos() {
+            return durationNanos - setupNanos;
         }
 
         public boolean isSuccess() {
             return status == Status.SUCCESS;
         }
 
+        /**
+         * Whether sampling the entity again in the same run is pointless. Every sample records the
+         * entity's health, so repeating a crash would quarantine it before the run even reports it.
+         */
+        public boolean endsSampling() {
+            return status == Status.TIMEOUT || status == Status.CRASHED || status == Status.QUARANTINED;
+        }
+
         public boolean hasDrops() {
             return result != null && !result.hasNoDrops();
         }
     }
 
+    /**
+     * Simulation world, fake player and damage source reused across the profiled entities of a batch.
+     * The watchdog worker profiles while the caller may drop them after a timeout, so they are
+     * published together through a volatile field, and a dropped set tells its last user to stop.
+     */
+    private static final class ProfileResources {
+        final DropSimulationWorld world;
+        final EntityPlayer player;
+        final DamageSource damage;
+        final int dimension;
+        // Set when the resources are dropped, an abandoned simulation still using them stops at its next kill
+        volatile boolean released = false;
+
+        ProfileResources(DropSimulationWorld world, EntityPlayer player, DamageSource damage, int dimension) {
+            this.world = world;
+            this.player = player;
+            this.damage = damage;
+            this.dimension = dimension;
+        }
+    }
+
     // Cached resources for batch profiling (reused across multiple profileEntity calls)
-    private static DropSimulationWorld cachedProfileWorld = null;
-    private static EntityPlayer cachedProfilePlayer = null;
-    private static DamageSource cachedProfileDamage = null;
-    private static int cachedProfileDimension = Integer.MIN_VALUE;
+    private static volatile ProfileResources profileResources = null;
 
     // Recreate resources every N entities to prevent accumulation of state from mods
     private static final int PROFILE_CACHE_REFRESH_INTERVAL = 50;
@@ -945,7 +1025,11 @@ public class DropSimulator {
         // Mute spammy loggers during simulation
         LogMuter.muteLoggers();
         try {
-            return profileEntityInternal(entityId, simulationCount);
+            ProfileResult result = profileEntityInternal(entityId, simulationCount);
+            // An interrupted run was abandoned by its watchdog, which already recorded the timeout
+            if (!Thread.currentThread().isInterrupted()) SimulationHealth.recordResult(result);
+
+            return result;
         } finally {
             LogMuter.restoreLoggers();
         }
@@ -955,11 +1039,42 @@ public class DropSimulator {
      * Clear cached profiling resources.
      * Should be called after a batch of profileEntity calls is complete.
      */
-    public static void clearProfileCache() {
-        cachedProfileWorld = null;
-        cachedProfilePlayer = null;
-        cachedProfileDamage = null;
-        cachedProfileDimension = Integer.MIN_VALUE;
+    public static synchronized void clearProfileCache() {
+        ProfileResources resources = profileResources;
+        profileResources = null;
+        if (resources != null) resources.released = true;
+    }
+
+    /**
+     * Get the cached profiling resources for the dimension, creating them if they are missing or for another dimension.
+     * Only recreated on dimension change (different loot table manager) or after {@link #clearProfileCache()}.
+     */
+    private static synchronized ProfileResources acquireProfileResources(WorldServer realWorld, int dimension) {
+        ProfileResources resources = profileResources;
+        if (resources != null && resources.dimension == dimension) return resources;
+
+        DropSimulationWorld world = DropSimulationWorld.createInstance(realWorld);
+
+        // Create a fake player for "killed_by_player" loot conditions
+        // Use a fixed UUID to allow FakePlayerFactory to cache the player
+        EntityPlayer player = FakePlayerFactory.get(realWorld, new GameProfile(FAKE_PLAYER_UUID, "[SuperMobTracker]"));
+
+        // Set creative mode to bypass mod skill checks (e.g., AoA Hunter levels)
+        if (player != null && player.capabilities != null) player.capabilities.isCreativeMode = true;
+
+        if (resources != null) resources.released = true;
+        resources = new ProfileResources(world, player, DamageSource.causePlayerDamage(player), dimension);
+        profileResources = resources;
+
+        return resources;
+    }
+
+    /**
+     * Whether a profiling simulation should stop: its watchdog interrupted it or dropped its resources.
+     * Mods may swallow the interrupt, the released flag does not depend on them.
+     */
+    private static boolean isAbandoned(ProfileResources resources) {
+        return resources.released || Thread.currentThread().isInterrupted();
     }
 
     /**
@@ -975,12 +1090,45 @@ public class DropSimulator {
     public static ProfileResult profileEntityServer(ResourceLocation entityId, int simulationCount, WorldServer world) {
         LogMuter.muteLoggers();
         try {
-            return profileEntityServerInternal(entityId, simulationCount, world);
+            ProfileResult result = profileEntityServerInternal(entityId, simulationCount, world);
+            // An interrupted run was abandoned by its watchdog, which already recorded the timeout
+            if (!Thread.currentThread().isInterrupted()) SimulationHealth.recordResult(result);
+
+            return result;
         } finally {
             LogMuter.restoreLoggers();
         }
     }
 
+    /**
+     * Profile a single entity on the watchdog's worker thread, giving up once its budget is spent.
+     * A timed out simulation may still be running on the abandoned worker, so the cached
+     * profiling resources are dropped and the next entity gets a fresh simulation world.
+     *
+     * @param watchdog The watchdog owning the worker thread and the budget
+     * @param entityId The entity to profile
+     * @param simulationCount Number of kills to simulate
+     * @param world The WorldServer to use for simulation, or null to use the integrated server
+     * @return ProfileResult with status and timing information, TIMEOUT if the budget was exceeded
+     */
+    public static ProfileResult profileEntityWithBudget(EntityWatchdog watchdog, ResourceLocation entityId,
+                                                        int simulationCount, @Nullable WorldServer world) {
+        try {
+            return watchdog.call(() -> world != null
+                ? profileEntityServer(entityId, simulationCount, world)
+                : profileEntity(entityId, simulationCount));
+        } catch (TimeoutException e) {
+            SuperMobTracker.LOGGER.warn("Loot simulation of {} exceeded its time budget, skipping it", entityId);
+            clearProfileCache();
+
+            // Saved right away, the abandoned simulation may still take the game down
+            SimulationHealth.recordTimeout(entityId);
+            SimulationHealth.save();
+
+            return ProfileResult.timedOut(entityId, watchdog.getBudgetNanos());
+        }
+    }
+
     /**
      * Internal server-side profiling logic.
      */
@@ -1009,33 +1157,26 @@ public class DropSimulator {
                 null, "gui.mobtracker.drops.unstableSimulation", System.nanoTime() - startTime);
         }
 
+        if (SimulationHealth.isQuarantined(entityId)) {
+            return new ProfileResult(entityId, ProfileResult.Status.QUARANTINED,
+                null, "gui.mobtracker.drops.quarantined", System.nanoTime() - startTime);
+        }
+
         int dimension = realWorld.provider.getDimension();
 
         // Reuse simulation world and fake player across batch calls for performance
-        if (cachedProfileWorld == null || cachedProfileDimension != dimension) {
-            try {
-                cachedProfileWorld = DropSimulationWorld.createInstance(realWorld);
-                cachedProfileDimension = dimension;
-            } catch (Exception e) {
-                SuperMobTracker.LOGGER.error("Failed to create simulation world for {}", entityId, e);
-                return new ProfileResult(entityId, ProfileResult.Status.WORLD_CREATION_FAILED,
-                    null, "Failed to create simulation world: " + e.getMessage(), System.nanoTime() - startTime);
-            }
-
-            cachedProfilePlayer = FakePlayerFactory.get(
-                realWorld,
-                new GameProfile(FAKE_PLAYER_UUID, "[SuperMobTracker]")
-            );
-
-            if (cachedProfilePlayer != null && cachedProfilePlayer.capabilities != null) {
-                cachedProfilePlayer.capabilities.isCreativeMode = true;
-            }
-            cachedProfileDamage = DamageSource.causePlayerDamage(cachedProfilePlayer);
+        ProfileResources resources;
+        try {
+            resources = acquireProfileResources(realWorld, dimension);
+        } catch (Exception e) {
+            SuperMobTracker.LOGGER.error("Failed to create simulation world for {}", entityId, e);
+            return new ProfileResult(entityId, ProfileResult.Status.WORLD_CREATION_FAILED,
+                null, "Failed to create simulation world: " + e.getMessage(), System.nanoTime() - startTime);
         }
 
-        DropSimulationWorld simWorld = cachedProfileWorld;
-        EntityPlayer fakePlayer = cachedProfilePlayer;
-        DamageSource playerDamage = cachedProfileDamage;
+        DropSimulationWorld simWorld = resources.world;
+        EntityPlayer fakePlayer = resources.player;
+        DamageSource playerDamage = resources.damage;
         Map<DropKey, DropAccumulator> dropMap = new HashMap<>();
 
         Entity testEntity;
@@ -1051,9 +1192,18 @@ public class DropSimulator {
                 null, "Entity construction failed: " + e.getMessage(), System.nanoTime() - startTime);
         }
 
+        long iterationStart = System.nanoTime();
+
         Field attackingPlayerField = getAttackingPlayerField();
         try {
             for (int i = 0; i < simulationCount; i++) {
+                // Abandoned after a timeout, stop touching the worlds instead of finishing in the background
+                if (isAbandoned(resources)) {
+                    return new ProfileResult(entityId, ProfileResult.Status.TIMEOUT, null,
+                        "Abandoned after exceeding its time budget", System.nanoTime() - startTime,
+                        iterationStart - startTime);
+                }
+
                 Entity rawEntity = EntityList.createEntityByIDFromName(entry.getRegistryName(), simWorld);
                 if (!(rawEntity instanceof EntityLiving)) continue;
 
@@ -1106,7 +1256,8 @@ public class DropSimulator {
         } catch (Exception e) {
             SuperMobTracker.LOGGER.warn("Error during drop simulation for {}", entityId, e);
             return new ProfileResult(entityId, ProfileResult.Status.CRASHED,
-                null, e.getClass().getSimpleName() + ": " + e.getMessage(), System.nanoTime() - startTime);
+                null, e.getClass().getSimpleName() + ": " + e.getMessage(), System.nanoTime() - startTime,
+                iterationStart - startTime);
         }
 
         List<DropEntry> entries = new ArrayList<>();
@@ -1120,10 +1271,12 @@ public class DropSimulator {
         long duration = System.nanoTime() - startTime;
 
         if (entries.isEmpty()) {
-            return new ProfileResult(entityId, ProfileResult.Status.NO_DROPS, simResult, null, duration);
+            return new ProfileResult(entityId, ProfileResult.Status.NO_DROPS, simResult, null, duration,
+                iterationStart - startTime);
         }
 
-        return new ProfileResult(entityId, ProfileResult.Status.SUCCESS, simResult, null, duration);
+        return new ProfileResult(entityId, ProfileResult.Status.SUCCESS, simResult, null, duration,
+            iterationStart - startTime);
     }
 
     /**
@@ -1156,35 +1309,24 @@ public class DropSimulator {
                 null, "gui.mobtracker.drops.unstableSimulation", System.nanoTime() - startTime);
         }
 
-        // Reuse simulation world and fake player across batch calls for performance
-        // Only recreate if dimension changed (different loot table manager) or forced refresh
-        if (cachedProfileWorld == null || cachedProfileDimension != dimension) {
-            try {
-                cachedProfileWorld = DropSimulationWorld.createInstance(realWorld);
-                cachedProfileDimension = dimension;
-            } catch (Exception e) {
-                SuperMobTracker.LOGGER.error("Failed to create simulation world for {}", entityId, e);
-                return new ProfileResult(entityId, ProfileResult.Status.WORLD_CREATION_FAILED,
-                    null, "Failed to create simulation world: " + e.getMessage(), System.nanoTime() - startTime);
-            }
-
-            // Create a fake player for "killed_by_player" loot conditions
-            // Use a fixed UUID to allow FakePlayerFactory to cache the player
-            cachedProfilePlayer = FakePlayerFactory.get(
-                realWorld,
-                new GameProfile(FAKE_PLAYER_UUID, "[SuperMobTracker]")
-            );
+        if (SimulationHealth.isQuarantined(entityId)) {
+            return new ProfileResult(entityId, ProfileResult.Status.QUARANTINED,
+                null, "gui.mobtracker.drops.quarantined", System.nanoTime() - startTime);
+        }
 
-            // Set creative mode to bypass mod skill checks (e.g., AoA Hunter levels)
-            if (cachedProfilePlayer != null && cachedProfilePlayer.capabilities != null) {
-                cachedProfilePlayer.capabilities.isCreativeMode = true;
-            }
-            cachedProfileDamage = DamageSource.causePlayerDamage(cachedProfilePlayer);
+        // Reuse simulation world and fake player across batch calls for performance
+        ProfileResources resources;
+        try {
+            resources = acquireProfileResources(realWorld, dimension);
+        } catch (Exception e) {
+            SuperMobTracker.LOGGER.error("Failed to create simulation world for {}", entityId, e);
+            return new ProfileResult(entityId, ProfileResult.Status.WORLD_CREATION_FAILED,
+                null, "Failed to create simulation world: " + e.getMessage(), System.nanoTime() - startTime);
         }
 
-        DropSimulationWorld simWorld = cachedProfileWorld;
-        EntityPlayer fakePlayer = cachedProfilePlayer;
-        DamageSource playerDamage = cachedProfileDamage;
+        DropSimulationWorld simWorld = resources.world;
+        EntityPlayer fakePlayer = resources.player;
+        DamageSource playerDamage = resources.damage;
         Map<DropKey, DropAccumulator> dropMap = new HashMap<>();
 
         // Pre-test: Try to create one entity to check if it works
@@ -1206,6 +1348,13 @@ public class DropSimulator {
         Field attackingPlayerField = getAttackingPlayerField();
         try {
             for (int i = 0; i < simulationCount; i++) {
+                // Abandoned after a timeout, stop touching the worlds instead of finishing in the background
+                if (isAbandoned(resources)) {
+                    return new ProfileResult(entityId, ProfileResult.Status.TIMEOUT, null,
+                        "Abandoned after exceeding its time budget", System.nanoTime() - startTime,
+                        iterationStart - startTime);
+                }
+
                 Entity rawEntity = EntityList.createEntityByIDFromName(entry.getRegistryName(), simWorld);
                 if (!(rawEntity instanceof EntityLiving)) continue;
 
@@ -1267,7 +1416,8 @@ public class DropSimulator {
         } catch (Exception e) {
             SuperMobTracker.LOGGER.warn("Error during drop simulation for {}", entityId, e);
             return new ProfileResult(entityId, ProfileResult.Status.CRASHED,
-                null, e.getClass().getSimpleName() + ": " + e.getMessage(), System.nanoTime() - startTime);
+                null, e.getClass().getSimpleName() + ": " + e.getMessage(), System.nanoTime() - startTime,
+                iterationStart - startTime);
         }
 
 
@@ -1284,9 +1434,11 @@ public class DropSimulator {
         long duration = System.nanoTime() - startTime;
 
         if (entries.isEmpty()) {
-            return new ProfileResult(entityId, ProfileResult.Status.NO_DROPS, simResult, null, duration);
+            return new ProfileResult(entityId, ProfileResult.Status.NO_DROPS, simResult, null, duration,
+                iterationStart - startTime);
         }
 
-        return new ProfileResult(entityId, ProfileResult.Status.SUCCESS, simResult, null, duration);
+        return new ProfileResult(entityId, ProfileResult.Status.SUCCESS, simResult, null, duration,
+            iterationStart - startTime);
     }
 }
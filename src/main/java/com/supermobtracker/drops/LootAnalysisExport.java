@@ -0,0 +1,155 @@
+package com.supermobtracker.drops;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.gson.stream.JsonWriter;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.drops.DropSimulator.DropEntry;
+import com.supermobtracker.drops.LootAnalysisRunner.LootPerformanceEntry;
+import com.supermobtracker.util.TimingStats;
+
+
+/**
+ * Machine-readable companions of the loot analysis text reports, meant for graphing
+ * simulation cost across pack versions and for comparing two runs.
+ * <p>
+ * The JSON file holds every mob with its status, timing statistics (total, setup and
+ * simulation phases, in nanoseconds), raw samples and simulated drops. The CSV file
+ * holds one summary row per mob, in milliseconds.
+ */
+public final class LootAnalysisExport {
+    public static final String TYPE = "loot";
+    public static final int FORMAT_VERSION = 1;
+
+    private LootAnalysisExport() {}
+
+    /**
+     * Writes {@code <baseFilename>.json} and {@code <baseFilename>.csv} into the given directory.
+     *
+     * @return the JSON file, or null if writing failed
+     */
+    public static File write(File outputDir, String baseFilename, int samples, int simulationCount,
+                             List<LootPerformanceEntry> entries) {
+        File jsonFile = new File(outputDir, baseFilename + ".json");
+        File csvFile = new File(outputDir, baseFilename + ".csv");
+
+        try {
+            writeJson(jsonFile, samples, simulationCount, entries);
+            writeCsv(csvFile, entries);
+        } catch (IOException e) {
+            SuperMobTracker.LOGGER.error("Failed to write machine-readable loot report: {}", baseFilename, e);
+            return null;
+        }
+
+        return jsonFile;
+    }
+
+    private static void writeJson(File file, int samples, int simulationCount, List<LootPerformanceEntry> entries)
+            throws IOException {
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("type").value(TYPE);
+            writer.name("version").value(FORMAT_VERSION);
+            writer.name("generated").value(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+            writer.name("samples").value(samples);
+            writer.name("simulationCount").value(simulationCount);
+
+            writer.name("mobs");
+            writer.beginArray();
+            for (LootPerformanceEntry entry : entries) writeEntry(writer, entry);
+            writer.endArray();
+
+            writer.endObject();
+        }
+    }
+
+    private static void writeEntry(JsonWriter writer, LootPerformanceEntry entry) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(entry.entityId);
+        writer.name("mod").value(getModId(entry.entityId));
+        writer.name("status").value(entry.status.name());
+        if (entry.error != null) writer.name("error").value(entry.error);
+        writer.name("dropCount").value(entry.dropCount);
+
+        writer.name("total");
+        entry.timings.writeJson(writer);
+        writer.name("setup");
+        entry.setupTimings.writeJson(writer);
+        writer.name("simulation");
+        entry.simulationTimings.writeJson(writer);
+
+        writer.name("samples");
+        writer.beginArray();
+        for (long sample : entry.timings.getSortedSamples()) writer.value(sample);
+        writer.endArray();
+
+        // [itemId, metadata, totalCount]
+        writer.name("drops");
+        writer.beginArray();
+        if (entry.drops != null) {
+            for (DropEntry drop : entry.drops) {
+                if (drop.stack == null || drop.stack.isEmpty()) continue;
+
+                ResourceLocation itemId = ForgeRegistries.ITEMS.getKey(drop.stack.getItem());
+                if (itemId == null) continue;
+
+                writer.beginArray();
+                writer.value(itemId.toString());
+                writer.value(drop.stack.getMetadata());
+                writer.value(drop.totalCount);
+                writer.endArray();
+            }
+        }
+        writer.endArray();
+
+        writer.endObject();
+    }
+
+    private static void writeCsv(File file, List<LootPerformanceEntry> entries) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            writer.println("entity_id,mod,status,drop_count,samples,mean_ms,stddev_ms,min_ms,p50_ms,p90_ms,p99_ms,max_ms,"
+                + "setup_p50_ms,simulation_p50_ms");
+
+            for (LootPerformanceEntry entry : entries) {
+                TimingStats stats = entry.timings;
+                writer.println(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    entry.entityId,
+                    getModId(entry.entityId),
+                    entry.status.name(),
+                    entry.dropCount,
+                    stats.getCount(),
+                    stats.getMean() / 1_000_000.0,
+                    stats.getStdDev() / 1_000_000.0,
+                    stats.getMin() / 1_000_000.0,
+                    stats.getP50() / 1_000_000.0,
+                    stats.getP90() / 1_000_000.0,
+                    stats.getP99() / 1_000_000.0,
+                    stats.getMax() / 1_000_000.0,
+                    entry.setupTimings.getP50() / 1_000_000.0,
+                    entry.simulationTimings.getP50() / 1_000_000.0));
+            }
+        }
+    }
+
+    private static String getModId(String entityId) {
+        int separator = entityId.indexOf(':');
+        return separator > 0 ? entityId.substring(0, separator) : "minecraft";
+    }
+}
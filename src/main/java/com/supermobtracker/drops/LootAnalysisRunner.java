@@ -6,11 +6,13 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.ResourceLocation;
@@ -19,10 +21,13 @@ import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.drops.DropSimulator.DropEntry;
 import com.supermobtracker.drops.DropSimulator.ProfileResult;
 import com.supermobtracker.network.NetworkHandler;
 import com.supermobtracker.network.PacketLootAnalysisProgress;
 import com.supermobtracker.network.PacketLootAnalysisResult;
+import com.supermobtracker.util.EntityWatchdog;
+import com.supermobtracker.util.TimingStats;
 
 
 /**
@@ -62,6 +67,9 @@ public class LootAnalysisRunner {
         List<LootPerformanceEntry> invalidEntityMobs = new ArrayList<>();
         List<LootPerformanceEntry> entityConstructionFailedMobs = new ArrayList<>();
         List<LootPerformanceEntry> crashedMobs = new ArrayList<>();
+        List<LootPerformanceEntry> timedOutMobs = new ArrayList<>();
+        List<LootPerformanceEntry> quarantinedMobs = new ArrayList<>();
+        List<LootPerformanceEntry> allMobs = new ArrayList<>();
 
         List<ResourceLocation> entityIds = new ArrayList<>();
 
@@ -74,6 +82,7 @@ public class LootAnalysisRunner {
 
         int total = entityIds.size();
         int current = 0;
+        EntityWatchdog watchdog = EntityWatchdog.fromConfig("SMT-LootAnalysis-Server");
 
         for (ResourceLocation entityId : entityIds) {
             current++;
@@ -81,28 +90,34 @@ public class LootAnalysisRunner {
             // Send progress updates every 50 mobs
             if (current % 50 == 0) sendProgress(player, current, total, entityId.toString());
 
-            List<Long> timings = new ArrayList<>();
+            long[] timings = new long[samples];
+            long[] setupTimings = new long[samples];
+            int sampleCount = 0;
             ProfileResult lastResult = null;
 
             for (int i = 0; i < samples; i++) {
-                ProfileResult result = DropSimulator.profileEntityServer(entityId, simulationCount, world);
-                timings.add(result.durationNanos);
+                ProfileResult result = DropSimulator.profileEntityWithBudget(watchdog, entityId, simulationCount, world);
+                timings[sampleCount] = result.durationNanos;
+                setupTimings[sampleCount++] = result.setupNanos;
                 lastResult = result;
+
+                if (result.endsSampling()) break; // No point retrying
             }
 
             if (lastResult == null) continue;
 
-            int dropCount = (lastResult.result != null && lastResult.result.drops != null) ?
-                lastResult.result.drops.size() : 0;
-            LootPerformanceEntry entry = new LootPerformanceEntry(
-                entityId.toString(), timings, lastResult.status, dropCount, lastResult.error);
+            LootPerformanceEntry entry = new LootPerformanceEntry(entityId.toString(),
+                Arrays.copyOf(timings, sampleCount), Arrays.copyOf(setupTimings, sampleCount), lastResult);
+            allMobs.add(entry);
 
             switch (lastResult.status) {
                 case SUCCESS:
                     successfulMobs.add(entry);
+                    SimulationHealth.recordP99(entityId, entry.timings.getP99());
                     break;
                 case NO_DROPS:
                     noDropsMobs.add(entry);
+                    SimulationHealth.recordP99(entityId, entry.timings.getP99());
                     break;
                 case INVALID_ENTITY:
                     invalidEntityMobs.add(entry);
@@ -115,9 +130,18 @@ public class LootAnalysisRunner {
                 case SERVER_SIDE_ONLY:
                     crashedMobs.add(entry);
                     break;
+                case TIMEOUT:
+                    timedOutMobs.add(entry);
+                    break;
+                case QUARANTINED:
+                    quarantinedMobs.add(entry);
+                    break;
             }
         }
 
+        watchdog.shutdown();
+        SimulationHealth.save();
+
         // Sort each list by average time (slowest first)
         Comparator<LootPerformanceEntry> byAverageTime = (a, b) ->
             Double.compare(b.getAverageTime(), a.getAverageTime());
@@ -127,7 +151,7 @@ public class LootAnalysisRunner {
 
         // Write results to files on server
         String outputPath = writeResults(timestamp, samples, simulationCount,
-            successfulMobs, noDropsMobs, invalidEntityMobs, entityConstructionFailedMobs, crashedMobs);
+            successfulMobs, noDropsMobs, invalidEntityMobs, entityConstructionFailedMobs, crashedMobs, timedOutMobs, quarantinedMobs, allMobs);
 
         // Clear cached profiling resources to free memory
         DropSimulator.clearProfileCache();
@@ -139,6 +163,8 @@ public class LootAnalysisRunner {
             invalidEntityMobs.size(),
             entityConstructionFailedMobs.size(),
             crashedMobs.size(),
+            timedOutMobs.size(),
+            quarantinedMobs.size(),
             outputPath
         );
         sendResult(player, result);
@@ -149,7 +175,10 @@ public class LootAnalysisRunner {
                                         List<LootPerformanceEntry> noDropsMobs,
                                         List<LootPerformanceEntry> invalidEntityMobs,
                                         List<LootPerformanceEntry> entityConstructionFailedMobs,
-                                        List<LootPerformanceEntry> crashedMobs) {
+                                        List<LootPerformanceEntry> crashedMobs,
+                                        List<LootPerformanceEntry> timedOutMobs,
+                                        List<LootPerformanceEntry> quarantinedMobs,
+                                        List<LootPerformanceEntry> allMobs) {
 
         File outputDir = new File(OUTPUT_DIR);
         if (!outputDir.exists()) outputDir.mkdirs();
@@ -160,14 +189,15 @@ public class LootAnalysisRunner {
         File successFile = new File(outputDir, baseFilename + ".txt");
         writePerformanceReport(successFile, "Successful Loot Analysis Performance Report",
             null, successfulMobs, samples,
-            (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Drop types: %d%n",
+            (writer, entry) -> writer.printf("%s - %s | Drop types: %d%n",
                 entry.entityId,
-                entry.getAverageTime() / 1_000_000.0,
-                entry.getWorstTime() / 1_000_000.0,
-                entry.getBestTime() / 1_000_000.0,
+                entry.timings.formatMillis(),
                 entry.dropCount)
         );
 
+        // Write the machine-readable companion (all mobs, every status)
+        LootAnalysisExport.write(outputDir, baseFilename, samples, simulationCount, allMobs);
+
         // Write no drops mobs
         if (!noDropsMobs.isEmpty()) {
             noDropsMobs.sort(Comparator.comparing(a -> a.entityId));
@@ -206,15 +236,35 @@ public class LootAnalysisRunner {
             writePerformanceReport(crashedFile, "Crashed - Loot Analysis Report",
                 "These mobs caused exceptions during loot simulation.",
                 crashedMobs, samples,
-                (writer, entry) -> writer.printf("%s - Avg: %.2fms, Worst: %.2fms, Best: %.2fms | Error: %s%n",
+                (writer, entry) -> writer.printf("%s - %s | Error: %s%n",
                     entry.entityId,
-                    entry.getAverageTime() / 1_000_000.0,
-                    entry.getWorstTime() / 1_000_000.0,
-                    entry.getBestTime() / 1_000_000.0,
+                    entry.timings.formatMillis(),
                     entry.error != null ? entry.error : "Unknown")
             );
         }
 
+        // Write timed out mobs
+        if (!timedOutMobs.isEmpty()) {
+            timedOutMobs.sort(Comparator.comparing(a -> a.entityId));
+            File timedOutFile = new File(outputDir, "loot_timeout_" + samples + "samples_" + simulationCount + "sims_" + timestamp + ".txt");
+            writePerformanceReport(timedOutFile, "Timed Out - Loot Analysis Report",
+                "These mobs exceeded the per-entity time budget and were skipped.",
+                timedOutMobs, samples,
+                (writer, entry) -> writer.printf("%s | Error: %s%n", entry.entityId, entry.error)
+            );
+        }
+
+        // Write quarantined mobs
+        if (!quarantinedMobs.isEmpty()) {
+            quarantinedMobs.sort(Comparator.comparing(a -> a.entityId));
+            File quarantinedFile = new File(outputDir, "loot_quarantined_" + samples + "samples_" + simulationCount + "sims_" + timestamp + ".txt");
+            writePerformanceReport(quarantinedFile, "Quarantined - Loot Analysis Report",
+                "These mobs repeatedly crashed or timed out in previous runs and were skipped.",
+                quarantinedMobs, samples,
+                (writer, entry) -> writer.println(entry.entityId)
+            );
+        }
+
         return successFile.getAbsolutePath();
     }
 
@@ -269,32 +319,49 @@ public class LootAnalysisRunner {
 
     /**
      * Entry for tracking loot performance statistics.
+     * Timings are kept as primitive samples, summarized into total, setup and simulation phases.
      */
     public static class LootPerformanceEntry {
-        final String entityId;
-        final List<Long> timings;
-        final ProfileResult.Status status;
-        final int dropCount;
-        final String error;
+        public final String entityId;
+        public final TimingStats timings;
+        public final TimingStats setupTimings;
+        public final TimingStats simulationTimings;
+        public final ProfileResult.Status status;
+        public final int dropCount;
+        public final String error;
+        @Nullable
+        public final List<DropEntry> drops;
+
+        /**
+         * @param entityId the profiled entity
+         * @param timings total duration of each sample, in nanoseconds
+         * @param setupTimings setup duration of each sample, in nanoseconds
+         * @param lastResult the result of the last sample, providing status, error and drops
+         */
+        public LootPerformanceEntry(String entityId, long[] timings, long[] setupTimings, ProfileResult lastResult) {
+            long[] simulationTimings = new long[timings.length];
+            for (int i = 0; i < timings.length; i++) simulationTimings[i] = timings[i] - setupTimings[i];
 
-        LootPerformanceEntry(String entityId, List<Long> timings, ProfileResult.Status status, int dropCount, String error) {
             this.entityId = entityId;
-            this.timings = timings;
-            this.status = status;
-            this.dropCount = dropCount;
-            this.error = error;
+            this.timings = TimingStats.of(timings);
+            this.setupTimings = TimingStats.of(setupTimings);
+            this.simulationTimings = TimingStats.of(simulationTimings);
+            this.status = lastResult.status;
+            this.drops = lastResult.result != null ? lastResult.result.drops : null;
+            this.dropCount = drops != null ? drops.size() : 0;
+            this.error = lastResult.error;
         }
 
-        long getWorstTime() {
-            return Collections.max(timings);
+        public long getWorstTime() {
+            return timings.getMax();
         }
 
-        long getBestTime() {
-            return Collections.min(timings);
+        public long getBestTime() {
+            return timings.getMin();
         }
 
-        double getAverageTime() {
-            return timings.stream().mapToLong(Long::longValue).average().orElse(0);
+        public double getAverageTime() {
+            return timings.getMean();
         }
     }
 }
@@ -398,6 +398,25 @@ public final class LootDump {
             this.entityId = entityId;
             this.drops = Collections.unmodifiableList(drops);
         }
+
+        /**
+         * Whether both records list the same drops, in the same order and with the same chances.
+         * Used to find the mobs whose JEI recipe actually changed after a new dump.
+         */
+        public boolean hasSameDrops(@Nullable MobLoot other) {
+            if (other == null || drops.size() != other.drops.size()) return false;
+
+            for (int i = 0; i < drops.size(); i++) {
+                LootEntry entry = drops.get(i);
+                LootEntry otherEntry = other.drops.get(i);
+                if (entry.totalCount != otherEntry.totalCount || entry.simulationCount != otherEntry.simulationCount) {
+                    return false;
+                }
+                if (!ItemStack.areItemStacksEqual(entry.stack, otherEntry.stack)) return false;
+            }
+
+            return true;
+        }
     }
 
     /**
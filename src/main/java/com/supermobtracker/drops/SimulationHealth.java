@@ -0,0 +1,286 @@
+package com.supermobtracker.drops;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+
+
+/**
+ * Persistent drop-simulation health of every entity, learned from previous runs.
+ * <p>
+ * Entities whose simulation crashes or exceeds its time budget too many times in a row are
+ * automatically quarantined, complementing the hand-maintained unstable simulation list:
+ * the loot GUI, {@code /smtlootdump} and {@code /smtanalyze loot} skip them. A quarantined
+ * entity is probed again once the cooldown has elapsed since its last failure, or as soon as
+ * its mod's version changes; a successful probe clears its strikes.
+ * <p>
+ * The file uses short fields for size efficiency: {@code v} is the format version and {@code e}
+ * maps each entity ID to {@code [strikes, crashes, timeouts, p99Nanos, lastFailureMillis, modVersion]}.
+ */
+public final class SimulationHealth {
+    public static final String FILE_NAME = "simulation_health.json";
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Map<String, Entry> entries = new TreeMap<>();
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private SimulationHealth() {}
+
+    public static File getFile() {
+        return new File(ModConfig.getSupportDirectory(), FILE_NAME);
+    }
+
+    /**
+     * Whether the entity is currently auto-quarantined and should not be simulated.
+     */
+    public static synchronized boolean isQuarantined(ResourceLocation entityId) {
+        if (ModConfig.clientQuarantineStrikes <= 0) return false;
+
+        loadIfNeeded();
+        Entry entry = entries.get(entityId.toString());
+        if (entry == null || entry.strikes < ModConfig.clientQuarantineStrikes) return false;
+
+        // Re-probe once the mod changed, or the cooldown elapsed
+        if (!entry.modVersion.equals(getModVersion(entityId))) return false;
+
+        long cooldownMillis = TimeUnit.HOURS.toMillis(ModConfig.clientQuarantineCooldownHours);
+        return System.currentTimeMillis() - entry.lastFailureMillis < cooldownMillis;
+    }
+
+    /**
+     * Record the outcome of a profiling run. Only crashes, timeouts and successes are relevant,
+     * other statuses say nothing about the stability of the simulation.
+     */
+    public static void recordResult(DropSimulator.ProfileResult result) {
+        switch (result.status) {
+            case SUCCESS:
+            case NO_DROPS:
+                recordSuccess(result.entityId);
+                break;
+            case CRASHED:
+                recordCrash(result.entityId);
+                break;
+            case TIMEOUT:
+                recordTimeout(result.entityId);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public static synchronized void recordSuccess(ResourceLocation entityId) {
+        loadIfNeeded();
+        Entry entry = entries.get(entityId.toString());
+        if (entry == null || entry.strikes == 0) return;
+
+        entry.strikes = 0;
+        dirty = true;
+    }
+
+    public static synchronized void recordCrash(ResourceLocation entityId) {
+        Entry entry = recordFailure(entityId);
+        entry.crashes++;
+    }
+
+    public static synchronized void recordTimeout(ResourceLocation entityId) {
+        Entry entry = recordFailure(entityId);
+        entry.timeouts++;
+    }
+
+    /**
+     * Record the p99 simulation time measured by a bulk analysis.
+     */
+    public static synchronized void recordP99(ResourceLocation entityId, long p99Nanos) {
+        loadIfNeeded();
+        getOrCreate(entityId).p99Nanos = p99Nanos;
+        dirty = true;
+    }
+
+    /**
+     * Get the currently quarantined entities, sorted by ID.
+     */
+    public static synchronized List<Entry> getQuarantined() {
+        List<Entry> quarantined = new ArrayList<>();
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            if (isQuarantined(new ResourceLocation(entry.entityId))) quarantined.add(entry);
+        }
+        quarantined.sort(Comparator.comparing(e -> e.entityId));
+
+        return quarantined;
+    }
+
+    /**
+     * Forget all recorded health, lifting every quarantine.
+     */
+    public static synchronized void clear() {
+        loadIfNeeded();
+        entries.clear();
+        dirty = true;
+        save();
+    }
+
+    /**
+     * Write the store to disk if anything changed since the last save.
+     */
+    public static synchronized void save() {
+        if (!dirty) return;
+
+        File output = getFile();
+        File directory = output.getParentFile();
+        if (directory != null && !directory.exists()) directory.mkdirs();
+
+        File temporary = new File(directory, FILE_NAME + ".tmp");
+        try {
+            try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(temporary), StandardCharsets.UTF_8)))) {
+                writer.beginObject();
+                writer.name("v").value(FORMAT_VERSION);
+                writer.name("e");
+                writer.beginObject();
+                for (Entry entry : entries.values()) {
+                    writer.name(entry.entityId);
+                    writer.beginArray();
+                    writer.value(entry.strikes);
+                    writer.value(entry.crashes);
+                    writer.value(entry.timeouts);
+                    writer.value(entry.p99Nanos);
+                    writer.value(entry.lastFailureMillis);
+                    writer.value(entry.modVersion);
+                    writer.endArray();
+                }
+                writer.endObject();
+                writer.endObject();
+            }
+
+            try {
+                Files.move(temporary.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temporary.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            dirty = false;
+        } catch (IOException e) {
+            SuperMobTracker.LOGGER.error("Failed to write simulation health to {}", output.getAbsolutePath(), e);
+        }
+    }
+
+    private static Entry recordFailure(ResourceLocation entityId) {
+        loadIfNeeded();
+        Entry entry = getOrCreate(entityId);
+
+        // A new mod version gets a clean slate
+        String modVersion = getModVersion(entityId);
+        if (!entry.modVersion.equals(modVersion)) {
+            entry.strikes = 0;
+            entry.modVersion = modVersion;
+        }
+
+        entry.strikes++;
+        entry.lastFailureMillis = System.currentTimeMillis();
+        dirty = true;
+
+        if (ModConfig.clientQuarantineStrikes > 0 && entry.strikes == ModConfig.clientQuarantineStrikes) {
+            SuperMobTracker.LOGGER.warn("Quarantined {} after {} consecutive simulation failures", entityId, entry.strikes);
+        }
+
+        return entry;
+    }
+
+    private static Entry getOrCreate(ResourceLocation entityId) {
+        return entries.computeIfAbsent(entityId.toString(), id -> new Entry(id, getModVersion(entityId)));
+    }
+
+    private static String getModVersion(ResourceLocation entityId) {
+        ModContainer container = Loader.instance().getIndexedModList().get(entityId.getNamespace());
+        if (container != null) return container.getVersion();
+
+        return "minecraft".equals(entityId.getNamespace()) ? Loader.MC_VERSION : "";
+    }
+
+    private static void loadIfNeeded() {
+        if (loaded) return;
+
+        loaded = true;
+        File file = getFile();
+        if (!file.exists()) return;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            JsonElement rootElement = new JsonParser().parse(reader);
+            if (rootElement == null || !rootElement.isJsonObject()) return;
+
+            JsonObject root = rootElement.getAsJsonObject();
+            if (!root.has("v") || root.get("v").getAsInt() != FORMAT_VERSION) return;
+            if (!root.has("e") || !root.get("e").isJsonObject()) return;
+
+            for (Map.Entry<String, JsonElement> raw : root.getAsJsonObject("e").entrySet()) {
+                if (!raw.getValue().isJsonArray()) continue;
+
+                JsonArray values = raw.getValue().getAsJsonArray();
+                if (values.size() < 6) continue;
+
+                Entry entry = new Entry(raw.getKey(), values.get(5).getAsString());
+                entry.strikes = values.get(0).getAsInt();
+                entry.crashes = values.get(1).getAsInt();
+                entry.timeouts = values.get(2).getAsInt();
+                entry.p99Nanos = values.get(3).getAsLong();
+                entry.lastFailureMillis = values.get(4).getAsLong();
+                entries.put(entry.entityId, entry);
+            }
+        } catch (Exception e) {
+            SuperMobTracker.LOGGER.warn("Ignoring unreadable simulation health file {}", file.getAbsolutePath(), e);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Recorded health of a single entity.
+     */
+    public static final class Entry {
+        public final String entityId;
+        /** Crashes and timeouts since the last successful simulation */
+        public int strikes = 0;
+        public int crashes = 0;
+        public int timeouts = 0;
+        /** p99 time of the last bulk analysis, 0 if never measured */
+        public long p99Nanos = 0L;
+        public long lastFailureMillis = 0L;
+        /** Version of the entity's mod when it last failed */
+        public String modVersion;
+
+        Entry(String entityId, String modVersion) {
+            this.entityId = entityId;
+            this.modVersion = modVersion;
+        }
+    }
+}
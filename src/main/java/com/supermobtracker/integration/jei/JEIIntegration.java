@@ -1,6 +1,7 @@
 package com.supermobtracker.integration.jei;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,9 +14,9 @@ import mezz.jei.api.IJeiRuntime;
 import mezz.jei.api.IModPlugin;
 import mezz.jei.api.IModRegistry;
 import mezz.jei.api.JEIPlugin;
-import mezz.jei.api.IRecipeRegistry;
 import mezz.jei.api.recipe.IRecipeCategoryRegistration;
 
+import com.supermobtracker.SuperMobTracker;
 import com.supermobtracker.drops.LootDump;
 import com.supermobtracker.drops.LootDump.MobLoot;
 
@@ -27,6 +28,8 @@ import com.supermobtracker.drops.LootDump.MobLoot;
 public class JEIIntegration implements IModPlugin {
     private static IJeiRuntime runtime = null;
     private static final Map<ResourceLocation, MobLootJeiRecipe> registeredMobLootRecipes = new LinkedHashMap<>();
+    // Dump records backing the registered recipes, kept to diff them against the next dump
+    private static final Map<ResourceLocation, MobLoot> registeredMobLoot = new LinkedHashMap<>();
 
     @Override
     public void registerCategories(IRecipeCategoryRegistration registry) {
@@ -54,26 +57,57 @@ public class JEIIntegration implements IModPlugin {
         return runtime != null;
     }
 
-    @SuppressWarnings("deprecation")
-    public static void refreshMobLootRecipes() {
-        Map<ResourceLocation, MobLootJeiRecipe> previousRecipes = new LinkedHashMap<>(registeredMobLootRecipes);
-        List<MobLootJeiRecipe> currentRecipes = rebuildMobLootRecipes();
-        if (runtime == null) return;
-
-        IRecipeRegistry recipeRegistry = runtime.getRecipeRegistry();
-        for (MobLootJeiRecipe previousRecipe : previousRecipes.values()) {
-            recipeRegistry.removeRecipe(previousRecipe, MobLootJeiCategory.UID);
+    /**
+     * Applies a freshly written dump to the JEI runtime. Only the mobs that were added,
+     * removed or whose drops changed are touched, and the changes are spread over
+     * several client ticks by {@link MobLootRecipeUpdater}.
+     */
+    public static synchronized void refreshMobLootRecipes() {
+        Map<ResourceLocation, MobLoot> currentMobs = new LinkedHashMap<>();
+        for (MobLoot mob : LootDump.getMobs()) currentMobs.put(mob.entityId, mob);
+
+        List<MobLootJeiRecipe> removedRecipes = new ArrayList<>();
+        List<MobLootJeiRecipe> addedRecipes = new ArrayList<>();
+        int changedCount = 0;
+
+        Iterator<Map.Entry<ResourceLocation, MobLoot>> previousIterator = registeredMobLoot.entrySet().iterator();
+        while (previousIterator.hasNext()) {
+            Map.Entry<ResourceLocation, MobLoot> previous = previousIterator.next();
+            MobLoot current = currentMobs.get(previous.getKey());
+            if (current != null && current.hasSameDrops(previous.getValue())) continue;
+            if (current != null) changedCount++;
+
+            MobLootJeiRecipe previousRecipe = registeredMobLootRecipes.remove(previous.getKey());
+            if (previousRecipe != null) removedRecipes.add(previousRecipe);
+            previousIterator.remove();
         }
 
-        for (MobLootJeiRecipe currentRecipe : currentRecipes) {
-            recipeRegistry.addRecipe(currentRecipe, MobLootJeiCategory.UID);
+        for (MobLoot mob : currentMobs.values()) {
+            registeredMobLoot.put(mob.entityId, mob);
+            if (registeredMobLootRecipes.containsKey(mob.entityId)) continue;
+
+            MobLootJeiRecipe recipe = new MobLootJeiRecipe(mob.entityId);
+            registeredMobLootRecipes.put(mob.entityId, recipe);
+            addedRecipes.add(recipe);
         }
+
+        SuperMobTracker.LOGGER.info("Mob loot JEI refresh: {} added, {} removed, {} changed",
+            addedRecipes.size() - changedCount, removedRecipes.size() - changedCount, changedCount);
+
+        // Without a runtime, JEI has not registered anything yet and will pick up the new recipes on load
+        if (runtime == null) return;
+
+        MobLootRecipeUpdater.enqueue(removedRecipes, addedRecipes);
     }
 
-    private static List<MobLootJeiRecipe> rebuildMobLootRecipes() {
+    private static synchronized List<MobLootJeiRecipe> rebuildMobLootRecipes() {
+        // JEI is (re)loading every recipe from scratch, so any pending diff is obsolete
+        MobLootRecipeUpdater.clear();
         registeredMobLootRecipes.clear();
+        registeredMobLoot.clear();
         for (MobLoot mob : LootDump.getMobs()) {
             registeredMobLootRecipes.put(mob.entityId, new MobLootJeiRecipe(mob.entityId));
+            registeredMobLoot.put(mob.entityId, mob);
         }
 
         return new ArrayList<>(registeredMobLootRecipes.values());
@@ -15,12 +15,10 @@ import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityList;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.TextFormatting;
-import net.minecraft.world.World;
 
 import mezz.jei.api.gui.IDrawable;
 import mezz.jei.api.gui.IGuiItemStackGroup;
@@ -31,6 +29,7 @@ import mezz.jei.api.recipe.IRecipeWrapper;
 import com.supermobtracker.client.ClientSettings;
 import com.supermobtracker.client.gui.GuiMobTracker;
 import com.supermobtracker.client.gui.SmallVanillaButton;
+import com.supermobtracker.client.util.DisplayEntityCache;
 import com.supermobtracker.client.util.GuiDrawingUtils;
 import com.supermobtracker.config.ModConfig;
 import com.supermobtracker.drops.LootDump;
@@ -80,10 +79,6 @@ public class MobLootJeiRecipe implements IRecipeWrapper {
     private int syncedPageSize = -1;
     @Nullable
     private MobLoot syncedMob;
-    @Nullable
-    private World cachedWorld;
-    @Nullable
-    private Entity cachedEntity;
 
     private SmallVanillaButton leftPageButton = new SmallVanillaButton(
         0, GRID_X - 2, getButtonsY(), BUTTON_SIZE, "<");
@@ -235,7 +230,7 @@ public class MobLootJeiRecipe implements IRecipeWrapper {
 
     private void drawBackground(Minecraft minecraft, @Nullable MobLoot mob, int mouseX, int mouseY) {
         // Preview area - #303030 #909090
-        Entity entity = getEntity(minecraft);
+        Entity entity = getEntity();
         if (entity != null) {
             GuiDrawingUtils.drawMobPreview(entityId, entity, 0, 0, PREVIEW_W,
                 getHeight(), getPreviewRotation());
@@ -412,22 +407,12 @@ public class MobLootJeiRecipe implements IRecipeWrapper {
     }
 
     @Nullable
-    private Entity getEntity(Minecraft minecraft) {
-        if (minecraft.world == null) return null;
-        if (cachedWorld == minecraft.world) return cachedEntity;
-
-        cachedWorld = minecraft.world;
-        try {
-            cachedEntity = EntityList.createEntityByIDFromName(entityId, minecraft.world);
-        } catch (Exception ignored) {
-            cachedEntity = null;
-        }
-
-        return cachedEntity;
+    private Entity getEntity() {
+        return DisplayEntityCache.get(entityId);
     }
 
     private String getDisplayName() {
-        Entity entity = getEntity(Minecraft.getMinecraft());
+        Entity entity = getEntity();
         return TranslationUtils.formatEntityName(entityId, entity, ClientSettings.i18nNames);
     }
 
@@ -0,0 +1,81 @@
+package com.supermobtracker.integration.jei;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import mezz.jei.api.IJeiRuntime;
+import mezz.jei.api.IRecipeRegistry;
+
+
+/**
+ * Applies mob loot recipe changes to the JEI runtime on the client thread, a batch per tick.
+ * Removing and adding thousands of recipes at once stalls the client for a noticeable time,
+ * and the dump command computes the diff on its own thread anyway.
+ */
+public final class MobLootRecipeUpdater {
+    private static final int CHANGES_PER_TICK = 100;
+
+    private static final Queue<MobLootJeiRecipe> pendingRemovals = new ConcurrentLinkedQueue<>();
+    private static final Queue<MobLootJeiRecipe> pendingAdditions = new ConcurrentLinkedQueue<>();
+    private static boolean registered = false;
+
+    private MobLootRecipeUpdater() {}
+
+    /**
+     * Queues a recipe diff. Removals are always applied before additions, so a mob
+     * whose drops changed never shows two recipes at once.
+     */
+    static synchronized void enqueue(List<MobLootJeiRecipe> removedRecipes, List<MobLootJeiRecipe> addedRecipes) {
+        for (MobLootJeiRecipe recipe : removedRecipes) {
+            // Still waiting to be added from a previous refresh, so there is nothing to remove
+            if (pendingAdditions.remove(recipe)) continue;
+
+            pendingRemovals.add(recipe);
+        }
+        pendingAdditions.addAll(addedRecipes);
+
+        if (!registered) {
+            MinecraftForge.EVENT_BUS.register(new MobLootRecipeUpdater());
+            registered = true;
+        }
+    }
+
+    static synchronized void clear() {
+        pendingRemovals.clear();
+        pendingAdditions.clear();
+    }
+
+    @SubscribeEvent
+    @SuppressWarnings("deprecation")
+    public void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (pendingRemovals.isEmpty() && pendingAdditions.isEmpty()) return;
+
+        IJeiRuntime runtime = JEIIntegration.getRuntime();
+        if (runtime == null) return;
+
+        IRecipeRegistry recipeRegistry = runtime.getRecipeRegistry();
+        int budget = CHANGES_PER_TICK;
+
+        while (budget > 0) {
+            MobLootJeiRecipe recipe = pendingRemovals.poll();
+            if (recipe == null) break;
+
+            recipeRegistry.removeRecipe(recipe, MobLootJeiCategory.UID);
+            budget--;
+        }
+
+        while (budget > 0 && pendingRemovals.isEmpty()) {
+            MobLootJeiRecipe recipe = pendingAdditions.poll();
+            if (recipe == null) break;
+
+            recipeRegistry.addRecipe(recipe, MobLootJeiCategory.UID);
+            budget--;
+        }
+    }
+}
@@ -24,6 +24,8 @@ public class PacketLootAnalysisResult implements IMessage {
     private int invalidCount;
     private int constructionFailedCount;
     private int crashedCount;
+    private int timedOutCount;
+    private int quarantinedCount;
 
     public PacketLootAnalysisResult() {
     }
@@ -32,7 +34,8 @@ public class PacketLootAnalysisResult implements IMessage {
      * Create a success result packet with counts.
      */
     public PacketLootAnalysisResult(int successfulCount, int noDropsCount, int invalidCount,
-                                    int constructionFailedCount, int crashedCount, String outputPath) {
+                                    int constructionFailedCount, int crashedCount, int timedOutCount,
+                                    int quarantinedCount, String outputPath) {
         this.success = true;
         this.message = outputPath;
         this.successfulCount = successfulCount;
@@ -40,6 +43,8 @@ public class PacketLootAnalysisResult implements IMessage {
         this.invalidCount = invalidCount;
         this.constructionFailedCount = constructionFailedCount;
         this.crashedCount = crashedCount;
+        this.timedOutCount = timedOutCount;
+        this.quarantinedCount = quarantinedCount;
     }
 
     /**
@@ -61,6 +66,8 @@ public class PacketLootAnalysisResult implements IMessage {
             this.invalidCount = buf.readInt();
             this.constructionFailedCount = buf.readInt();
             this.crashedCount = buf.readInt();
+            this.timedOutCount = buf.readInt();
+            this.quarantinedCount = buf.readInt();
         }
     }
 
@@ -75,6 +82,8 @@ public class PacketLootAnalysisResult implements IMessage {
             buf.writeInt(invalidCount);
             buf.writeInt(constructionFailedCount);
             buf.writeInt(crashedCount);
+            buf.writeInt(timedOutCount);
+            buf.writeInt(quarantinedCount);
         }
     }
 
@@ -89,7 +98,9 @@ public class PacketLootAnalysisResult implements IMessage {
                         ", No drops: " + message.noDropsCount +
                         ", Invalid: " + message.invalidCount +
                         ", Construction failed: " + message.constructionFailedCount +
-                        ", Crashed: " + message.crashedCount);
+                        ", Crashed: " + message.crashedCount +
+                        ", Timed out: " + message.timedOutCount +
+                        ", Quarantined: " + message.quarantinedCount);
                     sendClientMessage(TextFormatting.AQUA, "Results saved on server: " + message.message);
                 } else {
                     sendClientMessage(TextFormatting.RED, "Loot analysis failed: " + message.message);
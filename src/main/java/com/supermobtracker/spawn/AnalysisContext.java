@@ -0,0 +1,189 @@
+package com.supermobtracker.spawn;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.EntityLiving;
+
+
+/**
+ * State of a single spawn analysis, shared by its sample finder, condition expander and spawn checks.
+ * <p>
+ * Each analysis owns its context and its simulated world, so analyses running on different threads
+ * never see each other's state. Caches shared between analyses are kept thread-safe where they live.
+ * A context itself is confined to the thread running the analysis.
+ */
+public final class AnalysisContext {
+    public final Class<? extends EntityLiving> entityClass;
+    public final SpawnConditionAnalyzer.SimulatedWorld world;
+    /** Selects the deterministic seeds of the retries, analyses with different streams roll different dice */
+    public final int seedStream;
+
+    /** First successful spawn seed, reused by the expansion to reproduce random spawn checks */
+    private long successfulSeed = 0L;
+    private boolean hasSuccessfulSeed = false;
+
+    /** Instance reseeded and moved for each spawn check, for entity classes validated for reuse */
+    private EntityLiving reusableEntity = null;
+    private boolean reusableEntityCreated = false;
+
+    /** Installed as the RNG of the checked instances, reseeded for each spawn check */
+    final CountingRandom entityRandom = new CountingRandom();
+    /** Whether the last spawn check drew from the entity or world RNG */
+    private boolean lastCheckRandom = true;
+    /** Whether any spawn check drew from the RNGs since the last {@link #resetRandomUse()} */
+    private boolean randomUsed = false;
+    /** Whether any spawn check of the analysis drew from the RNGs */
+    private boolean randomEverUsed = false;
+
+    /** Key for configurations that do not fit in the packed encoding, they are never memoized */
+    public static final long NO_KEY = -1L;
+
+    /**
+     * Outcomes of deterministic spawn checks, keyed by the packed world configuration.
+     * Values hold the queried conditions bitmask shifted left by one, and whether the entity spawned in bit 0.
+     */
+    private final Map<Long, Integer> memo = new HashMap<>();
+    private final Map<String, Integer> groundIds = new HashMap<>();
+    private final Map<String, Integer> biomeIds = new HashMap<>();
+
+    /** Seeds that made random checks of the entity class succeed in earlier analyses, loaded on first use */
+    private List<SpawnSeedStore.KnownSeed> knownSeeds = null;
+
+    public AnalysisContext(Class<? extends EntityLiving> entityClass, SpawnConditionAnalyzer.SimulatedWorld world) {
+        this(entityClass, world, 0);
+    }
+
+    public AnalysisContext(Class<? extends EntityLiving> entityClass, SpawnConditionAnalyzer.SimulatedWorld world,
+                           int seedStream) {
+        this.entityClass = entityClass;
+        this.world = world;
+        this.seedStream = seedStream;
+    }
+
+    /**
+     * Record the seed of a successful spawn check. Only the first one is kept.
+     */
+    public void recordSuccessfulSeed(long seed) {
+        if (hasSuccessfulSeed) return;
+
+        successfulSeed = seed;
+        hasSuccessfulSeed = true;
+    }
+
+    public boolean hasSuccessfulSeed() { return hasSuccessfulSeed; }
+
+    /** Get the first successful seed, or 0 if none */
+    public long getSuccessfulSeed() { return successfulSeed; }
+
+    /**
+     * Whether the last spawn check used randomness. A check that did not gives the same verdict on every retry.
+     */
+    public boolean wasLastCheckRandom() { return lastCheckRandom; }
+
+    void setLastCheckRandom(boolean random) {
+        lastCheckRandom = random;
+        randomUsed |= random;
+        randomEverUsed |= random;
+    }
+
+    void resetRandomUse() { randomUsed = false; }
+
+    boolean wasRandomUsed() { return randomUsed; }
+
+    /**
+     * Whether any spawn check of the analysis used randomness. If none did, every seed stream gives the same result.
+     */
+    public boolean usedRandomness() { return randomEverUsed; }
+
+    /**
+     * Pack the current configuration of the simulated world at the given Y level into a memo key.
+     * Layout, from the low bits: y+2048 (12), light (4), sky (1), moon phase (3), slime chunk (1),
+     * nether (1), time (15), weather (2), ground block (12), biome (13).
+     *
+     * @return the key, or {@link #NO_KEY} if a value is out of range
+     */
+    public long configurationKey(int y) {
+        int yOffset = y + 2048;
+        long time = world.worldTime;
+        int weather = "clear".equals(world.weather) ? 0 : "rain".equals(world.weather) ? 1 : "thunder".equals(world.weather) ? 2 : -1;
+        int ground = groundIds.computeIfAbsent(world.getGroundBlock(), k -> groundIds.size());
+        int biome = biomeIds.computeIfAbsent(world.getBiomeId(), k -> biomeIds.size());
+
+        if (yOffset < 0 || yOffset >= (1 << 12)) return NO_KEY;
+        if (world.lightLevel < 0 || world.lightLevel > 15) return NO_KEY;
+        if (world.moonPhase < 0 || world.moonPhase > 7) return NO_KEY;
+        if (time < 0 || time >= (1 << 15)) return NO_KEY;
+        if (weather < 0 || ground >= (1 << 12) || biome >= (1 << 13)) return NO_KEY;
+
+        return yOffset
+            | (long) world.lightLevel << 12
+            | (world.canSeeSky ? 1L : 0L) << 16
+            | (long) world.moonPhase << 17
+            | (world.isSlimeChunk ? 1L : 0L) << 20
+            | (world.isNether ? 1L : 0L) << 21
+            | time << 22
+            | (long) weather << 37
+            | (long) ground << 39
+            | (long) biome << 51;
+    }
+
+    /**
+     * Describe the current configuration of the simulated world at the given Y level, in a form
+     * stable across sessions, unlike {@link #configurationKey(int)}.
+     */
+    public String describeConfiguration(int y) {
+        return y + "|" + world.lightLevel + "|" + world.canSeeSky + "|" + world.moonPhase + "|" + world.isSlimeChunk
+            + "|" + world.isNether + "|" + world.worldTime + "|" + world.weather + "|" + world.getGroundBlock()
+            + "|" + world.getBiomeId();
+    }
+
+    /**
+     * Seeds that made random spawn checks of the entity class succeed in earlier analyses, most recent first.
+     * Only the main seed stream uses them, the others explore new seeds.
+     */
+    public List<SpawnSeedStore.KnownSeed> getKnownSeeds() {
+        if (knownSeeds == null) knownSeeds = seedStream == 0 ? SpawnSeedStore.get(entityClass) : Collections.emptyList();
+
+        return knownSeeds;
+    }
+
+    /**
+     * Get the memoized outcome of a configuration, marking its queried conditions on the world again.
+     * @return whether the entity spawned, or null if the configuration was not checked yet
+     */
+    @Nullable
+    public Boolean recall(long key) {
+        Integer value = memo.get(key);
+        if (value == null) return null;
+
+        world.markQueried(value >>> 1);
+
+        return (value & 1) != 0;
+    }
+
+    /**
+     * Memoize the outcome of a deterministic spawn check.
+     */
+    public void remember(long key, boolean spawned, int queriedConditions) {
+        memo.put(key, queriedConditions << 1 | (spawned ? 1 : 0));
+    }
+
+    /**
+     * Get the instance reused across the spawn checks of this analysis, created on first use.
+     * Null if the entity cannot be created.
+     */
+    @Nullable
+    public EntityLiving getReusableEntity() {
+        if (!reusableEntityCreated) {
+            reusableEntity = ConditionUtils.createEntity(entityClass, world);
+            reusableEntityCreated = true;
+        }
+
+        return reusableEntity;
+    }
+}
@@ -0,0 +1,56 @@
+package com.supermobtracker.spawn;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Daemon threads running the parallel parts of a spawn analysis.
+ * <p>
+ * Biome verification and ensemble members have a pool each: ensemble members are long and numerous
+ * in bulk analyses, and would otherwise starve the time-budgeted biome verifications queued behind them.
+ */
+final class AnalysisWorkers {
+    static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    /** Runs the biome verifications, which never wait on each other */
+    static final ExecutorService EXECUTOR = createPool("SMT-AnalysisWorker-");
+    /** Runs the ensemble members */
+    static final ExecutorService ENSEMBLE_EXECUTOR = createPool("SMT-EnsembleWorker-");
+
+    private AnalysisWorkers() {}
+
+    private static ExecutorService createPool(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Wrap a task so the CPU time it spends on its pool thread is added to the analysis it runs for.
+     * Without it, bulk analyses timing the analyzing thread would miss the work done here.
+     */
+    static <T> Callable<T> accounted(Callable<T> task, LongAdder cpuNanos) {
+        if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) return task;
+
+        return () -> {
+            long start = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+            try {
+                return task.call();
+            } finally {
+                cpuNanos.add(THREAD_MX_BEAN.getCurrentThreadCpuTime() - start);
+            }
+        };
+    }
+}
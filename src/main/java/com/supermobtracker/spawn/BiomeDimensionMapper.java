@@ -2,6 +2,7 @@ package com.supermobtracker.spawn;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -56,10 +57,12 @@ public class BiomeDimensionMapper {
     // Current parameters (can be customized for benchmarking)
     private static int numGrids = DEFAULT_NUM_GRIDS;
 
+    // Concurrent, since the background sampler keeps adding biomes while analyses read them
     private static Map<String, List<Integer>> biomeToDimensions = null;
     private static Map<Integer, Set<String>> dimensionToBiomes = null;
     private static List<Integer> sortedDimensionIds = null;
-    private static boolean initialized = false;
+    // Written last by init, so a thread seeing it set also sees the maps above
+    private static volatile boolean initialized = false;
 
     // Biome to ground blocks mapping (top blocks that mobs can spawn on)
     // Maps biome registry name to list of block registry names
@@ -144,13 +147,19 @@ public class BiomeDimensionMapper {
     public static void initWithParams(int grids) {
         if (initialized) return;
 
+        synchronized (BiomeDimensionMapper.class) {
+            if (!initialized) initialize(grids);
+        }
+    }
+
+    private static void initialize(int grids) {
         numGrids = grids;
 
         long totalStartTime = System.nanoTime();
 
-        biomeToDimensions = new HashMap<>();
-        dimensionToBiomes = new HashMap<>();
-        dimensionTimings = new HashMap<>();
+        biomeToDimensions = new ConcurrentHashMap<>();
+        dimensionToBiomes = new ConcurrentHashMap<>();
+        dimensionTimings = new ConcurrentHashMap<>();
         sortedDimensionIds = new ArrayList<>();
         biomeToGroundBlocks = new HashMap<>();
 
@@ -174,7 +183,7 @@ public class BiomeDimensionMapper {
             dimensionToBiomes.put(dimId, biomes);
             dimensionTimings.put(dimId, dimElapsed);
 
-            for (String biome : biomes) biomeToDimensions.computeIfAbsent(biome, k -> new ArrayList<>()).add(dimId);
+            for (String biome : biomes) biomeToDimensions.computeIfAbsent(biome, k -> new CopyOnWriteArrayList<>()).add(dimId);
 
             if (ConditionUtils.isProfilingEnabled()) {
                 String dimName = getDimensionName(dimId);
@@ -288,7 +297,8 @@ public class BiomeDimensionMapper {
      * Get biomes available in a dimension by creating a minimal world to initialize its provider.
      */
     private static Set<String> getBiomesForDimension(int dimId, WorldInfo baseWorldInfo) {
-        Set<String> biomes = new HashSet<>();
+        // Concurrent, as the background sampler may keep adding to it
+        Set<String> biomes = ConcurrentHashMap.newKeySet();
 
         try {
             // First try to get from already loaded world
@@ -595,19 +605,22 @@ public class BiomeDimensionMapper {
     /**
      * Clear the cache (useful for reloading).
      */
-    public static void clearCache() {
+    public static synchronized void clearCache() {
+        initialized = false;
         stopAllBackgroundSampling();
         biomeToDimensions = null;
         dimensionToBiomes = null;
         sortedDimensionIds = null;
         biomeToGroundBlocks = null;
-        initialized = false;
+
+        // Hints without a dimension took theirs from this mapping
+        ExternalSpawnHints.clearResolvedConditions();
     }
 
     /**
      * Stop all background sampling tasks.
      */
-    public static void stopAllBackgroundSampling() {
+    public static synchronized void stopAllBackgroundSampling() {
         for (BackgroundSampleTask task : activeBackgroundTasks.values()) task.cancel();
         activeBackgroundTasks.clear();
 
@@ -692,12 +705,12 @@ public class BiomeDimensionMapper {
                 sampleOneGridInRing();
 
                 // Update biome->dimension mapping if we found new biomes
-                if (biomes.size() > initialSize) {
-                    synchronized (biomeToDimensions) {
-                        for (String biome : biomes) {
-                            List<Integer> dims = biomeToDimensions.computeIfAbsent(biome, k -> new ArrayList<>());
-                            if (!dims.contains(dimId)) dims.add(dimId);
-                        }
+                Map<String, List<Integer>> mapping = biomeToDimensions;
+                if (biomes.size() > initialSize && mapping != null) {
+                    for (String biome : biomes) {
+                        // Only this sampler thread adds dimensions once init is done
+                        List<Integer> dims = mapping.computeIfAbsent(biome, k -> new CopyOnWriteArrayList<>());
+                        if (!dims.contains(dimId)) dims.add(dimId);
                     }
 
                     if (ConditionUtils.isProfilingEnabled()) {
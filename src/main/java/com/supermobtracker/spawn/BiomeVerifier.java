@@ -0,0 +1,177 @@
+package com.supermobtracker.spawn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.minecraft.world.WorldProvider;
+import net.minecraft.world.storage.WorldInfo;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+
+import static com.supermobtracker.spawn.ConditionUtils.canSpawnWithSeed;
+
+
+/**
+ * Checks that a valid sample also spawns in each of the other candidate biomes of an entity.
+ * <p>
+ * Native biomes come from the spawn lists, but the sample is only found in the first one, so entities
+ * with biome-dependent spawn checks would be reported as spawning in all of them. Each biome is tested
+ * on its own simulated world and analysis context, in parallel. Each test gets the configured time budget
+ * from when it starts running, so waiting for a worker does not count against it.
+ * Biomes that were not tested in time are neither confirmed nor flagged.
+ */
+public final class BiomeVerifier {
+    /**
+     * Outcome of a verification.
+     */
+    public static final class Result {
+        public static final Result SKIPPED = new Result(Collections.emptyList(), true);
+
+        /** Candidate biomes the sample does not spawn in */
+        public final List<String> failedBiomes;
+        /** Whether every candidate biome was tested within the time budget */
+        public final boolean complete;
+
+        private Result(List<String> failedBiomes, boolean complete) {
+            this.failedBiomes = failedBiomes;
+            this.complete = complete;
+        }
+    }
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private BiomeVerifier() {}
+
+    /**
+     * Test the sample in every candidate biome but its own.
+     *
+     * @param context the context of the analysis that found the sample
+     * @param sample the sample to test
+     * @param candidateBiomes the native biomes of the entity
+     * @param dimensionId the dimension of the simulated worlds, with its world info and provider
+     * @param workerCpuNanos accumulates the CPU time spent on the worker threads
+     * @throws CancellationException if the analyzing thread was interrupted
+     */
+    public static Result verify(AnalysisContext context, SampleFinder.ValidSample sample, List<String> candidateBiomes,
+                                int dimensionId, WorldInfo worldInfo, WorldProvider provider,
+                                LongAdder workerCpuNanos) {
+        int budgetMillis = ModConfig.clientSpawnBiomeVerificationBudget;
+        if (budgetMillis <= 0) return Result.SKIPPED;
+
+        Set<String> biomes = new LinkedHashSet<>(candidateBiomes);
+        biomes.remove(sample.biome);
+        if (biomes.isEmpty()) return Result.SKIPPED;
+
+        long seed = context.getSuccessfulSeed();
+        String dimension = context.world.dimension;
+
+        List<String> order = new ArrayList<>(biomes);
+        // When each task started running, so time spent queued behind other analyses does not count
+        AtomicLongArray startTimes = new AtomicLongArray(order.size());
+        List<Future<Boolean>> futures = new ArrayList<>(order.size());
+        for (int i = 0; i < order.size(); i++) {
+            int index = i;
+            String biome = order.get(i);
+            startTimes.set(index, NOT_STARTED);
+            futures.add(AnalysisWorkers.EXECUTOR.submit(AnalysisWorkers.accounted(() -> {
+                startTimes.set(index, System.nanoTime());
+                return spawnsInBiome(context, sample, seed, biome, dimension, dimensionId, worldInfo, provider);
+            }, workerCpuNanos)));
+        }
+
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        try {
+            for (int i = 0; i < futures.size(); i++) awaitWithinBudget(futures.get(i), startTimes, i, budgetNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Spawn analysis cancelled");
+        } finally {
+            // Left running only if the analysis was cancelled. Interrupted tasks stop at their next spawn check
+            for (Future<Boolean> future : futures) future.cancel(true);
+        }
+
+        List<String> failed = new ArrayList<>();
+        boolean complete = true;
+        for (int i = 0; i < futures.size(); i++) {
+            Boolean spawned = getOutcome(futures.get(i), order.get(i));
+            if (spawned == null) {
+                complete = false;
+            } else if (!spawned) {
+                failed.add(order.get(i));
+            }
+        }
+
+        if (ConditionUtils.isProfilingEnabled()) {
+            SuperMobTracker.LOGGER.info("  Biome verification: {} of {} biomes failed{}",
+                failed.size(), order.size(), complete ? "" : ", some were not tested in time");
+        }
+
+        return new Result(Collections.unmodifiableList(failed), complete);
+    }
+
+    /**
+     * Wait for a task until it completes or its budget, counted from when it started running, is spent.
+     * A task that overruns is cancelled.
+     */
+    private static void awaitWithinBudget(Future<Boolean> future, AtomicLongArray startTimes, int index,
+                                          long budgetNanos) throws InterruptedException {
+        while (!future.isDone()) {
+            long start = startTimes.get(index);
+            long remaining = start == NOT_STARTED ? budgetNanos : start + budgetNanos - System.nanoTime();
+            if (remaining <= 0) {
+                future.cancel(true);
+                return;
+            }
+
+            try {
+                future.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException | CancellationException ignored) {
+                // Outcomes are read by getOutcome, a timeout loops to check the start time again
+            }
+        }
+    }
+
+    /**
+     * Get whether a biome passed, or null if it was not tested in time or its test crashed.
+     */
+    private static Boolean getOutcome(Future<Boolean> future, String biome) {
+        if (future.isCancelled()) return null;
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            SuperMobTracker.LOGGER.debug("Biome verification in {} crashed", biome, e.getCause());
+            return null;
+        } catch (InterruptedException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private static boolean spawnsInBiome(AnalysisContext parent, SampleFinder.ValidSample sample, long seed,
+                                         String biome, String dimension,
+                                         int dimensionId, WorldInfo worldInfo, WorldProvider provider) {
+        SpawnConditionAnalyzer.SimulatedWorld world = SpawnConditionAnalyzer.acquireSimulatedWorld(dimensionId, worldInfo, provider);
+        try {
+            world.dimension = dimension;
+            sample.applyTo(world);
+            world.setBiomeId(biome);
+
+            AnalysisContext context = new AnalysisContext(parent.entityClass, world);
+
+            return canSpawnWithSeed(context, 0.5, sample.y, 0.5, seed);
+        } finally {
+            SpawnConditionAnalyzer.releaseSimulatedWorld(dimensionId, world);
+        }
+    }
+}
@@ -2,49 +2,142 @@ package com.supermobtracker.spawn;
 
 import java.util.*;
 import java.util.function.Consumer;
-
-import net.minecraft.entity.EntityLiving;
+import java.util.function.IntPredicate;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.util.IntervalSet;
+
 import static com.supermobtracker.spawn.ConditionUtils.DEFAULT_WEATHERS;
+import static com.supermobtracker.spawn.ConditionUtils.canSpawn;
 import static com.supermobtracker.spawn.ConditionUtils.canSpawnWithSeed;
-import static com.supermobtracker.spawn.ConditionUtils.getLastSuccessfulSeed;
 
 
 /**
  * Expands spawn conditions from a valid sample by exhaustively testing all values.
+ * Y levels and time of day are expanded from probes, with the boundaries between them found by bisection.
  */
 public class ConditionExpander {
 
-    private final Class<? extends EntityLiving> entityClass;
+    /** Passing Y spans up to this height are not verified further */
+    private static final int Y_VERIFY_SPAN = 8;
+    /** Time probes over a day, and passing time spans up to this length are not verified further */
+    private static final int TIME_PROBES = 20;
+    private static final int TIME_VERIFY_SPAN = 600;
+
+    /** Conditions checked for pairwise interactions, see {@link ConditionInteraction} for their values */
+    private static final QueriedCondition[] INTERACTION_CONDITIONS = {
+        QueriedCondition.LIGHT_LEVEL, QueriedCondition.TIME_OF_DAY, QueriedCondition.WEATHER, QueriedCondition.CAN_SEE_SKY,
+        QueriedCondition.MOON_PHASE, QueriedCondition.SLIME_CHUNK, QueriedCondition.NETHER
+    };
+    private static final int[] LIGHT_VALUES = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+    private static final int[] TIME_VALUES = {1000, 12000, 18000, 23000};   // day, dusk, night, dawn in ticks
+    private static final int[] WEATHER_VALUES = {0, 1, 2};                  // index in DEFAULT_WEATHERS
+    private static final int[] MOON_PHASE_VALUES = {0, 1, 2, 3, 4, 5, 6, 7};
+    private static final int[] BOOLEAN_VALUES = {1, 0};
+
     private final SpawnConditionAnalyzer.SimulatedWorld world;
+    private final AnalysisContext context;
     private final long seed;
 
-    public ConditionExpander(Class<? extends EntityLiving> entityClass,
-                             SpawnConditionAnalyzer.SimulatedWorld world) {
-        this.entityClass = entityClass;
-        this.world = world;
-        this.seed = getLastSuccessfulSeed();
+    public ConditionExpander(AnalysisContext context) {
+        this.context = context;
+        this.world = context.world;
+        this.seed = context.getSuccessfulSeed();
     }
 
     public static class ExpandedConditions {
         @Nonnull public final List<String> biomes = new ArrayList<>();
-        @Nonnull public final List<Integer> lightLevels = new ArrayList<>();
-        @Nonnull public final List<Integer> yLevels = new ArrayList<>();
+        @Nonnull public IntervalSet lightLevels = IntervalSet.EMPTY;  // empty = any light level
+        @Nonnull public IntervalSet yLevels = IntervalSet.EMPTY;      // empty = any Y level
         @Nullable public final String dimension = null;
         public final int dimensionId = 0;
 
         public final List<String> hints = new ArrayList<>();
 
         @Nullable public List<String> groundBlocks = null;    // null = doesn't matter, else list of valid ground blocks
-        @Nullable public List<int[]> timeRanges = null;       // null = doesn't matter, else list of valid time ranges [start, end] in ticks
+        @Nullable public IntervalSet timeRanges = null;       // null = doesn't matter, else valid time ranges in ticks
         @Nullable public List<String> weathers = null;        // null = doesn't matter, else list of valid weathers
         @Nullable public Boolean requiresSky = null;          // null = doesn't matter, true = requires sky, false = requires no sky
         @Nullable public List<Integer> moonPhases = null;     // null = doesn't matter, else list of valid moon phases (0-7)
         @Nullable public Boolean requiresSlimeChunk = null;   // null = doesn't matter, true = requires slime chunk, false = excludes slime chunk
         @Nullable public Boolean requiresNether = null;       // null = doesn't matter, true = requires nether-like, false = excludes nether-like
+        @Nonnull public List<ConditionInteraction> interactions = Collections.emptyList();
+        @Nonnull public List<String> failedBiomes = Collections.emptyList();
+
+        /**
+         * Widen these conditions with those found by another analysis of the same entity.
+         * A condition that does not matter in either analysis does not matter in the union.
+         * Interactions are kept as they are.
+         *
+         * @return whether anything changed
+         */
+        public boolean union(ExpandedConditions other) {
+            boolean changed = false;
+
+            IntervalSet light = unionRanges(lightLevels, other.lightLevels);
+            IntervalSet y = unionRanges(yLevels, other.yLevels);
+            changed |= !light.equals(lightLevels) || !y.equals(yLevels);
+            lightLevels = light;
+            yLevels = y;
+
+            IntervalSet time = timeRanges == null || other.timeRanges == null ? null : timeRanges.union(other.timeRanges);
+            changed |= !Objects.equals(time, timeRanges);
+            timeRanges = time;
+
+            List<String> ground = unionLists(groundBlocks, other.groundBlocks);
+            List<String> weather = unionLists(weathers, other.weathers);
+            List<Integer> moon = unionLists(moonPhases, other.moonPhases);
+            if (moon != null) Collections.sort(moon);
+            changed |= !Objects.equals(ground, groundBlocks) || !Objects.equals(weather, weathers)
+                || !Objects.equals(moon, moonPhases);
+            groundBlocks = ground;
+            weathers = weather;
+            moonPhases = moon;
+
+            Boolean sky = unionBooleans(requiresSky, other.requiresSky);
+            Boolean slime = unionBooleans(requiresSlimeChunk, other.requiresSlimeChunk);
+            Boolean nether = unionBooleans(requiresNether, other.requiresNether);
+            changed |= !Objects.equals(sky, requiresSky) || !Objects.equals(slime, requiresSlimeChunk)
+                || !Objects.equals(nether, requiresNether);
+            requiresSky = sky;
+            requiresSlimeChunk = slime;
+            requiresNether = nether;
+
+            // A biome only fails if no analysis could spawn there
+            List<String> failed = new ArrayList<>(failedBiomes);
+            failed.retainAll(other.failedBiomes);
+            changed |= failed.size() != failedBiomes.size();
+            failedBiomes = failed;
+
+            for (String hint : other.hints) {
+                if (!hints.contains(hint)) hints.add(hint);
+            }
+
+            return changed;
+        }
+
+        // Empty ranges mean any value, like null for the other conditions
+        private static IntervalSet unionRanges(IntervalSet a, IntervalSet b) {
+            return a.isEmpty() || b.isEmpty() ? IntervalSet.EMPTY : a.union(b);
+        }
+
+        @Nullable
+        private static <T> List<T> unionLists(@Nullable List<T> a, @Nullable List<T> b) {
+            if (a == null || b == null) return null;
+
+            Set<T> union = new LinkedHashSet<>(a);
+            union.addAll(b);
+
+            return new ArrayList<>(union);
+        }
+
+        @Nullable
+        private static Boolean unionBooleans(@Nullable Boolean a, @Nullable Boolean b) {
+            return a == null || b == null || !a.equals(b) ? null : a;
+        }
     }
 
     /**
@@ -55,30 +148,36 @@ public class ConditionExpander {
     public ExpandedConditions expandAll(SampleFinder.ValidSample sample,
                                         List<String> candidateBiomes,
                                         List<String> candidateGroundBlocks) {
+        return expandAll(sample, candidateBiomes, candidateGroundBlocks, ModConfig.clientSpawnInteractionAnalysis);
+    }
+
+    /**
+     * Expand all conditions from a valid sample, detecting interactions only if asked to.
+     */
+    public ExpandedConditions expandAll(SampleFinder.ValidSample sample,
+                                        List<String> candidateBiomes,
+                                        List<String> candidateGroundBlocks,
+                                        boolean detectInteractions) {
         ExpandedConditions result = new ExpandedConditions();
-        Map<String, Boolean> queried = sample.queriedConditions;
-
-        world.biomeId = sample.biome;
-        world.groundBlock = sample.ground;
-        world.lightLevel = sample.light;
-        world.canSeeSky = sample.canSeeSky;
-        world.moonPhase = sample.moonPhase;
-        world.isSlimeChunk = sample.isSlimeChunk;
-        world.isNether = sample.isNether;
-        world.worldTime = sample.worldTime;
-
-        result.yLevels.addAll(expandYLevels(sample.y));
-        result.lightLevels.addAll(expandLightLevels(sample));
+        int queried = sample.queriedConditions;
+
+        sample.applyTo(world);
+
+        result.yLevels = expandYLevels(sample.y);
+        result.lightLevels = IntervalSet.of(expandLightLevels(sample));
         result.biomes.addAll(candidateBiomes);
 
         // Only expand these conditions if they were queried during spawn checks
-        if (queried != null && queried.getOrDefault("groundBlock", false)) result.groundBlocks = expandGroundBlocks(sample, candidateGroundBlocks);
-        if (queried != null && queried.getOrDefault("timeOfDay", false)) result.timeRanges = expandTimeRanges(sample);
-        if (queried != null && queried.getOrDefault("weather", false)) result.weathers = expandWeathers(sample);
-        if (queried != null && queried.getOrDefault("canSeeSky", false)) result.requiresSky = expandCanSeeSky(sample);
-        if (queried != null && queried.getOrDefault("moonPhase", false)) result.moonPhases = expandMoonPhases(sample);
-        if (queried != null && queried.getOrDefault("isSlimeChunk", false)) result.requiresSlimeChunk = expandSlimeChunk(sample);
-        if (queried != null && queried.getOrDefault("isNether", false)) result.requiresNether = expandIsNether(sample);
+        if (QueriedCondition.GROUND_BLOCK.isSet(queried)) result.groundBlocks = expandGroundBlocks(sample, candidateGroundBlocks);
+        if (QueriedCondition.TIME_OF_DAY.isSet(queried)) result.timeRanges = expandTimeRanges(sample);
+        if (QueriedCondition.WEATHER.isSet(queried)) result.weathers = expandWeathers(sample);
+        if (QueriedCondition.CAN_SEE_SKY.isSet(queried)) result.requiresSky = expandCanSeeSky(sample);
+        if (QueriedCondition.MOON_PHASE.isSet(queried)) result.moonPhases = expandMoonPhases(sample);
+        if (QueriedCondition.SLIME_CHUNK.isSet(queried)) result.requiresSlimeChunk = expandSlimeChunk(sample);
+        if (QueriedCondition.NETHER.isSet(queried)) result.requiresNether = expandIsNether(sample);
+
+        // Expanding each condition around the sample misses limits that depend on another condition
+        if (detectInteractions) result.interactions = detectInteractions(sample, queried);
 
         return result;
     }
@@ -87,7 +186,7 @@ public class ConditionExpander {
      * Helper method to test if spawn succeeds with the saved seed.
      */
     private boolean testSpawn(int y) {
-        return canSpawnWithSeed(entityClass, world, 0.5, y, 0.5, seed);
+        return canSpawnWithSeed(context, 0.5, y, 0.5, seed);
     }
 
     /**
@@ -145,48 +244,94 @@ public class ConditionExpander {
 
     /**
      * Expand Y levels using probe points to identify valid ranges efficiently.
-     * Only exhaustively tests ranges that contain at least one passing probe point.
+     * Boundaries between probes are located by bisection rather than testing every level.
      */
-    private List<Integer> expandYLevels(int sampleY) {
+    private IntervalSet expandYLevels(int sampleY) {
         int[] probeYs = {1, 16, 32, 48, 64, 80, 96, 112, 128, 144, 160, 176, 192, 208, 224, 240, 255};
 
-        boolean[] probeResults = new boolean[probeYs.length];
         boolean allPass = true;
-        for (int i = 0; i < probeYs.length; i++) {
-            probeResults[i] = testSpawn(probeYs[i]);
-            if (!probeResults[i]) allPass = false;
+        for (int y : probeYs) {
+            if (!testSpawn(y)) {
+                allPass = false;
+                break;
+            }
         }
 
-        if (allPass) {
-            List<Integer> fullRange = new ArrayList<>();
-            for (int y = 1; y <= 255; y++) fullRange.add(y);
+        if (allPass) return IntervalSet.range(1, 255);
 
-            return fullRange;
+        IntervalSet allValid = IntervalSet.ofRanges(findPassingIntervals(probeYs, Y_VERIFY_SPAN, this::testSpawn,
+            y -> canSpawn(context, 0.5, y, 0.5)));
+        if (allValid.isEmpty()) return IntervalSet.range(sampleY, sampleY);
+
+        return allValid;
+    }
+
+    /**
+     * Find the values between the first and last probe where a check passes, as inclusive [start, end] intervals.
+     * <p>
+     * Between two probes with different outcomes, the transition is located by bisection, in O(log n) checks.
+     * Between two passing probes, the midpoint is verified with random seeds rather than the sample's seed,
+     * down to spans of {@code verifySpan}, so a gap in a range splits it instead of going unnoticed.
+     * Spans between two failing probes are assumed to fail.
+     *
+     * @param probes     sorted probe values, including both ends of the domain
+     * @param verifySpan spans between passing values up to this width are not verified further
+     * @param test       check used for the probes and the bisection
+     * @param verify     check used to verify passing spans
+     */
+    private static List<int[]> findPassingIntervals(int[] probes, int verifySpan, IntPredicate test, IntPredicate verify) {
+        TreeMap<Integer, Boolean> known = new TreeMap<>();
+        for (int probe : probes) {
+            if (!known.containsKey(probe)) known.put(probe, test.test(probe));
         }
 
-        List<int[]> rangesToTest = new ArrayList<>();
-        for (int i = 0; i < probeYs.length - 1; i++) {
-            if (probeResults[i] || probeResults[i + 1]) {
-                if (!rangesToTest.isEmpty() && rangesToTest.get(rangesToTest.size() - 1)[1] == probeYs[i]) {
-                    rangesToTest.get(rangesToTest.size() - 1)[1] = probeYs[i + 1];
-                } else {
-                    rangesToTest.add(new int[]{probeYs[i], probeYs[i + 1]});
-                }
-            }
+        Deque<int[]> segments = new ArrayDeque<>();
+        Integer previous = null;
+        for (Integer value : known.keySet()) {
+            if (previous != null) segments.add(new int[]{previous, value});
+            previous = value;
         }
 
-        if (rangesToTest.isEmpty()) return Collections.singletonList(sampleY);
+        while (!segments.isEmpty()) {
+            int[] segment = segments.poll();
+            int lo = segment[0];
+            int hi = segment[1];
+            if (hi - lo <= 1) continue;
+
+            boolean loPasses = known.get(lo);
+            boolean hiPasses = known.get(hi);
+            if (!loPasses && !hiPasses) continue;
 
-        List<Integer> allValid = new ArrayList<>();
-        for (int[] range : rangesToTest) {
-            for (int y = range[0]; y <= range[1]; y++) {
-                if (testSpawn(y)) allValid.add(y);
+            int mid = (lo + hi) >>> 1;
+            if (loPasses && hiPasses) {
+                if (hi - lo <= verifySpan) continue;
+
+                known.put(mid, verify.test(mid));
+            } else {
+                known.put(mid, test.test(mid));
             }
+
+            segments.add(new int[]{lo, mid});
+            segments.add(new int[]{mid, hi});
         }
 
-        if (allValid.isEmpty()) return Collections.singletonList(sampleY);
+        // Every remaining segment is either uniform, or a transition between adjacent values
+        List<int[]> intervals = new ArrayList<>();
+        int[] current = null;
+        for (Map.Entry<Integer, Boolean> entry : known.entrySet()) {
+            int value = entry.getKey();
+
+            if (!entry.getValue()) {
+                current = null;
+            } else if (current != null) {
+                current[1] = value;
+            } else {
+                current = new int[]{value, value};
+                intervals.add(current);
+            }
+        }
 
-        return allValid;
+        return intervals;
     }
 
     private List<Integer> expandLightLevels(SampleFinder.ValidSample sample) {
@@ -208,89 +353,64 @@ public class ConditionExpander {
 
     @Nullable
     private List<String> expandGroundBlocks(SampleFinder.ValidSample sample, List<String> candidateGroundBlocks) {
-        world.groundBlock = "sky";
+        world.setGroundBlock("sky");
         if (testSpawn(sample.y)) {
-            world.groundBlock = sample.ground;
+            world.setGroundBlock(sample.ground);
             return null;
         }
 
         return normalizeOptionalListCondition(expandListCondition(
             sample.y, candidateGroundBlocks,
-            v -> world.groundBlock = v,
+            world::setGroundBlock,
             sample.ground
         ));
     }
 
     /**
-     * Expand time ranges by testing every 600 ticks (30 seconds in game time).
+     * Expand time ranges from probes every 1200 ticks (one minute in game time), with tick-precise boundaries.
      * Returns null if all times work, else a list of valid time ranges.
-     * Each range is [start, end] in ticks (0-24000).
+     * Each range is [start, end] in ticks (0-24000), the end goes past 24000 for ranges wrapping around midnight.
      */
-    private List<int[]> expandTimeRanges(SampleFinder.ValidSample sample) {
-        // Test all 40 time points (every 600 ticks = 30 seconds)
-        // 24000 ticks / 600 = 40 samples
-        List<Long> validTimes = new ArrayList<>();
+    private IntervalSet expandTimeRanges(SampleFinder.ValidSample sample) {
         long originalTime = sample.worldTime >= 0 ? sample.worldTime : 1000L;
 
-        for (int i = 0; i < 40; i++) {
-            long testTime = i * 600L;
-            world.worldTime = testTime;
+        // The last probe is the first one a day later, closing the cycle
+        int[] probes = new int[TIME_PROBES + 1];
+        for (int i = 0; i <= TIME_PROBES; i++) probes[i] = i * (24000 / TIME_PROBES);
 
-            if (testSpawn(sample.y)) validTimes.add(testTime);
+        List<int[]> ranges = new ArrayList<>();
+        for (int[] range : findPassingIntervals(probes, TIME_VERIFY_SPAN, t -> testTime(sample.y, t, true),
+                t -> testTime(sample.y, t, false))) {
+            // Tick 24000 is tick 0 of the next day
+            if (range[0] >= 24000) continue;
+            ranges.add(new int[]{range[0], Math.min(range[1], 23999)});
         }
 
         world.worldTime = originalTime;
 
         // If all times are valid, return null (doesn't matter)
-        if (validTimes.size() == 40) return null;
+        if (ranges.size() == 1 && ranges.get(0)[0] == 0 && ranges.get(0)[1] == 23999) return null;
         // If no times work, return the sample time as a single-tick range
-        if (validTimes.isEmpty()) return Collections.singletonList(new int[]{ (int) originalTime, (int) originalTime });
-
-        // Convert list of valid times into consecutive ranges
-        return buildTimeRanges(validTimes);
-    }
-
-    /**
-     * Build consecutive time ranges from a list of valid tick values.
-     * Groups consecutive times (within 600-tick steps) into ranges.
-     */
-    private List<int[]> buildTimeRanges(List<Long> validTimes) {
-        if (validTimes.isEmpty()) return new ArrayList<>();
-
-        List<int[]> ranges = new ArrayList<>();
-        int rangeStart = validTimes.get(0).intValue();
-        int rangeEnd = rangeStart + 599;  // Each sample covers 600 ticks
-
-        for (int i = 1; i < validTimes.size(); i++) {
-            int currentTime = validTimes.get(i).intValue();
+        if (ranges.isEmpty()) return IntervalSet.range((int) originalTime, (int) originalTime);
 
-            // If this time is consecutive (within 600 ticks of the end), extend the range
-            if (currentTime > rangeEnd + 1) {
-                // Save the current range and start a new one
-                ranges.add(new int[]{rangeStart, Math.min(rangeEnd, 23999)});
-                rangeStart = currentTime;
-            }
-
-            rangeEnd = currentTime + 599;
-        }
-
-        // Add the last range
-        ranges.add(new int[]{rangeStart, Math.min(rangeEnd, 23999)});
-
-        // Handle wrap-around: if first range starts at 0 and last range ends at 23999,
-        // they might be part of the same continuous range
+        // A range ending at the end of the day continues with the one starting at tick 0
         if (ranges.size() > 1) {
             int[] firstRange = ranges.get(0);
             int[] lastRange = ranges.get(ranges.size() - 1);
 
-            if (firstRange[0] == 0 && lastRange[1] >= 23400) {
-                // Merge first and last ranges into one wrap-around range
+            if (firstRange[0] == 0 && lastRange[1] == 23999) {
                 ranges.remove(ranges.size() - 1);
                 ranges.set(0, new int[]{lastRange[0], firstRange[1] + 24000});
             }
         }
 
-        return ranges;
+        return IntervalSet.ofRanges(ranges);
+    }
+
+    private boolean testTime(int y, int time, boolean withSeed) {
+        world.worldTime = time % 24000;
+
+        return withSeed ? testSpawn(y) : canSpawn(context, 0.5, y, 0.5);
     }
 
     @Nullable
@@ -327,6 +447,136 @@ public class ConditionExpander {
         return expandBooleanCondition(sample.y, v -> world.isNether = v, sample.isNether);
     }
 
+    /**
+     * Find the pairs of queried conditions that interact, and compute their joint truth tables.
+     * <p>
+     * Each value of each condition is first tested alone. A pair is then spot-checked at the corners
+     * (the extreme values of both): without interaction, a corner passes only if both its values pass alone.
+     * Only pairs where a corner disagrees get the full |A| x |B| table, so non-interacting mobs cost
+     * a handful of checks per pair.
+     */
+    private List<ConditionInteraction> detectInteractions(SampleFinder.ValidSample sample, int queried) {
+        List<QueriedCondition> conditions = new ArrayList<>();
+        for (QueriedCondition condition : INTERACTION_CONDITIONS) {
+            if (condition.isSet(queried)) conditions.add(condition);
+        }
+        if (conditions.size() < 2) return Collections.emptyList();
+
+        // Outcome of each value alone, the other conditions at the sample's values
+        Map<QueriedCondition, boolean[]> alone = new EnumMap<>(QueriedCondition.class);
+        for (QueriedCondition condition : conditions) {
+            int[] values = interactionValues(condition);
+            boolean[] passes = new boolean[values.length];
+            for (int i = 0; i < values.length; i++) {
+                applyInteractionValue(condition, values[i]);
+                passes[i] = testSpawn(sample.y);
+            }
+            applyInteractionValue(condition, sampleInteractionValue(condition, sample));
+
+            alone.put(condition, passes);
+        }
+
+        List<ConditionInteraction> interactions = new ArrayList<>();
+        for (int a = 0; a < conditions.size(); a++) {
+            for (int b = a + 1; b < conditions.size(); b++) {
+                // The larger domain goes first, so the GUI shows one line per value of the smaller one
+                QueriedCondition first = conditions.get(a);
+                QueriedCondition second = conditions.get(b);
+                if (interactionValues(second).length > interactionValues(first).length) {
+                    first = conditions.get(b);
+                    second = conditions.get(a);
+                }
+
+                if (!cornersInteract(sample, first, alone.get(first), second, alone.get(second))) continue;
+
+                interactions.add(buildInteraction(sample, first, second));
+            }
+        }
+
+        return interactions;
+    }
+
+    private boolean cornersInteract(SampleFinder.ValidSample sample,
+                                    QueriedCondition first, boolean[] firstAlone,
+                                    QueriedCondition second, boolean[] secondAlone) {
+        int[] firstValues = interactionValues(first);
+        int[] secondValues = interactionValues(second);
+        int[] firstCorners = {0, firstValues.length - 1};
+        int[] secondCorners = {0, secondValues.length - 1};
+
+        for (int i : firstCorners) {
+            for (int j : secondCorners) {
+                boolean expected = firstAlone[i] && secondAlone[j];
+                if (testPair(sample, first, firstValues[i], second, secondValues[j]) != expected) return true;
+            }
+        }
+
+        return false;
+    }
+
+    private ConditionInteraction buildInteraction(SampleFinder.ValidSample sample, QueriedCondition first, QueriedCondition second) {
+        int[] firstValues = interactionValues(first);
+        int[] secondValues = interactionValues(second);
+        boolean[][] passes = new boolean[firstValues.length][secondValues.length];
+
+        for (int i = 0; i < firstValues.length; i++) {
+            for (int j = 0; j < secondValues.length; j++) {
+                passes[i][j] = testPair(sample, first, firstValues[i], second, secondValues[j]);
+            }
+        }
+
+        return new ConditionInteraction(first, firstValues, second, secondValues, ConditionInteraction.pack(passes));
+    }
+
+    private boolean testPair(SampleFinder.ValidSample sample, QueriedCondition first, int firstValue,
+                             QueriedCondition second, int secondValue) {
+        applyInteractionValue(first, firstValue);
+        applyInteractionValue(second, secondValue);
+
+        boolean passes = testSpawn(sample.y);
+
+        applyInteractionValue(first, sampleInteractionValue(first, sample));
+        applyInteractionValue(second, sampleInteractionValue(second, sample));
+
+        return passes;
+    }
+
+    private static int[] interactionValues(QueriedCondition condition) {
+        switch (condition) {
+            case LIGHT_LEVEL: return LIGHT_VALUES;
+            case TIME_OF_DAY: return TIME_VALUES;
+            case WEATHER: return WEATHER_VALUES;
+            case MOON_PHASE: return MOON_PHASE_VALUES;
+            default: return BOOLEAN_VALUES;
+        }
+    }
+
+    private void applyInteractionValue(QueriedCondition condition, int value) {
+        switch (condition) {
+            case LIGHT_LEVEL: world.lightLevel = value; break;
+            case TIME_OF_DAY: world.worldTime = value; break;
+            case WEATHER: world.weather = DEFAULT_WEATHERS.get(value); break;
+            case CAN_SEE_SKY: world.canSeeSky = value != 0; break;
+            case MOON_PHASE: world.moonPhase = value; break;
+            case SLIME_CHUNK: world.isSlimeChunk = value != 0; break;
+            case NETHER: world.isNether = value != 0; break;
+            default: break;
+        }
+    }
+
+    private static int sampleInteractionValue(QueriedCondition condition, SampleFinder.ValidSample sample) {
+        switch (condition) {
+            case LIGHT_LEVEL: return sample.light;
+            case TIME_OF_DAY: return sample.worldTime >= 0 ? (int) sample.worldTime : 1000;
+            case WEATHER: return Math.max(0, DEFAULT_WEATHERS.indexOf(sample.weather));
+            case CAN_SEE_SKY: return sample.canSeeSky ? 1 : 0;
+            case MOON_PHASE: return sample.moonPhase;
+            case SLIME_CHUNK: return sample.isSlimeChunk ? 1 : 0;
+            case NETHER: return sample.isNether ? 1 : 0;
+            default: return 0;
+        }
+    }
+
     public SpawnConditionAnalyzer.SpawnConditions toSpawnConditions(ExpandedConditions expanded) {
         return new SpawnConditionAnalyzer.SpawnConditions(
             expanded.biomes,
@@ -341,7 +591,10 @@ public class ConditionExpander {
             expanded.requiresSlimeChunk,
             expanded.requiresNether,
             expanded.dimension,
-            expanded.dimensionId
+            expanded.dimensionId,
+            SpawnConditionAnalyzer.NATURAL_SPAWN_REASON,
+            expanded.interactions,
+            expanded.failedBiomes
         );
     }
 }
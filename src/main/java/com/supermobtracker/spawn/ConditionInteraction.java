@@ -0,0 +1,84 @@
+package com.supermobtracker.spawn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Joint truth table of two spawn conditions that interact, e.g. a light limit that only applies at night.
+ * <p>
+ * The table holds whether the entity spawns for every pair of values, with the other conditions at the
+ * values of the analyzed sample. It is packed as a bitset, bit {@code i * secondValues.length + j} being
+ * the pair (firstValues[i], secondValues[j]).
+ * <p>
+ * Values are ints: light levels, moon phases, ticks for the time of day, the index in
+ * {@link ConditionUtils#DEFAULT_WEATHERS} for the weather, and 1/0 for boolean conditions.
+ */
+public final class ConditionInteraction {
+    public final QueriedCondition first;
+    public final QueriedCondition second;
+    private final int[] firstValues;
+    private final int[] secondValues;
+    private final long[] table;
+
+    public ConditionInteraction(QueriedCondition first, int[] firstValues,
+                                QueriedCondition second, int[] secondValues, long[] table) {
+        this.first = first;
+        this.second = second;
+        this.firstValues = firstValues.clone();
+        this.secondValues = secondValues.clone();
+        this.table = table.clone();
+    }
+
+    public int getFirstValueCount() { return firstValues.length; }
+    public int getSecondValueCount() { return secondValues.length; }
+    public int getFirstValue(int index) { return firstValues[index]; }
+    public int getSecondValue(int index) { return secondValues[index]; }
+
+    /**
+     * Whether the entity spawns with the given value indexes of both conditions.
+     */
+    public boolean allows(int firstIndex, int secondIndex) {
+        int bit = firstIndex * secondValues.length + secondIndex;
+
+        return (table[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Values of the first condition the entity spawns with, together with the given value index of the second.
+     */
+    public List<Integer> getFirstValuesAllowedWith(int secondIndex) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < firstValues.length; i++) {
+            if (allows(i, secondIndex)) values.add(firstValues[i]);
+        }
+
+        return values;
+    }
+
+    /**
+     * Copy of the packed table, for serialization.
+     */
+    public long[] getTable() { return table.clone(); }
+
+    public int[] getFirstValues() { return firstValues.clone(); }
+    public int[] getSecondValues() { return secondValues.clone(); }
+
+    /**
+     * Pack a truth table into a bitset.
+     * @param passes passes[i][j] for the pair (firstValues[i], secondValues[j])
+     */
+    public static long[] pack(boolean[][] passes) {
+        int columns = passes.length == 0 ? 0 : passes[0].length;
+        long[] table = new long[(passes.length * columns + 63) / 64];
+
+        for (int i = 0; i < passes.length; i++) {
+            for (int j = 0; j < columns; j++) {
+                int bit = i * columns + j;
+                if (passes[i][j]) table[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        return table;
+    }
+}
@@ -1,12 +1,25 @@
 package com.supermobtracker.spawn;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import net.minecraft.client.resources.I18n;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
@@ -14,6 +27,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 
 import com.supermobtracker.SuperMobTracker;
 import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.util.ReflectionUtils;
 
 
 /**
@@ -33,17 +47,45 @@ public final class ConditionUtils {
     public static final String HINT_MOON_PHASE = "gui.mobtracker.hint.moonphase";
     public static final String HINT_SLIME_CHUNK = "gui.mobtracker.hint.slimechunk";
     public static final String HINT_NETHER = "gui.mobtracker.hint.nether";
+    public static final String HINT_SEARCH_BUDGET = "gui.mobtracker.hint.search_budget";
+    public static final String HINT_BIOME_VERIFICATION_BUDGET = "gui.mobtracker.hint.biome_verification_budget";
 
     /** Whether profiling is enabled (Java arg). Can be temporarily suppressed. */
     private static final boolean PROFILING_ARG = Boolean.getBoolean("supermobtracker.profile");
-    private static boolean profilingSuppressed = false;
+    /** Number of running suppressions, so overlapping bulk runs do not lift each other's */
+    private static final AtomicInteger profilingSuppressions = new AtomicInteger();
     /** Whether to report complete crashes in spawn conditions for debugging (Java arg). */
     private static final boolean SHOW_CRASHES = Boolean.getBoolean("supermobtracker.showcrashes");
 
-    public static boolean isProfilingEnabled() { return PROFILING_ARG && !profilingSuppressed; }
-    public static void suppressProfiling(boolean suppress) { profilingSuppressed = suppress; }
+    public static boolean isProfilingEnabled() { return PROFILING_ARG && profilingSuppressions.get() == 0; }
+
+    /**
+     * Suppress (or stop suppressing) profiling output. Calls must be paired.
+     */
+    public static void suppressProfiling(boolean suppress) {
+        if (suppress) {
+            profilingSuppressions.incrementAndGet();
+        } else {
+            profilingSuppressions.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
     public static boolean shouldShowCrashes() { return SHOW_CRASHES; }
 
+    /** World constructor of each entity class, empty if it has none or it is not accessible */
+    private static final Map<Class<?>, Optional<MethodHandle>> constructorCache = new ConcurrentHashMap<>();
+
+    /**
+     * Spawn checks where a reused instance must agree with a fresh one before a class is trusted with reuse.
+     * Classes whose getCanSpawnHere mutates the instance (counters, cached targets, ...) disagree sooner or later.
+     */
+    private static final int REUSE_VALIDATION_CHECKS = 16;
+    private static final int REUSE_UNSAFE = -1;
+    /** Agreeing checks so far per entity class, or REUSE_UNSAFE */
+    private static final Map<Class<?>, Integer> reuseValidations = new ConcurrentHashMap<>();
+
+    /** Entity.rand, replaced by a CountingRandom on checked instances. Null if not found */
+    private static final Field ENTITY_RAND_FIELD = ReflectionUtils.getDeclaredField(Entity.class, "field_70146_Z", "rand");
+
     /**
      * Translate a list of strings with an optional prefix.
      * @param list   List of strings to translate
@@ -62,21 +104,39 @@ public final class ConditionUtils {
     }
 
     /**
-     * Create a new entity instance using reflection.
+     * Create a new entity instance through its World constructor.
+     * The constructor is looked up once per class.
      */
     public static EntityLiving createEntity(Class<? extends EntityLiving> entityClass, World world) {
+        MethodHandle constructor = constructorCache.computeIfAbsent(entityClass, ConditionUtils::findConstructor).orElse(null);
+        if (constructor == null) return null;
+
+        try {
+            return (EntityLiving) constructor.invoke(world);
+        } catch (Throwable t) {
+            if (ConditionUtils.shouldShowCrashes()) {
+                SuperMobTracker.LOGGER.error(
+                    "Error creating entity instance for class {}", entityClass.getName(), t);
+            }
+
+            return null;
+        }
+    }
+
+    private static Optional<MethodHandle> findConstructor(Class<?> entityClass) {
         try {
-            Constructor<? extends EntityLiving> c = entityClass.getDeclaredConstructor(World.class);
+            Constructor<?> c = entityClass.getDeclaredConstructor(World.class);
             c.setAccessible(true);
 
-            return c.newInstance(world);
+            return Optional.of(MethodHandles.lookup().unreflectConstructor(c)
+                .asType(MethodType.methodType(Object.class, World.class)));
         } catch (Exception e) {
             if (ConditionUtils.shouldShowCrashes()) {
                 SuperMobTracker.LOGGER.error(
-                    "Error creating entity instance for class {}", entityClass.getName(), e);
+                    "Error finding the World constructor of class {}", entityClass.getName(), e);
             }
 
-            return null;
+            return Optional.empty();
         }
     }
 
@@ -91,76 +151,202 @@ public final class ConditionUtils {
         }
     }
 
-    /** Last successful spawn seed (set by canSpawn when a spawn succeeds) */
-    private static long lastSuccessfulSeed = 0;
-    private static boolean hasSuccessfulSeed = false;
-
-    /** Get the last successful seed, or 0 if none */
-    public static long getLastSuccessfulSeed() { return lastSuccessfulSeed; }
-
-    /** Check if we have a recorded successful seed */
-    public static boolean hasSuccessfulSeed() { return hasSuccessfulSeed; }
-
-    /** Reset the successful seed tracking (call before starting a new analysis) */
-    public static void resetSuccessfulSeed() {
-        lastSuccessfulSeed = 0;
-        hasSuccessfulSeed = false;
+    /**
+     * Abort the running analysis if its thread was interrupted, i.e. the analysis was cancelled
+     * or abandoned. The interrupt flag is kept, so any later check aborts as well.
+     */
+    public static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Spawn analysis cancelled");
     }
 
     /**
      * Check if an entity can spawn at a position with retries for random spawn checks.
      * Returns true if spawning succeeds at least once within the configured retry limit.
-     * Records the first successful seed for later reuse.
+     * Records the first successful seed in the analysis context for later reuse.
      */
-    public static boolean canSpawn(Class<? extends EntityLiving> entityClass,
-                                   SpawnConditionAnalyzer.SimulatedWorld world,
-                                   double x, int y, double z) {
-        int maxRetries = ModConfig.clientSpawnCheckRetries;
+    public static boolean canSpawn(AnalysisContext context, double x, int y, double z) {
+        return memoized(context, y, () -> retrySpawn(context, x, y, z));
+    }
 
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
-            long seed = System.nanoTime() ^ (attempt * 6364136223846793005L);
-            EntityLiving entity = createEntityWithSeed(entityClass, world, seed);
-            if (entity == null) return false;
+    private static boolean retrySpawn(AnalysisContext context, double x, int y, double z) {
+        int maxRetries = ModConfig.clientSpawnCheckRetries;
+        checkCancelled();
 
-            entity.setPosition(x, y, z);
-            if (entity.getCanSpawnHere()) {
-                if (!hasSuccessfulSeed) {   // Record the first successful seed, not subsequent ones
-                    lastSuccessfulSeed = seed;
-                    hasSuccessfulSeed = true;
-                }
+        // Stored seeds come on top of the deterministic sequence, which is always tried in full
+        long[] knownSeeds = getKnownSeeds(context, y);
+        for (int attempt = 0; attempt < knownSeeds.length + maxRetries; attempt++) {
+            long seed = attempt < knownSeeds.length
+                ? knownSeeds[attempt]
+                : seedFor(context.entityClass, context.seedStream, attempt - knownSeeds.length);
+            Boolean spawned = checkSpawn(context, x, y, z, seed);
+            if (spawned == null) return false;
 
+            if (spawned) {
+                context.recordSuccessfulSeed(seed);
+                if (context.wasLastCheckRandom()) SpawnSeedStore.record(context.entityClass, seed, context.describeConfiguration(y));
                 return true;
             }
+
+            // Retries only help checks that roll dice, others fail the same way every time
+            if (!context.wasLastCheckRandom()) return false;
         }
 
         return false;
     }
 
+    /**
+     * Get the stored seeds of the context's entity class, those found in the current configuration first.
+     */
+    private static long[] getKnownSeeds(AnalysisContext context, int y) {
+        List<SpawnSeedStore.KnownSeed> known = context.getKnownSeeds();
+        if (known.isEmpty()) return new long[0];
+
+        String configuration = context.describeConfiguration(y);
+        long[] seeds = new long[known.size()];
+        int first = 0;
+        int last = seeds.length;
+        for (SpawnSeedStore.KnownSeed entry : known) {
+            if (entry.configuration.equals(configuration)) {
+                seeds[first++] = entry.seed;
+            } else {
+                seeds[--last] = entry.seed;
+            }
+        }
+
+        // The others were filled from the end, restore their recency order
+        for (int i = first, j = seeds.length - 1; i < j; i++, j--) {
+            long swap = seeds[i];
+            seeds[i] = seeds[j];
+            seeds[j] = swap;
+        }
+
+        return seeds;
+    }
+
+    /**
+     * Deterministic seed of a retry in a seed stream, so analyses are reproducible across runs and sessions.
+     */
+    static long seedFor(Class<?> entityClass, int stream, int attempt) {
+        // SplitMix64 finalizer, spreads consecutive attempts and streams over the whole seed space
+        long z = entityClass.getName().hashCode() * 0x9E3779B97F4A7C15L + stream * 0xD6E8FEB86659FD93L
+            + attempt * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
     /**
      * Check if an entity can spawn at a position using a specific seed first.
      * If the seed fails, falls back to standard retry behavior.
      */
-    public static boolean canSpawnWithSeed(Class<? extends EntityLiving> entityClass,
-                                           SpawnConditionAnalyzer.SimulatedWorld world,
-                                           double x, int y, double z, long seed) {
-        // Try with the provided seed first
-        EntityLiving entity = createEntityWithSeed(entityClass, world, seed);
-        if (entity != null) {
-            entity.setPosition(x, y, z);
-            if (entity.getCanSpawnHere()) return true;
+    public static boolean canSpawnWithSeed(AnalysisContext context, double x, int y, double z, long seed) {
+        return memoized(context, y, () -> {
+            // Try with the provided seed first
+            Boolean spawned = checkSpawn(context, x, y, z, seed);
+            if (spawned == null) return false;
+            if (spawned) return true;
+            if (!context.wasLastCheckRandom()) return false;
+
+            // Fall back to standard behavior
+            return retrySpawn(context, x, y, z);
+        });
+    }
+
+    /**
+     * Answer a spawn check from the analysis memo, or run it and memoize its outcome
+     * if none of its attempts used randomness. The sample points are re-tested many times
+     * during an analysis, so each deterministic configuration is only evaluated once.
+     */
+    private static boolean memoized(AnalysisContext context, int y, BooleanSupplier check) {
+        long key = context.configurationKey(y);
+        if (key == AnalysisContext.NO_KEY) return check.getAsBoolean();
+
+        Boolean known = context.recall(key);
+        if (known != null) return known;
+
+        // Isolate the conditions queried by this check, without losing the ones the caller aggregates
+        SpawnConditionAnalyzer.SimulatedWorld world = context.world;
+        int queriedBefore = world.getAndResetQueriedConditions();
+        context.resetRandomUse();
+
+        boolean spawned = check.getAsBoolean();
+
+        int queried = world.getAndResetQueriedConditions();
+        world.markQueried(queriedBefore | queried);
+        if (!context.wasRandomUsed()) context.remember(key, spawned, queried);
+
+        return spawned;
+    }
+
+    /**
+     * Run a single spawn check with the given seed.
+     * Uses the context's reusable instance once the entity class is validated for reuse,
+     * and a fresh instance otherwise.
+     *
+     * @return whether the entity can spawn, or null if no instance could be created
+     */
+    @Nullable
+    private static Boolean checkSpawn(AnalysisContext context, double x, int y, double z, long seed) {
+        Class<? extends EntityLiving> entityClass = context.entityClass;
+        int validations = reuseValidations.getOrDefault(entityClass, 0);
+
+        EntityLiving reused = validations != REUSE_UNSAFE ? context.getReusableEntity() : null;
+        if (reused != null && validations >= REUSE_VALIDATION_CHECKS) return checkEntity(context, reused, x, y, z, seed);
+
+        EntityLiving fresh = createEntity(entityClass, context.world);
+        if (fresh == null) return null;
+
+        boolean spawned = checkEntity(context, fresh, x, y, z, seed);
+        if (reused == null) return spawned;
+
+        // Still validating: the reused instance must reach the same verdict as the fresh one
+        if (checkEntity(context, reused, x, y, z, seed) == spawned) {
+            reuseValidations.merge(entityClass, 1, (count, one) -> count == REUSE_UNSAFE ? count : count + one);
+        } else {
+            reuseValidations.put(entityClass, REUSE_UNSAFE);
+            SuperMobTracker.LOGGER.debug("Spawn checks of {} are stateful, not reusing its instances", entityClass.getName());
         }
 
-        // Fall back to standard behavior
-        return canSpawn(entityClass, world, x, y, z);
+        return spawned;
+    }
+
+    /**
+     * Run the spawn check of an instance, recording in the context whether it used randomness.
+     */
+    private static boolean checkEntity(AnalysisContext context, EntityLiving entity, double x, int y, double z, long seed) {
+        boolean counted = installCountingRandom(context, entity);
+        CountingRandom worldRandom = context.world.getCountingRandom();
+
+        entity.getRNG().setSeed(seed);
+        entity.setPosition(x, y, z);
+        context.entityRandom.resetDraws();
+        if (worldRandom != null) worldRandom.resetDraws();
+
+        boolean spawned = entity.getCanSpawnHere();
+
+        // Without both counters, assume the check is random to keep its retries
+        boolean random = !counted || worldRandom == null
+            || context.entityRandom.getDraws() > 0 || worldRandom.getDraws() > 0;
+        context.setLastCheckRandom(random);
+
+        return spawned;
     }
 
     /**
-     * Create a new entity instance with a specific RNG seed.
+     * Make the context's counting RNG the RNG of the instance.
+     * @return false if it could not be installed
      */
-    private static EntityLiving createEntityWithSeed(Class<? extends EntityLiving> entityClass, World world, long seed) {
-        EntityLiving entity = createEntity(entityClass, world);
-        if (entity != null) entity.getRNG().setSeed(seed);
+    private static boolean installCountingRandom(AnalysisContext context, EntityLiving entity) {
+        if (ENTITY_RAND_FIELD == null) return false;
+
+        try {
+            if (ENTITY_RAND_FIELD.get(entity) != context.entityRandom) ENTITY_RAND_FIELD.set(entity, context.entityRandom);
+        } catch (IllegalAccessException e) {
+            return false;
+        }
 
-        return entity;
+        // A subclass may return another generator
+        return entity.getRNG() == context.entityRandom;
     }
 }
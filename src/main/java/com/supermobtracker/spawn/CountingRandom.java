@@ -0,0 +1,23 @@
+package com.supermobtracker.spawn;
+
+import java.util.Random;
+
+
+/**
+ * A Random that counts the values drawn from it, to tell random spawn checks from deterministic ones.
+ * Every generator method goes through {@link #next(int)}, so a count of 0 means no randomness was used.
+ * Confined to the thread running the analysis.
+ */
+final class CountingRandom extends Random {
+    private int draws = 0;
+
+    @Override
+    protected int next(int bits) {
+        draws++;
+        return super.next(bits);
+    }
+
+    int getDraws() { return draws; }
+
+    void resetDraws() { draws = 0; }
+}
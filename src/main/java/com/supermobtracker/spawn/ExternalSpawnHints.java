@@ -7,20 +7,29 @@ import com.google.gson.JsonObject;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
@@ -34,10 +43,14 @@ import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.SuperMobTracker;
 import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.util.IntervalSet;
 
 
 /**
  * Loads externally defined spawn hints for entities that do not use normal biome spawn tables.
+ * <p>
+ * Hints are compiled once per load, with their biome types resolved to biome IDs, and reloaded when
+ * the support directory reports a change of the hints file.
  */
 public final class ExternalSpawnHints {
 
@@ -52,9 +65,14 @@ public final class ExternalSpawnHints {
     private static final Set<String> VALID_WEATHERS = new LinkedHashSet<>(Arrays.asList("clear", "rain", "thunder"));
     private static final Pattern TRANSLATION_KEY_PATTERN = Pattern.compile("[a-z0-9_.-]+");
 
-    private static Map<ResourceLocation, HintEntry> cachedEntries = Collections.emptyMap();
+    // Compiled entries of the last load, replaced as a whole on reload
+    private static volatile Map<ResourceLocation, CompiledHint> cachedEntries = Collections.emptyMap();
+    // Set when the hints file changed since the last load
+    private static volatile boolean stale = true;
+    // Whether the support directory is watched for changes, otherwise the file timestamp is checked on every lookup
+    private static volatile boolean watched = false;
+    private static boolean watchAttempted = false;
     private static long lastLoadedTimestamp = Long.MIN_VALUE;
-    private static boolean cacheInitialized = false;
 
     private ExternalSpawnHints() {}
 
@@ -62,23 +80,85 @@ public final class ExternalSpawnHints {
                                                                             EntityLiving entity,
                                                                             boolean aquatic,
                                                                             boolean flying) {
-        reloadIfNeeded();
+        if (stale || !watched) reloadIfNeeded();
 
-        HintEntry entry = cachedEntries.get(entityId);
+        CompiledHint entry = cachedEntries.get(entityId);
         if (entry == null) return null;
 
         return entry.toSpawnConditions(entity, aquatic, flying);
     }
 
-    private static void reloadIfNeeded() {
+    /**
+     * Forget the spawn conditions built from the compiled hints, keeping the hints themselves.
+     * Their dimension may come from the biome to dimension mapping, so they go with it and with the world.
+     */
+    public static void clearResolvedConditions() {
+        for (CompiledHint entry : cachedEntries.values()) entry.conditions.clear();
+    }
+
+    private static synchronized void reloadIfNeeded() {
+        // Watch before the first load, so no change can slip between them
+        if (!watchAttempted) {
+            watchAttempted = true;
+            watched = startWatcher();
+        }
+
         File file = getHintsFile();
         long lastModified = file.exists() ? file.lastModified() : -1L;
+        if (!stale && lastModified == lastLoadedTimestamp) return;
 
-        if (cacheInitialized && lastModified == lastLoadedTimestamp) return;
-
-        cacheInitialized = true;
+        // Cleared before loading, so a change made while loading triggers another reload
+        stale = false;
         lastLoadedTimestamp = lastModified;
-        cachedEntries = loadEntries(file);
+
+        Map<ResourceLocation, CompiledHint> compiled = new LinkedHashMap<>();
+        for (HintEntry entry : loadEntries(file).values()) compiled.put(entry.entityId, entry.compile());
+        cachedEntries = Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * Watch the support directory for changes of the hints file on a daemon thread.
+     * @return false if the directory cannot be watched
+     */
+    private static boolean startWatcher() {
+        Path directory = ModConfig.getSupportDirectory().toPath();
+        WatchService watchService;
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | UnsupportedOperationException e) {
+            SuperMobTracker.LOGGER.debug("Cannot watch {} for spawn hint changes, checking the file timestamp instead",
+                directory, e);
+            return false;
+        }
+
+        Thread thread = new Thread(() -> watchHintsFile(watchService), "SMT-SpawnHintsWatcher");
+        thread.setDaemon(true);
+        thread.start();
+
+        return true;
+    }
+
+    private static void watchHintsFile(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Overflowed events do not say which file changed
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || FILE_NAME.equals(String.valueOf(event.context()))) {
+                        stale = true;
+                    }
+                }
+
+                // The directory is gone
+                if (!key.reset()) break;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped with the game
+        }
+
+        watched = false;
     }
 
     private static File getHintsFile() {
@@ -501,88 +581,128 @@ public final class ExternalSpawnHints {
             this.spawnReason = spawnReason;
         }
 
-        SpawnConditionAnalyzer.SpawnConditions toSpawnConditions(EntityLiving entity, boolean aquatic, boolean flying) {
-            List<String> resolvedBiomes = resolveBiomes();
-            int currentDimensionId = entity.world != null ? entity.world.provider.getDimension() : 0;
-            int resolvedDimensionId = resolveDimensionId(currentDimensionId, resolvedBiomes);
-            String resolvedDimensionName = resolveDimensionName(resolvedDimensionId);
-            List<String> resolvedGroundBlocks = resolveGroundBlocks(aquatic, flying);
-            List<Integer> resolvedLightLevels = resolveRange(lightMin, lightMax);
-            List<Integer> resolvedYLevels = resolveRange(yMin, yMax);
-
-            return new SpawnConditionAnalyzer.SpawnConditions(
-                resolvedBiomes,
-                resolvedGroundBlocks,
-                resolvedLightLevels,
-                resolvedYLevels,
-                timeOfDay.isEmpty() ? null : copyTimeRanges(timeOfDay),
-                weather.isEmpty() ? null : new ArrayList<>(weather),
-                hints.isEmpty() ? null : new ArrayList<>(hints),
-                requiresSky,
-                moonPhases.isEmpty() ? null : new ArrayList<>(moonPhases),
-                requiresSlimeChunk,
-                requiresNether,
-                resolvedDimensionName,
-                resolvedDimensionId,
-                spawnReason
-            );
-        }
-
-        private List<String> resolveBiomes() {
-            LinkedHashSet<String> resolved = new LinkedHashSet<>(biomeIds);
+        /**
+         * Resolve the biome types and ranges of the entry, once per load.
+         */
+        CompiledHint compile() {
+            LinkedHashSet<String> resolvedBiomes = new LinkedHashSet<>(biomeIds);
 
-            for (Biome biome : ForgeRegistries.BIOMES.getValuesCollection()) {
-                if (biome.getRegistryName() == null) continue;
+            if (!biomeTypes.isEmpty()) {
+                Set<Biome> typed = new HashSet<>();
+                for (BiomeDictionary.Type biomeType : biomeTypes) typed.addAll(BiomeDictionary.getBiomes(biomeType));
 
-                for (BiomeDictionary.Type biomeType : biomeTypes) {
-                    if (BiomeDictionary.hasType(biome, biomeType)) {
-                        resolved.add(biome.getRegistryName().toString());
-                        break;
-                    }
+                // In registry order, like the biomes of the spawn lists
+                for (Biome biome : ForgeRegistries.BIOMES.getValuesCollection()) {
+                    if (biome.getRegistryName() != null && typed.contains(biome)) resolvedBiomes.add(biome.getRegistryName().toString());
                 }
             }
 
-            return new ArrayList<>(resolved);
+            return new CompiledHint(this, new ArrayList<>(resolvedBiomes));
+        }
+    }
+
+    /**
+     * A hint entry with its biomes, ranges and lists resolved, shared by every lookup until the next load.
+     * The spawn conditions built from it are cached too, except while their dimension is still unknown,
+     * until {@link #clearResolvedConditions()}.
+     */
+    private static final class CompiledHint {
+        final String spawnReason;
+        final List<String> biomes;
+        final List<String> groundBlocks;
+        final IntervalSet lightLevels;
+        final IntervalSet yLevels;
+        @Nullable final IntervalSet timeOfDay;
+        @Nullable final List<String> weather;
+        @Nullable final List<Integer> moonPhases;
+        final List<String> hints;
+        @Nullable final Integer dimensionId;
+        @Nullable final String dimensionName;
+        final Boolean requiresSky;
+        final Boolean requiresSlimeChunk;
+        final Boolean requiresNether;
+
+        // Keyed by the current dimension and the aquatic and flying flags
+        private final Map<Long, SpawnConditionAnalyzer.SpawnConditions> conditions = new ConcurrentHashMap<>();
+
+        CompiledHint(HintEntry entry, List<String> resolvedBiomes) {
+            this.spawnReason = entry.spawnReason;
+            this.biomes = Collections.unmodifiableList(resolvedBiomes);
+            this.groundBlocks = Collections.unmodifiableList(new ArrayList<>(entry.groundBlocks));
+            this.lightLevels = resolveRange(entry.lightMin, entry.lightMax);
+            this.yLevels = resolveRange(entry.yMin, entry.yMax);
+            this.timeOfDay = entry.timeOfDay.isEmpty() ? null : IntervalSet.ofRanges(entry.timeOfDay);
+            this.weather = entry.weather.isEmpty() ? null : Collections.unmodifiableList(new ArrayList<>(entry.weather));
+            this.moonPhases = entry.moonPhases.isEmpty() ? null : Collections.unmodifiableList(new ArrayList<>(entry.moonPhases));
+            this.hints = Collections.unmodifiableList(new ArrayList<>(entry.hints));
+            this.dimensionId = entry.dimensionId;
+            this.dimensionName = entry.dimensionName != null && !entry.dimensionName.trim().isEmpty() ? entry.dimensionName : null;
+            this.requiresSky = entry.requiresSky;
+            this.requiresSlimeChunk = entry.requiresSlimeChunk;
+            this.requiresNether = entry.requiresNether;
         }
 
-        private int resolveDimensionId(int currentDimensionId, List<String> resolvedBiomes) {
-            if (dimensionId != null) return dimensionId;
-            if (!resolvedBiomes.isEmpty()) {
-                int inferredDimensionId = BiomeDimensionMapper.findDimensionForBiomes(resolvedBiomes, currentDimensionId);
-                if (inferredDimensionId != Integer.MIN_VALUE) return inferredDimensionId;
+        SpawnConditionAnalyzer.SpawnConditions toSpawnConditions(EntityLiving entity, boolean aquatic, boolean flying) {
+            int currentDimensionId = entity.world != null ? entity.world.provider.getDimension() : 0;
+            long key = (long) currentDimensionId << 2 | (aquatic ? 2 : 0) | (flying ? 1 : 0);
+
+            SpawnConditionAnalyzer.SpawnConditions cached = conditions.get(key);
+            if (cached != null) return cached;
+
+            int resolvedDimensionId = currentDimensionId;
+            boolean dimensionKnown = true;
+            if (dimensionId != null) {
+                resolvedDimensionId = dimensionId;
+            } else if (!biomes.isEmpty()) {
+                int inferredDimensionId = BiomeDimensionMapper.findDimensionForBiomes(biomes, currentDimensionId);
+                if (inferredDimensionId != Integer.MIN_VALUE) {
+                    resolvedDimensionId = inferredDimensionId;
+                } else {
+                    // The background biome sampling may still map these biomes to their dimension
+                    dimensionKnown = false;
+                }
             }
 
-            return currentDimensionId;
-        }
+            String resolvedDimensionName = dimensionName != null
+                ? dimensionName
+                : BiomeDimensionMapper.getDimensionName(resolvedDimensionId);
+
+            SpawnConditionAnalyzer.SpawnConditions result = new SpawnConditionAnalyzer.SpawnConditions(
+                biomes,
+                resolveGroundBlocks(aquatic, flying),
+                lightLevels,
+                yLevels,
+                timeOfDay,
+                weather,
+                hints,
+                requiresSky,
+                moonPhases,
+                requiresSlimeChunk,
+                requiresNether,
+                resolvedDimensionName,
+                resolvedDimensionId,
+                spawnReason
+            );
+            if (dimensionKnown) conditions.put(key, result);
 
-        private String resolveDimensionName(int resolvedDimensionId) {
-            if (dimensionName != null && !dimensionName.trim().isEmpty()) return dimensionName;
-            return BiomeDimensionMapper.getDimensionName(resolvedDimensionId);
+            return result;
         }
 
         @Nullable
         private List<String> resolveGroundBlocks(boolean aquatic, boolean flying) {
-            if (!groundBlocks.isEmpty()) return new ArrayList<>(groundBlocks);
+            if (!groundBlocks.isEmpty()) return groundBlocks;
             if (flying) return Collections.singletonList("air");
             if (aquatic) return Collections.singletonList("water");
 
             return null;
         }
 
-        private List<Integer> resolveRange(Integer min, Integer max) {
-            if (min == null && max == null) return new ArrayList<>();
+        private static IntervalSet resolveRange(Integer min, Integer max) {
+            if (min == null && max == null) return IntervalSet.EMPTY;
 
             int resolvedMin = min != null ? min : max;
             int resolvedMax = max != null ? max : min;
-            return SpawnConditionAnalyzer.buildIntRange(Math.min(resolvedMin, resolvedMax), Math.max(resolvedMin, resolvedMax));
-        }
-
-        private List<int[]> copyTimeRanges(List<int[]> source) {
-            List<int[]> copy = new ArrayList<>();
-
-            for (int[] range : source) copy.add(new int[]{range[0], range[1]});
-
-            return copy;
+            return IntervalSet.range(Math.min(resolvedMin, resolvedMax), Math.max(resolvedMin, resolvedMax));
         }
     }
 }
@@ -0,0 +1,30 @@
+package com.supermobtracker.spawn;
+
+
+/**
+ * A condition the simulated world can report as queried by a spawn check.
+ * Sets of conditions are tracked as bitmasks of {@link #mask}, so the bookkeeping in the
+ * innermost analysis loop does not allocate.
+ */
+public enum QueriedCondition {
+    DIMENSION,
+    LIGHT_LEVEL,
+    POS,
+    GROUND_BLOCK,
+    BIOME,
+    TIME_OF_DAY,
+    WEATHER,
+    CAN_SEE_SKY,
+    MOON_PHASE,
+    SLIME_CHUNK,
+    NETHER;
+
+    public final int mask = 1 << ordinal();
+
+    /**
+     * Whether this condition is part of the given bitmask.
+     */
+    public boolean isSet(int conditions) {
+        return (conditions & mask) != 0;
+    }
+}
@@ -1,12 +1,10 @@
 package com.supermobtracker.spawn;
 
 import java.lang.reflect.Method;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -14,55 +12,67 @@ import java.util.Set;
 
 import net.minecraft.entity.EntityLiving;
 
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.util.IntervalSet;
+
 import static com.supermobtracker.spawn.ConditionUtils.*;
 
 /**
  * Finds a first valid spawn sample by iterating through candidate conditions.
- * Uses a queue-based approach for optional conditions to avoid uncontrolled nesting.
+ * Optional conditions are searched nearest-first within a budget of spawn checks, to avoid a combinatorial blowup.
  */
 public class SampleFinder {
 
+    private final AnalysisContext context;
     private final Class<? extends EntityLiving> entityClass;
     private final SpawnConditionAnalyzer.SimulatedWorld world;
 
-    /** Queried conditions from the last spawn check */
-    private Map<String, Boolean> lastQueriedConditions;
+    /** Bitmask of the {@link QueriedCondition}s read by the last spawn checks */
+    private int lastQueriedConditions = 0;
+
+    /** Spawn checks run by the current search, and whether it ran out of them */
+    private int spawnChecks = 0;
+    private boolean budgetExhausted = false;
 
     /**
      * Definition of an optional condition with its possible values.
      */
     private static class OptionalCondition {
-        final String name;
+        final QueriedCondition condition;
         final Object[] values;
 
-        OptionalCondition(String name, Object... values) {
-            this.name = name;
+        OptionalCondition(QueriedCondition condition, Object... values) {
+            this.condition = condition;
             this.values = values;
         }
     }
 
     /**
      * All optional conditions with their possible values.
-     * Order matters: conditions earlier in the list are tried first.
+     * The first value of each is the default of the simulated world, and earlier values are tried first.
      * Time values are in ticks: day=1000, dusk=12000, night=13000, dawn=23000
      */
     private static final List<OptionalCondition> OPTIONAL_CONDITIONS = Arrays.asList(
-        new OptionalCondition("canSeeSky", true, false),
-        new OptionalCondition("moonPhase", 0, 1, 2, 3, 4, 5, 6, 7),  // All 8 moon phases (0=full, 4=new)
-        new OptionalCondition("isSlimeChunk", true, false),
-        new OptionalCondition("isNether", false, true),  // Try non-nether first (most common)
-        new OptionalCondition("timeOfDay", 1000L, 13000L, 12000L, 23000L),  // day, night, dusk, dawn in ticks
-        new OptionalCondition("weather", "clear", "rain", "thunder")
+        new OptionalCondition(QueriedCondition.CAN_SEE_SKY, true, false),
+        new OptionalCondition(QueriedCondition.MOON_PHASE, 0, 1, 2, 3, 4, 5, 6, 7),  // All 8 moon phases (0=full, 4=new)
+        new OptionalCondition(QueriedCondition.SLIME_CHUNK, true, false),
+        new OptionalCondition(QueriedCondition.NETHER, false, true),  // Try non-nether first (most common)
+        new OptionalCondition(QueriedCondition.TIME_OF_DAY, 1000L, 13000L, 12000L, 23000L),  // day, night, dusk, dawn in ticks
+        new OptionalCondition(QueriedCondition.WEATHER, "clear", "rain", "thunder")
         // Add more optional conditions here as needed
     );
 
-    public SampleFinder(Class<? extends EntityLiving> entityClass,
-                        SpawnConditionAnalyzer.SimulatedWorld world) {
-        this.entityClass = entityClass;
-        this.world = world;
+    public SampleFinder(AnalysisContext context) {
+        this.context = context;
+        this.entityClass = context.entityClass;
+        this.world = context.world;
     }
 
-    public Map<String, Boolean> getLastQueriedConditions() {
+    /**
+     * Bitmask of the {@link QueriedCondition}s read by the last spawn checks.
+     */
+    public int getLastQueriedConditions() {
         return lastQueriedConditions;
     }
 
@@ -110,12 +120,12 @@ public class SampleFinder {
         public final boolean isNether;
         public final long worldTime;     // Time in ticks (0-24000)
         public final String weather;
-        public final Map<String, Boolean> queriedConditions;
+        public final int queriedConditions;  // Bitmask of QueriedCondition
 
         public ValidSample(int y, int light, String ground, String biome, boolean canSeeSky,
                            int moonPhase, boolean isSlimeChunk, boolean isNether,
                            long worldTime, String weather,
-                           Map<String, Boolean> queriedConditions) {
+                           int queriedConditions) {
             this.y = y;
             this.light = light;
             this.ground = ground;
@@ -128,38 +138,31 @@ public class SampleFinder {
             this.weather = weather;
             this.queriedConditions = queriedConditions;
         }
-    }
-
-    /**
-     * Represents a combination of optional condition values to try.
-     */
-    private static class ConditionCombination {
-        final Map<String, Object> values;
-
-        ConditionCombination() {
-            this.values = new HashMap<>();
-        }
-
-        ConditionCombination(ConditionCombination other) {
-            this.values = new HashMap<>(other.values);
-        }
-
-        void set(String name, Object value) {
-            values.put(name, value);
-        }
 
-        Object get(String name) {
-            return values.get(name);
-        }
-
-        boolean has(String name) {
-            return values.containsKey(name);
+        /**
+         * Set the conditions of this sample on the world. The Y level is given to the spawn checks instead.
+         */
+        public void applyTo(SpawnConditionAnalyzer.SimulatedWorld world) {
+            world.setBiomeId(biome);
+            if (ground != null) world.setGroundBlock(ground);    // null when the ground was not queried
+            world.lightLevel = light;
+            world.canSeeSky = canSeeSky;
+            world.moonPhase = moonPhase;
+            world.isSlimeChunk = isSlimeChunk;
+            world.isNether = isNether;
+            world.worldTime = worldTime;
+            if (weather != null) world.weather = weather;
         }
     }
 
     /**
-     * Find a first valid spawn sample by iterating through conditions.
-     * Uses a queue-based approach to handle optional conditions dynamically.
+     * Find a first valid spawn sample by searching the optional conditions the entity queries.
+     * <p>
+     * Configurations are tried by increasing number of conditions changed from their first value,
+     * so the nearest working configuration is found first without enumerating every combination.
+     * Conditions are only searched once a spawn check queried them, the latest discovered first.
+     * A discovery restarts the search at one change, skipping configurations already tried.
+     * The search stops once it used the configured budget of spawn checks, see {@link #isBudgetExhausted()}.
      */
     public ValidSample find(List<String> candidateBiomes,
                             List<String> groundBlocks,
@@ -167,113 +170,148 @@ public class SampleFinder {
                             List<Integer> yLevels) {
         if (candidateBiomes.isEmpty() || groundBlocks.isEmpty()) return null;
 
-        world.biomeId = candidateBiomes.get(0);     // native biomes should always be successful
-        world.groundBlock = groundBlocks.get(0);    // give a default block to start with
+        world.setBiomeId(candidateBiomes.get(0));     // native biomes should always be successful
+        world.setGroundBlock(groundBlocks.get(0));    // give a default block to start with
 
         List<Integer> narrowedLight = refineLightLevels(lightProbe);    // cut options by half or more
+        OptionalCondition groundCondition = new OptionalCondition(QueriedCondition.GROUND_BLOCK, groundBlocks.toArray());
 
-        // Queue of condition combinations to try
-        Deque<ConditionCombination> queue = new ArrayDeque<>();
-        queue.add(new ConditionCombination());  // Start with empty (default) combination
+        spawnChecks = 0;
+        budgetExhausted = false;
+        int budget = ModConfig.clientSpawnSearchBudget;
 
-        // Track which optional conditions have been added to the queue
-        Set<String> conditionsInQueue = new HashSet<>();
+        // Searched conditions, latest discovered first, and the configurations already tried
+        List<OptionalCondition> active = new ArrayList<>();
+        Set<Map<QueriedCondition, Integer>> tried = new HashSet<>();
+        int changes = 0;
 
-        while (!queue.isEmpty()) {
-            ConditionCombination combo = queue.poll();
+        while (changes <= active.size()) {
+            boolean discovered = false;
 
-            // Apply the combination to the world
-            applyConditionCombination(combo);
+            for (Map<QueriedCondition, Integer> configuration : configurationsWithChanges(active, changes)) {
+                if (!tried.add(configuration)) continue;
 
-            // Try to find a valid sample with this combination
-            ValidSample sample = findWithCurrentConfig(narrowedLight, yLevels);
-            if (sample != null) return sample;
+                if (spawnChecks >= budget) {
+                    budgetExhausted = true;
+                    SuperMobTracker.LOGGER.info("Spawn condition search of {} gave up after {} spawn checks",
+                        entityClass.getName(), spawnChecks);
+                    return null;
+                }
 
-            // Check which optional conditions were queried but not yet in the combination
-            // and expand the queue with those conditions
-            if (lastQueriedConditions != null) {
-                for (OptionalCondition optCond : OPTIONAL_CONDITIONS) {
-                    String condName = optCond.name;
+                applyConfiguration(active, configuration);
 
-                    // Not queried or already in queue
-                    if (!lastQueriedConditions.getOrDefault(condName, false)) continue;
-                    if (conditionsInQueue.contains(condName)) continue;
+                ValidSample sample = findWithCurrentConfig(narrowedLight, yLevels);
+                if (sample != null) return sample;
 
-                    // Add all value combinations for this condition to the queue
-                    conditionsInQueue.add(condName);
+                discovered = discoverConditions(active, groundCondition);
+                if (discovered) break;
+            }
 
-                    // Create new combinations based on existing queue + new condition values
-                    // We need to expand all existing items in the queue with the new values
-                    List<ConditionCombination> currentQueue = new ArrayList<>(queue);
-                    queue.clear();
-                    currentQueue.add(0, combo);
+            // New conditions open new configurations with few changes, start over from there
+            changes = discovered ? 1 : changes + 1;
+        }
 
-                    for (ConditionCombination existing : currentQueue) {
-                        for (Object value : optCond.values) {
-                            ConditionCombination newCombo = new ConditionCombination(existing);
-                            newCombo.set(condName, value);
-                            queue.add(newCombo);
-                        }
-                    }
+        return null;
+    }
 
-                    // Break to process the expanded queue
-                    break;
-                }
+    /**
+     * Whether the last {@link #find} stopped because it used its budget of spawn checks.
+     */
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
 
-                // Handle groundBlock as a dynamic optional condition with provided candidates
-                if (lastQueriedConditions.getOrDefault("groundBlock", false) && !conditionsInQueue.contains("groundBlock")) {
-                    conditionsInQueue.add("groundBlock");
-
-                    List<ConditionCombination> currentQueue = new ArrayList<>(queue);
-                    queue.clear();
-                    currentQueue.add(0, combo);
-
-                    for (ConditionCombination existing : currentQueue) {
-                        for (String gb : groundBlocks) {
-                            ConditionCombination newCombo = new ConditionCombination(existing);
-                            newCombo.set("groundBlock", gb);
-                            queue.add(newCombo);
-                        }
-                    }
-                }
-            }
+    /**
+     * Add the conditions queried by the last spawn checks that are not searched yet, in front of the others.
+     * @return whether any condition was added
+     */
+    private boolean discoverConditions(List<OptionalCondition> active, OptionalCondition groundCondition) {
+        List<OptionalCondition> discovered = new ArrayList<>();
+        for (OptionalCondition optCond : OPTIONAL_CONDITIONS) {
+            if (isNewlyQueried(active, optCond)) discovered.add(optCond);
         }
+        if (isNewlyQueried(active, groundCondition)) discovered.add(groundCondition);
 
-        return null;
+        active.addAll(0, discovered);
+
+        return !discovered.isEmpty();
+    }
+
+    private boolean isNewlyQueried(List<OptionalCondition> active, OptionalCondition optCond) {
+        return optCond.condition.isSet(lastQueriedConditions) && !active.contains(optCond);
     }
 
     /**
-     * Apply a condition combination to the simulated world.
+     * All configurations changing exactly {@code changes} of the active conditions from their first value.
+     * Configurations map each changed condition to the index of its value, unchanged conditions are absent.
      */
-    private void applyConditionCombination(ConditionCombination combo) {
-        if (combo.has("canSeeSky")) world.canSeeSky = (Boolean) combo.get("canSeeSky");
-        if (combo.has("moonPhase")) world.moonPhase = (Integer) combo.get("moonPhase");
-        if (combo.has("isSlimeChunk")) world.isSlimeChunk = (Boolean) combo.get("isSlimeChunk");
-        if (combo.has("isNether")) world.isNether = (Boolean) combo.get("isNether");
-        if (combo.has("timeOfDay")) world.worldTime = (Long) combo.get("timeOfDay");
-        if (combo.has("weather")) world.weather = (String) combo.get("weather");
-        if (combo.has("groundBlock")) world.groundBlock = (String) combo.get("groundBlock");
+    private static List<Map<QueriedCondition, Integer>> configurationsWithChanges(List<OptionalCondition> active, int changes) {
+        List<Map<QueriedCondition, Integer>> result = new ArrayList<>();
+        collectConfigurations(active, 0, changes, new EnumMap<>(QueriedCondition.class), result);
+
+        return result;
+    }
+
+    private static void collectConfigurations(List<OptionalCondition> active, int from, int changes,
+                                              EnumMap<QueriedCondition, Integer> current,
+                                              List<Map<QueriedCondition, Integer>> result) {
+        if (changes == 0) {
+            result.add(new EnumMap<>(current));
+            return;
+        }
+
+        for (int i = from; i <= active.size() - changes; i++) {
+            OptionalCondition optCond = active.get(i);
+
+            for (int valueIndex = 1; valueIndex < optCond.values.length; valueIndex++) {
+                current.put(optCond.condition, valueIndex);
+                collectConfigurations(active, i + 1, changes - 1, current, result);
+            }
+
+            current.remove(optCond.condition);
+        }
+    }
+
+    /**
+     * Apply a configuration to the simulated world. Active conditions it does not change get their first value.
+     */
+    private void applyConfiguration(List<OptionalCondition> active, Map<QueriedCondition, Integer> configuration) {
+        for (OptionalCondition optCond : active) {
+            Object value = optCond.values[configuration.getOrDefault(optCond.condition, 0)];
+
+            switch (optCond.condition) {
+                case CAN_SEE_SKY: world.canSeeSky = (Boolean) value; break;
+                case MOON_PHASE: world.moonPhase = (Integer) value; break;
+                case SLIME_CHUNK: world.isSlimeChunk = (Boolean) value; break;
+                case NETHER: world.isNether = (Boolean) value; break;
+                case TIME_OF_DAY: world.worldTime = (Long) value; break;
+                case WEATHER: world.weather = (String) value; break;
+                case GROUND_BLOCK: world.setGroundBlock((String) value); break;
+                default: break;
+            }
+        }
     }
 
     private ValidSample findWithCurrentConfig(List<Integer> lightLevels, List<Integer> yLevels) {
-        Map<String, Boolean> aggregatedQueried = new HashMap<>();
+        int aggregatedQueried = 0;
 
         for (Integer y : yLevels) {
             for (Integer light : lightLevels) {
                 world.lightLevel = light;
+                spawnChecks++;
 
-                if (canSpawn(entityClass, world, 0.5, y, 0.5)) {
-                    mergeQueriedConditions(aggregatedQueried, world.getAndResetQueriedConditions());
+                if (canSpawn(context, 0.5, y, 0.5)) {
+                    aggregatedQueried |= world.getAndResetQueriedConditions();
 
-                    long sampleTime = aggregatedQueried.getOrDefault("timeOfDay", false) ? world.worldTime : -1L;
-                    String sampleWeather = aggregatedQueried.getOrDefault("weather", false) ? world.weather : null;
-                    String ground = aggregatedQueried.getOrDefault("groundBlock", false) ? world.groundBlock : null;
+                    long sampleTime = QueriedCondition.TIME_OF_DAY.isSet(aggregatedQueried) ? world.worldTime : -1L;
+                    String sampleWeather = QueriedCondition.WEATHER.isSet(aggregatedQueried) ? world.weather : null;
+                    String ground = QueriedCondition.GROUND_BLOCK.isSet(aggregatedQueried) ? world.getGroundBlock() : null;
 
-                    return new ValidSample(y, light, ground, world.biomeId, world.canSeeSky, world.moonPhase,
+                    return new ValidSample(y, light, ground, world.getBiomeId(), world.canSeeSky, world.moonPhase,
                         world.isSlimeChunk, world.isNether, sampleTime, sampleWeather, aggregatedQueried);
                 }
 
-                mergeQueriedConditions(aggregatedQueried, world.getAndResetQueriedConditions());
+                aggregatedQueried |= world.getAndResetQueriedConditions();
                 lastQueriedConditions = aggregatedQueried;
             }
         }
@@ -281,43 +319,32 @@ public class SampleFinder {
         return null;
     }
 
-    /**
-     * Merge queried conditions from a spawn check into the aggregated map.
-     */
-    private void mergeQueriedConditions(Map<String, Boolean> aggregated, Map<String, Boolean> source) {
-        if (source == null) return;
-
-        for (Map.Entry<String, Boolean> entry : source.entrySet()) {
-            if (entry.getValue()) aggregated.put(entry.getKey(), true);
-        }
-    }
-
     /**
      * Build a failure result with hints based on queried conditions.
      */
     public SpawnConditionAnalyzer.SpawnConditions buildFailureResult(List<Integer> lightProbe) {
         List<String> failBiomes = Collections.singletonList("unknown");
         List<String> failGround = Collections.singletonList("unknown");
-        List<Integer> narrowedLight = new ArrayList<>();
-        List<Integer> emptyY = new ArrayList<>();
-        List<int[]> time = null;  // null indicates unknown/not determined
+        IntervalSet time = null;  // null indicates unknown/not determined
         List<String> weather = Collections.singletonList("unknown");
         List<String> hints = new ArrayList<>();
 
-        if (lastQueriedConditions != null) {
-            if (lastQueriedConditions.getOrDefault("lightLevel", false)) hints.add(HINT_LIGHT);
-            if (lastQueriedConditions.getOrDefault("groundBlock", false)) hints.add(HINT_GROUND);
-            if (lastQueriedConditions.getOrDefault("biome", false)) hints.add(HINT_BIOME);
-            if (lastQueriedConditions.getOrDefault("timeOfDay", false)) hints.add(HINT_TIME);
-            if (lastQueriedConditions.getOrDefault("weather", false)) hints.add(HINT_WEATHER);
-            if (lastQueriedConditions.getOrDefault("canSeeSky", false)) hints.add(HINT_SKY);
-            if (lastQueriedConditions.getOrDefault("moonPhase", false)) hints.add(HINT_MOON_PHASE);
-            if (lastQueriedConditions.getOrDefault("isSlimeChunk", false)) hints.add(HINT_SLIME_CHUNK);
-            if (lastQueriedConditions.getOrDefault("isNether", false)) hints.add(HINT_NETHER);
+        if (lastQueriedConditions != 0) {
+            if (QueriedCondition.LIGHT_LEVEL.isSet(lastQueriedConditions)) hints.add(HINT_LIGHT);
+            if (QueriedCondition.GROUND_BLOCK.isSet(lastQueriedConditions)) hints.add(HINT_GROUND);
+            if (QueriedCondition.BIOME.isSet(lastQueriedConditions)) hints.add(HINT_BIOME);
+            if (QueriedCondition.TIME_OF_DAY.isSet(lastQueriedConditions)) hints.add(HINT_TIME);
+            if (QueriedCondition.WEATHER.isSet(lastQueriedConditions)) hints.add(HINT_WEATHER);
+            if (QueriedCondition.CAN_SEE_SKY.isSet(lastQueriedConditions)) hints.add(HINT_SKY);
+            if (QueriedCondition.MOON_PHASE.isSet(lastQueriedConditions)) hints.add(HINT_MOON_PHASE);
+            if (QueriedCondition.SLIME_CHUNK.isSet(lastQueriedConditions)) hints.add(HINT_SLIME_CHUNK);
+            if (QueriedCondition.NETHER.isSet(lastQueriedConditions)) hints.add(HINT_NETHER);
         }
 
+        if (budgetExhausted) hints.add(HINT_SEARCH_BUDGET);
+
         return new SpawnConditionAnalyzer.SpawnConditions(
-            failBiomes, failGround, narrowedLight, emptyY, time, weather, hints, null, null, Integer.MIN_VALUE
+            failBiomes, failGround, IntervalSet.EMPTY, IntervalSet.EMPTY, time, weather, hints, null, null, Integer.MIN_VALUE
         );
     }
 }
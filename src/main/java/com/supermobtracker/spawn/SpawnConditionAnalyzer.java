@@ -1,13 +1,27 @@
 package com.supermobtracker.spawn;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -16,7 +30,6 @@ import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityAgeable;
 import net.minecraft.entity.EntityFlying;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLiving;
@@ -42,7 +55,10 @@ import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
 import com.supermobtracker.SuperMobTracker;
-import com.supermobtracker.util.Utils;
+import com.supermobtracker.client.util.DisplayEntityCache;
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.util.IntervalSet;
+import com.supermobtracker.util.ReflectionUtils;
 
 
 /**
@@ -51,9 +67,6 @@ import com.supermobtracker.util.Utils;
  */
 public class SpawnConditionAnalyzer {
 
-    // All biomes from Forge registry
-    private static final List<Biome> ALL_BIOMES = new ArrayList<>(ForgeRegistries.BIOMES.getValuesCollection());
-
     // Ground blocks list to be sampled (full registry names)
     private static final List<String> GROUND_BLOCKS = Arrays.asList(
         "minecraft:stone", "minecraft:grass", "minecraft:dirt", "minecraft:cobblestone",
@@ -64,22 +77,6 @@ public class SpawnConditionAnalyzer {
 
     public static final String NATURAL_SPAWN_REASON = "natural";
 
-    // Entity id to CreatureType mapping cache
-    private static final Map<ResourceLocation, EnumCreatureType> CREATURE_TYPE_CACHE = buildCreatureTypeCache();
-
-    private static Map<ResourceLocation, EnumCreatureType> buildCreatureTypeCache() {
-        Map<ResourceLocation, EnumCreatureType> cache = new HashMap<>();
-        for (EntityEntry entry : ForgeRegistries.ENTITIES.getValuesCollection()) {
-            Arrays.stream(EnumCreatureType.values()).filter(
-                    t -> t.getCreatureClass()
-                          .isAssignableFrom(entry.getEntityClass()))
-                          .findFirst()
-                          .ifPresent(type -> cache.put(entry.getRegistryName(), type));
-        }
-
-        return cache;
-    }
-
     // Y levels to probe for finding first valid sample
     // Includes 50, 55, 60 for aquatic mobs that require posY > 45 && posY < seaLevel (63)
     private static final List<Integer> PROBE_Y_LEVELS = Arrays.asList(1, 10, 32, 50, 55, 60, 63, 64, 96, 128, 150);
@@ -87,17 +84,26 @@ public class SpawnConditionAnalyzer {
     // Light levels to probe for finding first valid sample
     private static final List<Integer> PROBE_LIGHT_LEVELS = Arrays.asList(0, 1, 7, 12, 14, 15);
 
-    // Native biome cache
-    private static final Map<ResourceLocation, List<String>> NATIVE_BIOME_CACHE = new HashMap<>();
+    // Ensemble analyses that in a row did not widen the union before the remaining ones are cancelled
+    private static final int ENSEMBLE_STABLE_RUNS = 2;
 
-    // Entity instance cache
-    private final Map<ResourceLocation, EntityLiving> entityInstanceCache = new HashMap<>();
+    // Wall-clock budget of the ensemble, members still running past it are cancelled
+    private static final long ENSEMBLE_BUDGET_MILLIS = 10_000;
 
-    // Lazily initialized entity instances for display helpers.
-    private final Map<ResourceLocation, EntityLiving> initializedEntityInstanceCache = new HashMap<>();
+    // Entity instances of the analyses, bounded as GUI analyzers live as long as their screen.
+    // Display paths use DisplayEntityCache instead.
+    private static final int MAX_ENTITY_INSTANCES = 64;
+    private final Map<ResourceLocation, EntityLiving> entityInstanceCache =
+        new LinkedHashMap<ResourceLocation, EntityLiving>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResourceLocation, EntityLiving> eldest) {
+                return size() > MAX_ENTITY_INSTANCES;
+            }
+        };
 
-    // SimulatedWorld cache per dimension ID (avoids initializing a new world each time)
-    private static final Map<Integer, SimulatedWorld> simulatedWorldCache = new HashMap<>();
+    // Idle SimulatedWorlds per dimension ID (avoids initializing a new world each time).
+    // Each analysis takes its own world out of the pool, so concurrent analyses never share one.
+    private static final Map<Integer, Queue<SimulatedWorld>> simulatedWorldPool = new ConcurrentHashMap<>();
 
     // Last computed result for GUI helpers
     private SpawnConditions lastResult;
@@ -109,24 +115,43 @@ public class SpawnConditionAnalyzer {
     // This includes native spawn-table biomes and explicit fallbacks for known worldgen-only mobs.
     private boolean lastHadNativeBiomes;
 
+    // Whether ensemble members run on the analyzing thread rather than the ensemble pool
+    private boolean inlineEnsemble = false;
+
+    // CPU time spent on worker threads by the analyses of this analyzer
+    private final LongAdder workerCpuNanos = new LongAdder();
+
     /**
      * Returns whether the last analyzed entity had usable biome candidates.
      * Useful for distinguishing "no biome data" from "analysis failed".
      */
     public boolean hasNativeBiomes() { return lastHadNativeBiomes; }
 
-    public static List<Integer> buildIntRange(int startInclusive, int endInclusive) {
-        List<Integer> values = new ArrayList<>();
+    /**
+     * Returns the last error that occurred during analysis, or null if none.
+     */
+    public Throwable getLastError() { return lastError; }
 
-        for (int value = startInclusive; value <= endInclusive; value++) values.add(value);
+    /**
+     * Run ensemble members on the analyzing thread. Used by parallel bulk analyses, whose threads
+     * already keep the cores busy and would otherwise queue their members behind each other.
+     */
+    public void setInlineEnsemble(boolean inline) { inlineEnsemble = inline; }
 
-        return values;
-    }
+    /**
+     * Returns the CPU time spent on worker threads by the analyses of this analyzer, in nanoseconds.
+     * It is not part of the CPU time of the analyzing thread.
+     */
+    public long getWorkerCpuNanos() { return workerCpuNanos.sum(); }
 
     /**
-     * Returns the last error that occurred during analysis, or null if none.
+     * Hash of the settings shaping an analysis result (retries and probe lists), used to key cached results.
      */
-    public Throwable getLastError() { return lastError; }
+    public static int getConfigurationHash() {
+        return Objects.hash(ModConfig.clientSpawnCheckRetries, ModConfig.clientSpawnSearchBudget,
+            ModConfig.clientSpawnInteractionAnalysis, ModConfig.clientSpawnBiomeVerificationBudget,
+            ModConfig.clientSpawnEnsembleWidth, PROBE_Y_LEVELS, PROBE_LIGHT_LEVELS, GROUND_BLOCKS);
+    }
 
     /**
      * Result of spawn condition analysis.
@@ -134,9 +159,9 @@ public class SpawnConditionAnalyzer {
     public static class SpawnConditions {
         public final List<String> biomes;
         public final List<String> groundBlocks;    // null = doesn't matter, else list of valid ground blocks
-        public final List<Integer> lightLevels;
-        public final List<Integer> yLevels;
-        public final List<int[]> timeOfDay;        // null = doesn't matter, else list of valid time ranges [start, end] in ticks
+        public final IntervalSet lightLevels;
+        public final IntervalSet yLevels;
+        public final IntervalSet timeOfDay;        // null = doesn't matter, else valid time ranges in ticks, ends past 24000 wrap around midnight
         public final List<String> weather;         // null = doesn't matter, else list of valid weathers
         public final List<String> hints;
         public final Boolean requiresSky;          // null = doesn't matter, true = requires sky, false = requires no sky
@@ -146,12 +171,14 @@ public class SpawnConditionAnalyzer {
         public final String dimension;
         public final int dimensionId;
         public final String spawnReason;
+        public final List<ConditionInteraction> interactions;   // pairs of conditions whose limits depend on each other
+        public final List<String> failedBiomes;                 // biomes of the list the analyzed sample does not spawn in
 
         public SpawnConditions(@Nonnull List<String> biomes,
                                @Nullable List<String> groundBlocks,
-                               @Nonnull List<Integer> lightLevels,
-                               @Nonnull List<Integer> yLevels,
-                               @Nullable List<int[]> timeOfDay,
+                               @Nonnull IntervalSet lightLevels,
+                               @Nonnull IntervalSet yLevels,
+                               @Nullable IntervalSet timeOfDay,
                                @Nullable List<String> weather,
                                @Nonnull List<String> hints,
                                @Nullable Boolean requiresSky,
@@ -163,9 +190,9 @@ public class SpawnConditionAnalyzer {
 
         public SpawnConditions(@Nonnull List<String> biomes,
                                @Nullable List<String> groundBlocks,
-                               @Nonnull List<Integer> lightLevels,
-                               @Nonnull List<Integer> yLevels,
-                               @Nullable List<int[]> timeOfDay,
+                               @Nonnull IntervalSet lightLevels,
+                               @Nonnull IntervalSet yLevels,
+                               @Nullable IntervalSet timeOfDay,
                                @Nullable List<String> weather,
                                @Nonnull List<String> hints,
                                @Nullable Boolean requiresSky,
@@ -180,9 +207,9 @@ public class SpawnConditionAnalyzer {
 
            public SpawnConditions(@Nonnull List<String> biomes,
                                   @Nullable List<String> groundBlocks,
-                                  @Nonnull List<Integer> lightLevels,
-                                  @Nonnull List<Integer> yLevels,
-                                  @Nullable List<int[]> timeOfDay,
+                                  @Nonnull IntervalSet lightLevels,
+                                  @Nonnull IntervalSet yLevels,
+                                  @Nullable IntervalSet timeOfDay,
                                   @Nullable List<String> weather,
                                   @Nonnull List<String> hints,
                                   @Nullable Boolean requiresSky,
@@ -192,6 +219,47 @@ public class SpawnConditionAnalyzer {
                                   @Nullable String dimension,
                                   int dimensionId,
                                   @Nullable String spawnReason) {
+            this(biomes, groundBlocks, lightLevels, yLevels, timeOfDay, weather, hints,
+                requiresSky, moonPhases, requiresSlimeChunk, requiresNether, dimension, dimensionId, spawnReason,
+                Collections.emptyList());
+        }
+
+        public SpawnConditions(@Nonnull List<String> biomes,
+                               @Nullable List<String> groundBlocks,
+                               @Nonnull IntervalSet lightLevels,
+                               @Nonnull IntervalSet yLevels,
+                               @Nullable IntervalSet timeOfDay,
+                               @Nullable List<String> weather,
+                               @Nonnull List<String> hints,
+                               @Nullable Boolean requiresSky,
+                               @Nullable List<Integer> moonPhases,
+                               @Nullable Boolean requiresSlimeChunk,
+                               @Nullable Boolean requiresNether,
+                               @Nullable String dimension,
+                               int dimensionId,
+                               @Nullable String spawnReason,
+                               @Nonnull List<ConditionInteraction> interactions) {
+            this(biomes, groundBlocks, lightLevels, yLevels, timeOfDay, weather, hints,
+                requiresSky, moonPhases, requiresSlimeChunk, requiresNether, dimension, dimensionId, spawnReason,
+                interactions, Collections.emptyList());
+        }
+
+        public SpawnConditions(@Nonnull List<String> biomes,
+                               @Nullable List<String> groundBlocks,
+                               @Nonnull IntervalSet lightLevels,
+                               @Nonnull IntervalSet yLevels,
+                               @Nullable IntervalSet timeOfDay,
+                               @Nullable List<String> weather,
+                               @Nonnull List<String> hints,
+                               @Nullable Boolean requiresSky,
+                               @Nullable List<Integer> moonPhases,
+                               @Nullable Boolean requiresSlimeChunk,
+                               @Nullable Boolean requiresNether,
+                               @Nullable String dimension,
+                               int dimensionId,
+                               @Nullable String spawnReason,
+                               @Nonnull List<ConditionInteraction> interactions,
+                               @Nonnull List<String> failedBiomes) {
             this.biomes = biomes;
             this.groundBlocks = groundBlocks;
             this.lightLevels = lightLevels;
@@ -206,6 +274,8 @@ public class SpawnConditionAnalyzer {
             this.dimension = dimension;
             this.dimensionId = dimensionId;
             this.spawnReason = spawnReason;
+            this.interactions = interactions;
+            this.failedBiomes = failedBiomes;
         }
 
         private boolean hasNonNaturalSpawnReason() {
@@ -241,8 +311,8 @@ public class SpawnConditionAnalyzer {
                                          weather != null && !weather.isEmpty() && !weather.get(0).equals("unknown");
             if (hasBiomes && !hasOtherConditions) return false;
 
-            return Utils.formatRangeFromList(lightLevels, ",").contains(",") ||
-                   Utils.formatRangeFromList(yLevels, ",").contains(",") ||
+            return lightLevels.rangeCount() > 1 ||
+                   yLevels.rangeCount() > 1 ||
                    (lightLevels.isEmpty() || yLevels.isEmpty()) && !failed();
         }
     }
@@ -253,9 +323,10 @@ public class SpawnConditionAnalyzer {
     public static class SimulatedWorld extends World {
         private static final ResourceLocation PLAINS = new ResourceLocation("minecraft", "plains");
 
+        private static final String DEFAULT_GROUND_BLOCK = "minecraft:grass";
+        private static final String DEFAULT_BIOME = "minecraft:plains";
+
         public int lightLevel = 15;
-        public String groundBlock = "minecraft:grass";
-        public String biomeId = "minecraft:plains";
         public String dimension = "overworld";
         public long worldTime = 1000;     // Time in ticks (0-24000), default to day
         public String weather = "clear";
@@ -264,11 +335,21 @@ public class SpawnConditionAnalyzer {
         public boolean isSlimeChunk = true;   // Whether the chunk is a slime chunk
         public boolean isNether = false;      // Whether the world is Nether-like (doesWaterVaporize)
 
-        private final Map<String, Boolean> queriedConditions = new HashMap<>();
+        // Ground block and biome, with their registry entries resolved once per change rather than per query
+        private String groundBlock = DEFAULT_GROUND_BLOCK;
+        private String biomeId = DEFAULT_BIOME;
+        private Biome biome;
+        private IBlockState groundState;
+        private boolean groundSolid;
+
+        // Bitmask of the QueriedCondition values read since the last reset
+        private int queriedConditions = 0;
+
+        // Replaces World.rand, to tell whether a spawn check used the world's randomness. Null if not installed
+        private CountingRandom countingRandom;
 
         static class SimulatedProvider extends WorldProvider {
             private final WorldProvider baseProvider;
-            private Map<String, Boolean> queriedConditions;
             private SimulatedWorld simulatedWorld;
             private final String dimension;
 
@@ -279,33 +360,32 @@ public class SpawnConditionAnalyzer {
                 this.setDimension(provider.getDimensionType().getId());
             }
 
-            public void bindQueryTracker(Map<String, Boolean> queriedConditions, SimulatedWorld world) {
-                this.queriedConditions = queriedConditions;
+            public void bindQueryTracker(SimulatedWorld world) {
                 this.simulatedWorld = world;
             }
 
             @Override
             @Nonnull
             public DimensionType getDimensionType() {
-                if (this.queriedConditions != null) this.queriedConditions.put("dimension", true);
+                if (simulatedWorld != null) simulatedWorld.markQueried(QueriedCondition.DIMENSION);
                 return baseProvider.getDimensionType();
             }
 
             @Override
             public int getDimension() {
-                if (this.queriedConditions != null) this.queriedConditions.put("dimension", true);
+                if (simulatedWorld != null) simulatedWorld.markQueried(QueriedCondition.DIMENSION);
                 return baseProvider.getDimensionType().getId();
             }
 
             @Override
             public boolean doesWaterVaporize() {
-                if (this.queriedConditions != null) this.queriedConditions.put("isNether", true);
+                if (simulatedWorld != null) simulatedWorld.markQueried(QueriedCondition.NETHER);
                 return simulatedWorld != null ? simulatedWorld.isNether : baseProvider.doesWaterVaporize();
             }
 
             @Override
             public boolean isNether() {
-                if (this.queriedConditions != null) this.queriedConditions.put("isNether", true);
+                if (simulatedWorld != null) simulatedWorld.markQueried(QueriedCondition.NETHER);
                 return simulatedWorld != null ? simulatedWorld.isNether : baseProvider.isNether();
             }
         }
@@ -323,8 +403,9 @@ public class SpawnConditionAnalyzer {
          */
         public void reset() {
             this.lightLevel = 15;
-            this.groundBlock = "minecraft:grass";
-            this.biomeId = "minecraft:plains";
+            this.groundBlock = DEFAULT_GROUND_BLOCK;
+            this.biomeId = DEFAULT_BIOME;
+            resolveBiome();
             this.dimension = "overworld";
             this.worldTime = 1000;
             this.weather = "clear";
@@ -332,46 +413,118 @@ public class SpawnConditionAnalyzer {
             this.moonPhase = 0;
             this.isSlimeChunk = true;
             this.isNether = false;
-            this.queriedConditions.clear();
+            this.queriedConditions = 0;
         }
 
         private SimulatedWorld(ISaveHandler saveHandler, WorldInfo info, WorldProvider provider,
                 Profiler profiler, boolean isClient) {
             super(saveHandler, info, provider, profiler, isClient);
             this.provider.setWorld(this);
-            ((SimulatedProvider) provider).bindQueryTracker(queriedConditions, this);
+            ((SimulatedProvider) provider).bindQueryTracker(this);
+            resolveBiome();
+            installCountingRandom();
 
             if (this.chunkProvider == null) this.chunkProvider = this.createChunkProvider();
+        }
+
+        private void installCountingRandom() {
+            Field randField = ReflectionUtils.getDeclaredField(World.class, "field_73012_v", "rand");
+            if (randField == null) return;
+
+            try {
+                CountingRandom random = new CountingRandom();
+                randField.set(this, random);
+                countingRandom = random;
+            } catch (IllegalAccessException e) {
+                SuperMobTracker.LOGGER.debug("Could not replace the RNG of the simulated world", e);
+            }
+        }
+
+        @Nullable
+        CountingRandom getCountingRandom() { return countingRandom; }
+
+        public String getGroundBlock() { return groundBlock; }
+        public String getBiomeId() { return biomeId; }
+
+        /**
+         * Set the ground block by registry name. Names without a namespace default to minecraft.
+         */
+        public void setGroundBlock(String groundBlock) {
+            if (groundBlock.equals(this.groundBlock)) return;
+
+            this.groundBlock = groundBlock;
+            resolveGroundBlock();
+        }
+
+        /**
+         * Set the biome by registry name.
+         */
+        public void setBiomeId(String biomeId) {
+            if (biomeId.equals(this.biomeId)) return;
+
+            this.biomeId = biomeId;
+            resolveBiome();
+        }
+
+        private void resolveBiome() {
+            Biome found = ForgeRegistries.BIOMES.getValue(new ResourceLocation(biomeId));
+
+            // Fall back to plains if biome not found (should not happen with valid biomeId)
+            biome = found != null ? found : ForgeRegistries.BIOMES.getValue(PLAINS);
+
+            // The ground state depends on the biome's top block
+            resolveGroundBlock();
+        }
+
+        private void resolveGroundBlock() {
+            groundSolid = !groundBlock.equals("minecraft:air") && !groundBlock.equals("air");
+
+            // If groundBlock contains ":", it's a full registry name; otherwise assume minecraft: namespace
+            ResourceLocation blockId = groundBlock.contains(":")
+                ? new ResourceLocation(groundBlock)
+                : new ResourceLocation("minecraft", groundBlock);
+
+            // If the requested block is the biome's topBlock, use the actual topBlock state
+            if (biome != null && biome.topBlock != null) {
+                ResourceLocation topBlockId = biome.topBlock.getBlock().getRegistryName();
+                if (topBlockId != null && topBlockId.equals(blockId)) {
+                    groundState = biome.topBlock;
+                    return;
+                }
+            }
+
+            // Fall back to default state for other blocks
+            Block block = ForgeRegistries.BLOCKS.getValue(blockId);
+            groundState = block != null ? block.getDefaultState() : Blocks.STONE.getDefaultState();
+        }
 
-            this.queriedConditions.put("dimension", false);
-            this.queriedConditions.put("lightLevel", false);
-            this.queriedConditions.put("pos", false);
-            this.queriedConditions.put("groundBlock", false);
-            this.queriedConditions.put("biome", false);
-            this.queriedConditions.put("timeOfDay", false);
-            this.queriedConditions.put("weather", false);
-            this.queriedConditions.put("canSeeSky", false);
-            this.queriedConditions.put("moonPhase", false);
-            this.queriedConditions.put("isSlimeChunk", false);
-            this.queriedConditions.put("isNether", false);
+        void markQueried(QueriedCondition condition) {
+            queriedConditions |= condition.mask;
         }
 
-        public Map<String, Boolean> getAndResetQueriedConditions() {
-            Map<String, Boolean> flags = new HashMap<>(queriedConditions);
-            queriedConditions.clear();
+        void markQueried(int conditions) {
+            queriedConditions |= conditions;
+        }
+
+        /**
+         * Get the bitmask of the {@link QueriedCondition}s read since the last call, and reset it.
+         */
+        public int getAndResetQueriedConditions() {
+            int flags = queriedConditions;
+            queriedConditions = 0;
 
             return flags;
         }
 
         @Override
         public int getLight(@Nonnull BlockPos pos) {
-            queriedConditions.put("lightLevel", true);
+            markQueried(QueriedCondition.LIGHT_LEVEL);
             return lightLevel;
         }
 
         @Override
         public int getLightFromNeighbors(@Nonnull BlockPos pos) {
-            queriedConditions.put("lightLevel", true);
+            markQueried(QueriedCondition.LIGHT_LEVEL);
             return lightLevel;
         }
 
@@ -384,22 +537,19 @@ public class SpawnConditionAnalyzer {
         @Override
         @Nonnull
         public Biome getBiome(@Nonnull BlockPos pos) {
-            queriedConditions.put("biome", true);
-            Biome biome = ForgeRegistries.BIOMES.getValue(new ResourceLocation(biomeId));
-
-            // Fall back to plains if biome not found (should not happen with valid biomeId)
-            return biome != null ? biome : ForgeRegistries.BIOMES.getValue(PLAINS);
+            markQueried(QueriedCondition.BIOME);
+            return biome;
         }
 
         @Override
         public long getWorldTime() {
-            queriedConditions.put("timeOfDay", true);
+            markQueried(QueriedCondition.TIME_OF_DAY);
             return worldTime;
         }
 
         @Override
         public boolean isDaytime() {
-            queriedConditions.put("timeOfDay", true);
+            markQueried(QueriedCondition.TIME_OF_DAY);
             // Daytime is 0-12000 (6:00-18:00), nighttime is 12000-24000
             long normalizedTime = worldTime % 24000;
             return normalizedTime >= 0 && normalizedTime <= 12500;
@@ -407,7 +557,7 @@ public class SpawnConditionAnalyzer {
 
         @Override
         public float getCurrentMoonPhaseFactor() {
-            queriedConditions.put("moonPhase", true);
+            markQueried(QueriedCondition.MOON_PHASE);
             // Convert moon phase to factor: 0 (full) = 1.0, 4 (new) = 0.0
             // Phases: 0=full(1.0), 1=waning gibbous(0.75), 2=third quarter(0.5), 3=waning crescent(0.25),
             //         4=new(0.0), 5=waxing crescent(0.25), 6=first quarter(0.5), 7=waxing gibbous(0.75)
@@ -417,20 +567,20 @@ public class SpawnConditionAnalyzer {
 
         @Override
         public int getMoonPhase() {
-            queriedConditions.put("moonPhase", true);
+            markQueried(QueriedCondition.MOON_PHASE);
             return moonPhase;
         }
 
 
         @Override
         public boolean isRaining() {
-            queriedConditions.put("weather", true);
+            markQueried(QueriedCondition.WEATHER);
             return weather.equals("rain") || weather.equals("thunder");
         }
 
         @Override
         public boolean isThundering() {
-            queriedConditions.put("weather", true);
+            markQueried(QueriedCondition.WEATHER);
             return weather.equals("thunder");
         }
 
@@ -449,23 +599,8 @@ public class SpawnConditionAnalyzer {
         @Override
         @Nonnull
         public IBlockState getBlockState(@Nonnull BlockPos pos) {
-            queriedConditions.put("groundBlock", true);
-
-            // If groundBlock contains ":", it's a full registry name; otherwise assume minecraft: namespace
-            ResourceLocation blockId = groundBlock.contains(":")
-                ? new ResourceLocation(groundBlock)
-                : new ResourceLocation("minecraft", groundBlock);
-
-            // If we have a biome set and the requested block is the biome's topBlock, return the actual topBlock state
-            Biome currentBiome = ForgeRegistries.BIOMES.getValue(new ResourceLocation(biomeId));
-            if (currentBiome != null && currentBiome.topBlock != null) {
-                ResourceLocation topBlockId = currentBiome.topBlock.getBlock().getRegistryName();
-                if (topBlockId != null && topBlockId.equals(blockId)) return currentBiome.topBlock;
-            }
-
-            // Fall back to default state for other blocks
-            Block block = ForgeRegistries.BLOCKS.getValue(blockId);
-            return block != null ? block.getDefaultState() : Blocks.STONE.getDefaultState();
+            markQueried(QueriedCondition.GROUND_BLOCK);
+            return groundState;
         }
 
         @Override
@@ -476,32 +611,32 @@ public class SpawnConditionAnalyzer {
         @Override
         @Nonnull
         public BlockPos getTopSolidOrLiquidBlock(@Nonnull BlockPos pos) {
-            queriedConditions.put("pos", true);
+            markQueried(QueriedCondition.POS);
             return pos;
         }
 
         @Override
         public boolean canSeeSky(@Nonnull BlockPos pos) {
-            queriedConditions.put("canSeeSky", true);
+            markQueried(QueriedCondition.CAN_SEE_SKY);
             return canSeeSky;
         }
 
         @Override
         public boolean canBlockSeeSky(@Nonnull BlockPos pos) {
-            queriedConditions.put("canSeeSky", true);
+            markQueried(QueriedCondition.CAN_SEE_SKY);
             return canSeeSky;
         }
 
         @Override
         public boolean isSideSolid(@Nonnull BlockPos pos, @Nonnull EnumFacing side) {
-            queriedConditions.put("groundBlock", true);
-            return !groundBlock.equals("minecraft:air") && !groundBlock.equals("air");
+            markQueried(QueriedCondition.GROUND_BLOCK);
+            return groundSolid;
         }
 
         @Override
         public boolean isSideSolid(@Nonnull BlockPos pos, @Nonnull EnumFacing side, boolean _default) {
-            queriedConditions.put("groundBlock", true);
-            return !groundBlock.equals("minecraft:air") && !groundBlock.equals("air");
+            markQueried(QueriedCondition.GROUND_BLOCK);
+            return groundSolid;
         }
 
         @Override
@@ -613,7 +748,7 @@ public class SpawnConditionAnalyzer {
             @Override
             @Nonnull
             public Random getRandomWithSeed(long seed) {
-                queriedConditions.put("isSlimeChunk", true);
+                markQueried(QueriedCondition.SLIME_CHUNK);
 
                 // Return a Random that will make nextInt(10) return 0 if isSlimeChunk is true, otherwise non-zero
                 return new Random() {
@@ -628,21 +763,23 @@ public class SpawnConditionAnalyzer {
     }
 
     /**
-     * Get or create a cached SimulatedWorld for the given dimension.
-     * Caching avoids re-triggering mod world initialization (e.g., BoP logs "Setting up landmass VANILLA").
+     * Take an idle SimulatedWorld of the given dimension out of the pool, or create one.
+     * Reuse avoids re-triggering mod world initialization (e.g., BoP logs "Setting up landmass VANILLA").
+     * The world must be given back with {@link #releaseSimulatedWorld} once the analysis is done.
      */
-    private SimulatedWorld getOrCreateSimulatedWorld(int dimensionId, WorldInfo worldInfo, WorldProvider provider) {
-        SimulatedWorld cached = simulatedWorldCache.get(dimensionId);
+    static SimulatedWorld acquireSimulatedWorld(int dimensionId, WorldInfo worldInfo, WorldProvider provider) {
+        SimulatedWorld pooled = simulatedWorldPool.computeIfAbsent(dimensionId, k -> new ConcurrentLinkedQueue<>()).poll();
 
-        if (cached != null) {
-            cached.reset();
-            return cached;
+        if (pooled != null) {
+            pooled.reset();
+            return pooled;
         }
 
-        SimulatedWorld newWorld = SimulatedWorld.fromProvider(worldInfo, provider);
-        simulatedWorldCache.put(dimensionId, newWorld);
+        return SimulatedWorld.fromProvider(worldInfo, provider);
+    }
 
-        return newWorld;
+    static void releaseSimulatedWorld(int dimensionId, SimulatedWorld world) {
+        simulatedWorldPool.computeIfAbsent(dimensionId, k -> new ConcurrentLinkedQueue<>()).offer(world);
     }
 
     /**
@@ -676,43 +813,11 @@ public class SpawnConditionAnalyzer {
         return null;
     }
 
+    /**
+     * Get the display entity for previews, shared with the other views through {@link DisplayEntityCache}.
+     */
     public EntityLiving getInitializedEntityInstance(ResourceLocation entityId) {
-        if (initializedEntityInstanceCache.containsKey(entityId)) return initializedEntityInstanceCache.get(entityId);
-
-        EntityLiving entity = getEntityInstance(entityId);
-        if (entity == null) {
-            initializedEntityInstanceCache.put(entityId, null);
-            return null;
-        }
-
-        initializeEntityForDisplay(entityId, entity);
-        initializedEntityInstanceCache.put(entityId, entity);
-        return entity;
-    }
-
-    private void initializeEntityForDisplay(ResourceLocation entityId, EntityLiving entity) {
-        World world = entity.world;
-        if (world == null) return;
-
-        entity.setLocationAndAngles(0.5D, Math.max(1, world.getSeaLevel()), 0.5D, 0.0F, 0.0F);
-
-        try {
-            entity.onInitialSpawn(world.getDifficultyForLocation(new BlockPos(entity)), null);
-        } catch (Throwable t) {
-            if (ConditionUtils.shouldShowCrashes()) {
-                SuperMobTracker.LOGGER.error("Error initializing display entity for {}", entityId, t);
-            }
-        }
-
-        if (!(entity instanceof EntityAgeable)) return;
-
-        try {
-            ((EntityAgeable) entity).setScaleForAge(entity.isChild());
-        } catch (Throwable t) {
-            if (ConditionUtils.shouldShowCrashes()) {
-                SuperMobTracker.LOGGER.error("Error applying age scale for display entity {}", entityId, t);
-            }
-        }
+        return DisplayEntityCache.get(entityId);
     }
 
     public boolean isBoss(ResourceLocation entityId) {
@@ -721,7 +826,7 @@ public class SpawnConditionAnalyzer {
     }
 
     public boolean isPassive(ResourceLocation entityId) {
-        EnumCreatureType type = CREATURE_TYPE_CACHE.get(entityId);
+        EnumCreatureType type = SpawnTableIndex.get().getCreatureType(entityId);
         return type == EnumCreatureType.CREATURE || type == EnumCreatureType.AMBIENT;
     }
 
@@ -733,12 +838,12 @@ public class SpawnConditionAnalyzer {
     }
 
     public boolean isHostile(ResourceLocation entityId) {
-        EnumCreatureType type = CREATURE_TYPE_CACHE.get(entityId);
+        EnumCreatureType type = SpawnTableIndex.get().getCreatureType(entityId);
         return type == EnumCreatureType.MONSTER;
     }
 
     public boolean isAquatic(ResourceLocation entityId) {
-        EnumCreatureType type = CREATURE_TYPE_CACHE.get(entityId);
+        EnumCreatureType type = SpawnTableIndex.get().getCreatureType(entityId);
         return type == EnumCreatureType.WATER_CREATURE;
     }
 
@@ -771,12 +876,14 @@ public class SpawnConditionAnalyzer {
      *
      * @param entityId the entity registry name
      * @return SpawnConditions result, or null if analysis failed
+     * @throws CancellationException if the analyzing thread was interrupted
      */
     public SpawnConditions analyze(ResourceLocation entityId) {
         double startTime = (double) System.nanoTime();
+        // Read once, so a suppression toggled mid-analysis does not leave half of the output
+        boolean profiling = ConditionUtils.isProfilingEnabled();
         lastError = null;
         lastResult = null;
-        ConditionUtils.resetSuccessfulSeed();
 
         EntityEntry entry = ForgeRegistries.ENTITIES.getValue(entityId);
         if (entry == null || !(EntityLiving.class.isAssignableFrom(entry.getEntityClass()))) return null;
@@ -786,7 +893,7 @@ public class SpawnConditionAnalyzer {
             if (entity == null) return null;
 
             // Get native biomes from the entity spawn tables
-            List<String> nativeBiomes = getNativeBiomes(entityId, entry.getEntityClass());
+            List<String> nativeBiomes = getNativeBiomes(entityId);
             lastHadNativeBiomes = !nativeBiomes.isEmpty();
             if (!lastHadNativeBiomes) {
                 SpawnConditions fallback = ExternalSpawnHints.getSpawnConditions(entityId, entity, isAquatic(entityId), isFlying(entityId));
@@ -844,7 +951,7 @@ public class SpawnConditionAnalyzer {
 
             lastResult = result;
 
-            if (ConditionUtils.isProfilingEnabled()) {
+            if (profiling) {
                 double elapsed = ((double) System.nanoTime() - startTime) / 1_000_000.0;
                 SuperMobTracker.LOGGER.info("Analysis of {} took {}ms", entityId, Math.round(elapsed * 100) / 100.0);
 
@@ -853,10 +960,12 @@ public class SpawnConditionAnalyzer {
             }
 
             return result;
+        } catch (CancellationException e) {
+            throw e;
         } catch (Throwable t) {
             lastError = t;
 
-            if (ConditionUtils.isProfilingEnabled()) {
+            if (profiling) {
                 double elapsed = (System.nanoTime() - startTime) / 1_000_000.0;
                 SuperMobTracker.LOGGER.info(
                     "Analysis of {} crashed after {}ms", entityId, Math.round(elapsed * 100) / 100.0);
@@ -886,29 +995,11 @@ public class SpawnConditionAnalyzer {
         );
     }
 
-    private void createNativeBiomesCache() {
-        for (Biome biome : ALL_BIOMES) {
-            for (EnumCreatureType type : EnumCreatureType.values()) {
-                List<Biome.SpawnListEntry> entries = biome.getSpawnableList(type);
-                for (Biome.SpawnListEntry entry : entries) {
-                    ResourceLocation entityId = EntityList.getKey(entry.entityClass);
-                    if (entityId != null) {
-                        NATIVE_BIOME_CACHE.computeIfAbsent(entityId, k -> new ArrayList<>())
-                            .add(biome.getRegistryName().toString());
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Get native spawn biomes for an entity from the biome spawn lists.
      */
-    private List<String> getNativeBiomes(ResourceLocation entityId, Class<?> entityClass) {
-        if (NATIVE_BIOME_CACHE.isEmpty()) createNativeBiomesCache();
-
-        List<String> nativeBiomes = NATIVE_BIOME_CACHE.get(entityId);
-        return nativeBiomes != null ? nativeBiomes : new ArrayList<>();
+    private List<String> getNativeBiomes(ResourceLocation entityId) {
+        return SpawnTableIndex.get().getBiomes(entityId);
     }
 
     /**
@@ -958,51 +1049,176 @@ public class SpawnConditionAnalyzer {
             }
         }
 
-        SimulatedWorld simulatedWorld = getOrCreateSimulatedWorld(targetDimId, entity.world.getWorldInfo(), targetProvider);
+        SimulatedWorld simulatedWorld = acquireSimulatedWorld(targetDimId, entity.world.getWorldInfo(), targetProvider);
         simulatedWorld.dimension = dimensionName != null ? dimensionName : "unknown";
 
         // Find valid conditions using inline refinement (replacing ConditionRefiner)
-        SpawnConditions result = findValidConditions(entity.getClass(), simulatedWorld,
-            biomes, biomeGroundBlocksLimited, groundBlocksCombined, lightLevels, PROBE_Y_LEVELS);
+        SpawnConditions result;
+        try {
+            AnalysisContext context = new AnalysisContext(entity.getClass(), simulatedWorld);
+            result = findValidConditions(context, biomes, biomeGroundBlocksLimited, groundBlocksCombined,
+                lightLevels, PROBE_Y_LEVELS, targetDimId, entity.world.getWorldInfo(), targetProvider);
+        } finally {
+            releaseSimulatedWorld(targetDimId, simulatedWorld);
+        }
 
         if (result != null) {
             return new SpawnConditions(
                 biomes, result.groundBlocks, result.lightLevels, result.yLevels, result.timeOfDay, result.weather,
                 result.hints, result.requiresSky, result.moonPhases, result.requiresSlimeChunk, result.requiresNether,
-                dimensionName, targetDimId
+                dimensionName, targetDimId, NATURAL_SPAWN_REASON, result.interactions, result.failedBiomes
             );
         }
 
         List<String> groundBlocks = Collections.singletonList("unknown");
-        List<Integer> narrowedLight = new ArrayList<>();
-        List<Integer> yLevels = new ArrayList<>();
-        List<int[]> timeOfDay = null;  // null indicates unknown/not determined
+        IntervalSet timeOfDay = null;  // null indicates unknown/not determined
         List<String> weather = Collections.singletonList("unknown");
 
-        return new SpawnConditions(biomes, groundBlocks, narrowedLight, yLevels, timeOfDay, weather, null, null, dimensionName, targetDimId);
+        return new SpawnConditions(biomes, groundBlocks, IntervalSet.EMPTY, IntervalSet.EMPTY, timeOfDay, weather, null, null, dimensionName, targetDimId);
     }
 
     /**
      * Find valid spawn conditions by probing the simulated world.
      */
-    private SpawnConditions findValidConditions(Class<? extends EntityLiving> entityClass,
-                                                SimulatedWorld world,
+    private SpawnConditions findValidConditions(AnalysisContext context,
                                                 List<String> candidateBiomes,
                                                 List<String> groundBlocksFinder,
                                                 List<String> groundBlocksExpander,
                                                 List<Integer> lightProbe,
-                                                List<Integer> yLevels) {
+                                                List<Integer> yLevels,
+                                                int dimensionId, WorldInfo worldInfo, WorldProvider provider) {
         if (candidateBiomes.isEmpty() || groundBlocksFinder.isEmpty() || groundBlocksExpander.isEmpty()) return null;
 
-        SampleFinder sampleFinder = new SampleFinder(entityClass, world);
+        SampleFinder sampleFinder = new SampleFinder(context);
         SampleFinder.ValidSample sample = sampleFinder.find(candidateBiomes, groundBlocksFinder, lightProbe, yLevels);
         if (sample == null) return sampleFinder.buildFailureResult(lightProbe);
 
-        ConditionExpander expander = new ConditionExpander(entityClass, world);
+        ConditionExpander expander = new ConditionExpander(context);
         ConditionExpander.ExpandedConditions expanded = expander.expandAll(sample, candidateBiomes, groundBlocksExpander);
+
+        // Sparse results often come from unlucky random checks, other seed streams fill the gaps.
+        // Without randomness every stream gives the same result.
+        int width = ModConfig.clientSpawnEnsembleWidth;
+        if (width > 1 && context.usedRandomness() && expander.toSpawnConditions(expanded).isSparse()) {
+            String dimension = context.world.dimension;
+            widenWithEnsemble(context.entityClass, expanded, width, stream -> {
+                SimulatedWorld world = acquireSimulatedWorld(dimensionId, worldInfo, provider);
+                try {
+                    world.dimension = dimension;
+                    AnalysisContext member = new AnalysisContext(context.entityClass, world, stream);
+
+                    SampleFinder.ValidSample memberSample = new SampleFinder(member)
+                        .find(candidateBiomes, groundBlocksFinder, lightProbe, yLevels);
+                    if (memberSample == null) return null;
+
+                    return new ConditionExpander(member).expandAll(memberSample, candidateBiomes, groundBlocksExpander, false);
+                } finally {
+                    releaseSimulatedWorld(dimensionId, world);
+                }
+            });
+        }
+
+        // The sample was only found in the first biome, the others may reject it
+        BiomeVerifier.Result verified = BiomeVerifier.verify(context, sample, candidateBiomes,
+            dimensionId, worldInfo, provider, workerCpuNanos);
+        expanded.failedBiomes = verified.failedBiomes;
+        if (!verified.complete) expanded.hints.add(ConditionUtils.HINT_BIOME_VERIFICATION_BUDGET);
+
         return expander.toSpawnConditions(expanded);
     }
 
+    /**
+     * Run independent analyses of the entity on seed streams 1 to width - 1, and widen the expanded
+     * conditions with each of their results. Once {@link #ENSEMBLE_STABLE_RUNS} results in a row did
+     * not change the union, or {@link #ENSEMBLE_BUDGET_MILLIS} elapsed, the remaining analyses are cancelled.
+     * They run in parallel on the ensemble pool, or one after another on the analyzing thread if
+     * {@link #setInlineEnsemble(boolean)} was set.
+     *
+     * @param member runs the analysis of a seed stream, returning null if it found no valid sample
+     * @throws CancellationException if the analyzing thread was interrupted
+     */
+    private void widenWithEnsemble(Class<?> entityClass, ConditionExpander.ExpandedConditions expanded, int width,
+                                   IntFunction<ConditionExpander.ExpandedConditions> member) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ENSEMBLE_BUDGET_MILLIS);
+        int merged = inlineEnsemble
+            ? widenInline(entityClass, expanded, width, member, deadline)
+            : widenInParallel(entityClass, expanded, width, member, deadline);
+
+        if (ConditionUtils.isProfilingEnabled()) {
+            SuperMobTracker.LOGGER.info("  Ensemble: merged {} of {} analyses", merged, width - 1);
+        }
+    }
+
+    private static int widenInline(Class<?> entityClass, ConditionExpander.ExpandedConditions expanded, int width,
+                                   IntFunction<ConditionExpander.ExpandedConditions> member, long deadline) {
+        int merged = 0;
+        int stableRuns = 0;
+        for (int stream = 1; stream < width && stableRuns < ENSEMBLE_STABLE_RUNS; stream++) {
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException("Spawn analysis cancelled");
+            if (System.nanoTime() >= deadline) break;
+
+            ConditionExpander.ExpandedConditions result;
+            try {
+                result = member.apply(stream);
+            } catch (RuntimeException e) {
+                if (e instanceof CancellationException) throw e;
+
+                SuperMobTracker.LOGGER.debug("Ensemble analysis of {} crashed", entityClass.getName(), e);
+                continue;
+            }
+            if (result == null) continue;
+
+            stableRuns = expanded.union(result) ? 0 : stableRuns + 1;
+            merged++;
+        }
+
+        return merged;
+    }
+
+    private int widenInParallel(Class<?> entityClass, ConditionExpander.ExpandedConditions expanded, int width,
+                                IntFunction<ConditionExpander.ExpandedConditions> member, long deadline) {
+        CompletionService<ConditionExpander.ExpandedConditions> completion =
+            new ExecutorCompletionService<>(AnalysisWorkers.ENSEMBLE_EXECUTOR);
+        List<Future<ConditionExpander.ExpandedConditions>> futures = new ArrayList<>();
+        for (int stream = 1; stream < width; stream++) {
+            int seedStream = stream;
+            futures.add(completion.submit(AnalysisWorkers.accounted(() -> member.apply(seedStream), workerCpuNanos)));
+        }
+
+        int merged = 0;
+        int stableRuns = 0;
+        try {
+            for (int i = 0; i < futures.size() && stableRuns < ENSEMBLE_STABLE_RUNS; i++) {
+                Future<ConditionExpander.ExpandedConditions> done =
+                    completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    SuperMobTracker.LOGGER.debug("Ensemble analysis of {} exceeded its time budget", entityClass.getName());
+                    break;
+                }
+
+                ConditionExpander.ExpandedConditions result;
+                try {
+                    result = done.get();
+                } catch (ExecutionException e) {
+                    SuperMobTracker.LOGGER.debug("Ensemble analysis of {} crashed", entityClass.getName(), e.getCause());
+                    continue;
+                }
+                if (result == null) continue;
+
+                stableRuns = expanded.union(result) ? 0 : stableRuns + 1;
+                merged++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Spawn analysis cancelled");
+        } finally {
+            // The union stopped changing, the budget ran out, or the analysis was cancelled
+            for (Future<?> future : futures) future.cancel(true);
+        }
+
+        return merged;
+    }
+
     public boolean hasResult() {
         return lastResult != null;
     }
@@ -0,0 +1,399 @@
+package com.supermobtracker.spawn;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.Tags;
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.spawn.SpawnConditionAnalyzer.SpawnConditions;
+import com.supermobtracker.util.IntervalSet;
+import com.supermobtracker.util.JsonFiles;
+
+
+/**
+ * Disk-backed cache of analyzed spawn conditions, so re-opening a mob analyzed in a previous
+ * session is instant. An in-memory LRU of deserialized results sits on top of the file.
+ * <p>
+ * Each entity keeps a single record, valid only for the fingerprint it was computed with:
+ * the version of the entity's mod, the world type, the analysis settings hash and the
+ * Super Mob Tracker version. Only complete natural-spawn results are cached; failed and
+ * sparse results are recomputed, as they may be caused by unlucky random spawn checks.
+ * <p>
+ * The file uses short fields for size efficiency: {@code v} is the format version and {@code e}
+ * maps each entity ID to {@code [fingerprint, conditions]}. Entities whose precompute gave no cacheable
+ * result map to {@code [fingerprint, reason]} instead, so the precompute skips them until the fingerprint changes.
+ */
+public final class SpawnConditionsCache {
+    public static final String FILE_NAME = "spawn_conditions_cache.json";
+    private static final int FORMAT_VERSION = 2;
+    private static final int MAX_MEMORY_ENTRIES = 256;
+    // Deferred writes are flushed in batches, so precomputing the whole pack does not rewrite the file per mob
+    private static final int DEFERRED_SAVE_BATCH = 32;
+
+    // Every record of the file, serialized
+    private static final Map<String, JsonArray> stored = new TreeMap<>();
+
+    private static final Map<String, CachedConditions> memory =
+        new LinkedHashMap<String, CachedConditions>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedConditions> eldest) {
+                return size() > MAX_MEMORY_ENTRIES;
+            }
+        };
+
+    private static boolean loaded = false;
+    private static int unsavedChanges = 0;
+
+    private SpawnConditionsCache() {}
+
+    public static File getFile() {
+        return new File(ModConfig.getSupportDirectory(), FILE_NAME);
+    }
+
+    /**
+     * Get the cached spawn conditions of an entity, if they were computed with the current fingerprint.
+     */
+    @Nullable
+    public static synchronized SpawnConditions get(ResourceLocation entityId) {
+        String key = entityId.toString();
+        String fingerprint = getFingerprint(entityId);
+
+        CachedConditions cached = memory.get(key);
+        if (cached != null && cached.fingerprint.equals(fingerprint)) return cached.conditions;
+
+        loadIfNeeded();
+        JsonArray record = stored.get(key);
+        if (record == null || record.size() != 2 || !fingerprint.equals(record.get(0).getAsString())) return null;
+
+        // Marker of an entity without a cacheable result
+        if (!record.get(1).isJsonObject()) return null;
+
+        SpawnConditions conditions;
+        try {
+            conditions = readConditions(record.get(1).getAsJsonObject());
+        } catch (RuntimeException e) {
+            SuperMobTracker.LOGGER.warn("Dropping unreadable cached spawn conditions of {}", entityId, e);
+            stored.remove(key);
+            return null;
+        }
+
+        memory.put(key, new CachedConditions(fingerprint, conditions));
+
+        return conditions;
+    }
+
+    /**
+     * Whether a result is worth keeping across sessions.
+     */
+    public static boolean isCacheable(@Nullable SpawnConditions conditions) {
+        return conditions != null
+            && SpawnConditionAnalyzer.NATURAL_SPAWN_REASON.equals(conditions.spawnReason)
+            && !conditions.failed()
+            && !conditions.isSparse();
+    }
+
+    /**
+     * Whether the entity has a cached result or an unavailable marker for the current fingerprint,
+     * without deserializing it.
+     */
+    public static synchronized boolean contains(ResourceLocation entityId) {
+        String fingerprint = getFingerprint(entityId);
+
+        loadIfNeeded();
+        JsonArray record = stored.get(entityId.toString());
+
+        return record != null && record.size() == 2 && fingerprint.equals(record.get(0).getAsString());
+    }
+
+    /**
+     * Cache the result of an analysis and write it to disk. Results that are not cacheable are ignored.
+     */
+    public static void put(ResourceLocation entityId, @Nullable SpawnConditions conditions) {
+        put(entityId, conditions, true);
+    }
+
+    /**
+     * Cache the result of an analysis. Results that are not cacheable are ignored.
+     *
+     * @param saveNow whether to write the file immediately, otherwise it is written every few results
+     *                or by {@link #save()}
+     */
+    public static synchronized void put(ResourceLocation entityId, @Nullable SpawnConditions conditions, boolean saveNow) {
+        if (!isCacheable(conditions)) return;
+
+        loadIfNeeded();
+        String key = entityId.toString();
+        String fingerprint = getFingerprint(entityId);
+
+        JsonArray record = new JsonArray();
+        record.add(new JsonPrimitive(fingerprint));
+        record.add(writeConditions(conditions));
+        stored.put(key, record);
+        memory.put(key, new CachedConditions(fingerprint, conditions));
+        unsavedChanges++;
+
+        if (saveNow || unsavedChanges >= DEFERRED_SAVE_BATCH) save();
+    }
+
+    /**
+     * Remember that the analysis of an entity gave no cacheable result, e.g. it was sparse or timed out,
+     * so precomputes skip it until the fingerprint changes. A cached result of the entity is kept.
+     *
+     * @param reason why there is no result, for whoever reads the file
+     */
+    public static synchronized void putUnavailable(ResourceLocation entityId, String reason) {
+        loadIfNeeded();
+        String key = entityId.toString();
+        String fingerprint = getFingerprint(entityId);
+
+        JsonArray existing = stored.get(key);
+        if (existing != null && existing.size() == 2 && fingerprint.equals(existing.get(0).getAsString())) return;
+
+        JsonArray record = new JsonArray();
+        record.add(new JsonPrimitive(fingerprint));
+        record.add(new JsonPrimitive(reason));
+        stored.put(key, record);
+        memory.remove(key);
+        unsavedChanges++;
+
+        if (unsavedChanges >= DEFERRED_SAVE_BATCH) save();
+    }
+
+    /**
+     * Forget the cached result of an entity, e.g. when the user asks for a fresh analysis.
+     */
+    public static synchronized void invalidate(ResourceLocation entityId) {
+        String key = entityId.toString();
+        memory.remove(key);
+
+        loadIfNeeded();
+        if (stored.remove(key) == null) return;
+
+        unsavedChanges++;
+        save();
+    }
+
+    private static String getFingerprint(ResourceLocation entityId) {
+        ModContainer container = Loader.instance().getIndexedModList().get(entityId.getNamespace());
+        String modVersion = container != null ? container.getVersion() : Loader.MC_VERSION;
+
+        Minecraft mc = Minecraft.getMinecraft();
+        String worldType = mc.world != null ? mc.world.getWorldType().getName() : "none";
+
+        return modVersion + "|" + worldType + "|" + Integer.toHexString(SpawnConditionAnalyzer.getConfigurationHash())
+            + "|" + Tags.VERSION;
+    }
+
+    private static void loadIfNeeded() {
+        if (loaded) return;
+
+        loaded = true;
+        File file = getFile();
+        try {
+            JsonObject entries = JsonFiles.readEntries(file, FORMAT_VERSION);
+            if (entries == null) return;
+
+            for (Map.Entry<String, JsonElement> raw : entries.entrySet()) {
+                if (raw.getValue().isJsonArray()) stored.put(raw.getKey(), raw.getValue().getAsJsonArray());
+            }
+        } catch (Exception e) {
+            SuperMobTracker.LOGGER.warn("Ignoring unreadable spawn conditions cache {}", file.getAbsolutePath(), e);
+            stored.clear();
+        }
+    }
+
+    /**
+     * Write the cache to disk if anything changed since the last save.
+     */
+    public static synchronized void save() {
+        if (unsavedChanges == 0) return;
+
+        JsonObject entries = new JsonObject();
+        for (Map.Entry<String, JsonArray> entry : stored.entrySet()) entries.add(entry.getKey(), entry.getValue());
+
+        File output = getFile();
+        try {
+            JsonFiles.writeEntries(output, FORMAT_VERSION, entries);
+            unsavedChanges = 0;
+        } catch (IOException e) {
+            SuperMobTracker.LOGGER.error("Failed to write spawn conditions cache to {}", output.getAbsolutePath(), e);
+        }
+    }
+
+    // --- Serialization ---
+
+    private static JsonObject writeConditions(SpawnConditions conditions) {
+        JsonObject json = new JsonObject();
+        json.add("b", writeStrings(conditions.biomes));
+        if (conditions.groundBlocks != null) json.add("g", writeStrings(conditions.groundBlocks));
+        json.add("l", writeRanges(conditions.lightLevels));
+        json.add("y", writeRanges(conditions.yLevels));
+        if (conditions.timeOfDay != null) json.add("t", writeRanges(conditions.timeOfDay));
+        if (conditions.weather != null) json.add("w", writeStrings(conditions.weather));
+        json.add("h", writeStrings(conditions.hints));
+        if (conditions.requiresSky != null) json.addProperty("s", conditions.requiresSky);
+        if (conditions.moonPhases != null) json.add("m", writeInts(conditions.moonPhases));
+        if (conditions.requiresSlimeChunk != null) json.addProperty("c", conditions.requiresSlimeChunk);
+        if (conditions.requiresNether != null) json.addProperty("n", conditions.requiresNether);
+        if (conditions.dimension != null) json.addProperty("d", conditions.dimension);
+        json.addProperty("i", conditions.dimensionId);
+        if (conditions.spawnReason != null) json.addProperty("r", conditions.spawnReason);
+        if (!conditions.interactions.isEmpty()) {
+            JsonArray interactions = new JsonArray();
+            for (ConditionInteraction interaction : conditions.interactions) interactions.add(writeInteraction(interaction));
+            json.add("x", interactions);
+        }
+        if (!conditions.failedBiomes.isEmpty()) json.add("fb", writeStrings(conditions.failedBiomes));
+
+        return json;
+    }
+
+    private static SpawnConditions readConditions(JsonObject json) {
+        return new SpawnConditions(
+            readStrings(json.get("b")),
+            json.has("g") ? readStrings(json.get("g")) : null,
+            readRanges(json.get("l")),
+            readRanges(json.get("y")),
+            json.has("t") ? readRanges(json.get("t")) : null,
+            json.has("w") ? readStrings(json.get("w")) : null,
+            readStrings(json.get("h")),
+            json.has("s") ? json.get("s").getAsBoolean() : null,
+            json.has("m") ? readInts(json.get("m")) : null,
+            json.has("c") ? json.get("c").getAsBoolean() : null,
+            json.has("n") ? json.get("n").getAsBoolean() : null,
+            json.has("d") ? json.get("d").getAsString() : null,
+            json.get("i").getAsInt(),
+            json.has("r") ? json.get("r").getAsString() : null,
+            json.has("x") ? readInteractions(json.getAsJsonArray("x")) : Collections.emptyList(),
+            json.has("fb") ? readStrings(json.get("fb")) : Collections.emptyList()
+        );
+    }
+
+    private static JsonObject writeInteraction(ConditionInteraction interaction) {
+        JsonObject json = new JsonObject();
+        json.addProperty("a", interaction.first.name());
+        json.add("av", writeInts(interaction.getFirstValues()));
+        json.addProperty("b", interaction.second.name());
+        json.add("bv", writeInts(interaction.getSecondValues()));
+
+        JsonArray table = new JsonArray();
+        for (long word : interaction.getTable()) table.add(new JsonPrimitive(word));
+        json.add("t", table);
+
+        return json;
+    }
+
+    private static List<ConditionInteraction> readInteractions(JsonArray array) {
+        List<ConditionInteraction> interactions = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject json = element.getAsJsonObject();
+
+            JsonArray tableJson = json.getAsJsonArray("t");
+            long[] table = new long[tableJson.size()];
+            for (int i = 0; i < table.length; i++) table[i] = tableJson.get(i).getAsLong();
+
+            interactions.add(new ConditionInteraction(
+                QueriedCondition.valueOf(json.get("a").getAsString()), readIntArray(json.get("av")),
+                QueriedCondition.valueOf(json.get("b").getAsString()), readIntArray(json.get("bv")),
+                table
+            ));
+        }
+
+        return interactions;
+    }
+
+    private static JsonArray writeStrings(List<String> values) {
+        JsonArray array = new JsonArray();
+        for (String value : values) array.add(new JsonPrimitive(value));
+
+        return array;
+    }
+
+    /**
+     * Write a set as a flat array of range bounds: start0, end0, start1, end1...
+     */
+    private static JsonArray writeRanges(IntervalSet set) {
+        JsonArray array = new JsonArray();
+        set.forEachRange((start, end) -> {
+            array.add(new JsonPrimitive(start));
+            array.add(new JsonPrimitive(end));
+        });
+
+        return array;
+    }
+
+    private static IntervalSet readRanges(JsonElement element) {
+        JsonArray array = element.getAsJsonArray();
+        List<int[]> ranges = new ArrayList<>();
+        for (int i = 0; i + 1 < array.size(); i += 2) {
+            ranges.add(new int[] { array.get(i).getAsInt(), array.get(i + 1).getAsInt() });
+        }
+
+        return IntervalSet.ofRanges(ranges);
+    }
+
+    private static JsonArray writeInts(List<Integer> values) {
+        JsonArray array = new JsonArray();
+        for (Integer value : values) array.add(new JsonPrimitive(value));
+
+        return array;
+    }
+
+    private static JsonArray writeInts(int[] values) {
+        JsonArray array = new JsonArray();
+        for (int value : values) array.add(new JsonPrimitive(value));
+
+        return array;
+    }
+
+    private static List<String> readStrings(JsonElement element) {
+        List<String> values = new ArrayList<>();
+        for (JsonElement value : element.getAsJsonArray()) values.add(value.getAsString());
+
+        return values;
+    }
+
+    private static List<Integer> readInts(JsonElement element) {
+        List<Integer> values = new ArrayList<>();
+        for (JsonElement value : element.getAsJsonArray()) values.add(value.getAsInt());
+
+        return values;
+    }
+
+    private static int[] readIntArray(JsonElement element) {
+        JsonArray array = element.getAsJsonArray();
+        int[] values = new int[array.size()];
+        for (int i = 0; i < values.length; i++) values[i] = array.get(i).getAsInt();
+
+        return values;
+    }
+
+    private static final class CachedConditions {
+        final String fingerprint;
+        final SpawnConditions conditions;
+
+        CachedConditions(String fingerprint, SpawnConditions conditions) {
+            this.fingerprint = fingerprint;
+            this.conditions = conditions;
+        }
+    }
+}
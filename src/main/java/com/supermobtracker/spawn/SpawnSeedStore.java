@@ -0,0 +1,138 @@
+package com.supermobtracker.spawn;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+import com.supermobtracker.util.JsonFiles;
+
+
+/**
+ * Disk-backed store of seeds that made random spawn checks succeed, per entity class.
+ * <p>
+ * Random spawn checks are retried with a deterministic sequence of seeds until one passes. Later analyses
+ * try the stored seeds of the class before that sequence, those found in the same configuration first,
+ * so mobs with rare spawn rolls converge in a few attempts instead of rediscovering a lucky seed every session.
+ * The whole sequence is still tried after them, so a result never depends on fewer attempts than a fresh one.
+ * <p>
+ * The file maps each entity class name to its latest {@code [seed, configuration]} pairs, most recent first.
+ * Configurations are the strings of {@link AnalysisContext#describeConfiguration(int)}.
+ */
+public final class SpawnSeedStore {
+    public static final String FILE_NAME = "spawn_seeds.json";
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_SEEDS_PER_ENTITY = 8;
+
+    private static final Map<String, List<KnownSeed>> seeds = new HashMap<>();
+    private static boolean loaded = false;
+    private static int unsavedChanges = 0;
+
+    /**
+     * A seed that made a random spawn check succeed, and the configuration it succeeded in.
+     */
+    public static final class KnownSeed {
+        public final long seed;
+        public final String configuration;
+
+        KnownSeed(long seed, String configuration) {
+            this.seed = seed;
+            this.configuration = configuration;
+        }
+    }
+
+    private SpawnSeedStore() {}
+
+    public static File getFile() {
+        return new File(ModConfig.getSupportDirectory(), FILE_NAME);
+    }
+
+    /**
+     * Get the stored seeds of an entity class, most recent first.
+     */
+    public static synchronized List<KnownSeed> get(Class<?> entityClass) {
+        loadIfNeeded();
+        List<KnownSeed> known = seeds.get(entityClass.getName());
+
+        return known != null ? Collections.unmodifiableList(new ArrayList<>(known)) : Collections.emptyList();
+    }
+
+    /**
+     * Remember a seed that made a random spawn check of the class succeed. Only the latest few seeds are kept.
+     */
+    public static synchronized void record(Class<?> entityClass, long seed, String configuration) {
+        loadIfNeeded();
+        List<KnownSeed> known = seeds.computeIfAbsent(entityClass.getName(), k -> new ArrayList<>());
+        for (KnownSeed entry : known) {
+            if (entry.seed == seed) return;
+        }
+
+        known.add(0, new KnownSeed(seed, configuration));
+        if (known.size() > MAX_SEEDS_PER_ENTITY) known.remove(known.size() - 1);
+        unsavedChanges++;
+    }
+
+    private static void loadIfNeeded() {
+        if (loaded) return;
+
+        loaded = true;
+        File file = getFile();
+        try {
+            JsonObject entries = JsonFiles.readEntries(file, FORMAT_VERSION);
+            if (entries == null) return;
+
+            for (Map.Entry<String, JsonElement> raw : entries.entrySet()) {
+                List<KnownSeed> known = new ArrayList<>();
+                for (JsonElement pair : raw.getValue().getAsJsonArray()) {
+                    JsonArray values = pair.getAsJsonArray();
+                    known.add(new KnownSeed(values.get(0).getAsLong(), values.get(1).getAsString()));
+                }
+
+                if (!known.isEmpty()) seeds.put(raw.getKey(), known);
+            }
+        } catch (Exception e) {
+            SuperMobTracker.LOGGER.warn("Ignoring unreadable spawn seed store {}", file.getAbsolutePath(), e);
+            seeds.clear();
+        }
+    }
+
+    /**
+     * Write the store to disk if seeds were recorded since the last save.
+     * Called at the end of bulk analyses and when leaving a world, not after each analysis.
+     */
+    public static synchronized void save() {
+        if (unsavedChanges == 0) return;
+
+        // Sorted, so the file stays stable between saves
+        JsonObject entries = new JsonObject();
+        for (Map.Entry<String, List<KnownSeed>> entry : new TreeMap<>(seeds).entrySet()) {
+            JsonArray known = new JsonArray();
+            for (KnownSeed seed : entry.getValue()) {
+                JsonArray pair = new JsonArray();
+                pair.add(new JsonPrimitive(seed.seed));
+                pair.add(new JsonPrimitive(seed.configuration));
+                known.add(pair);
+            }
+            entries.add(entry.getKey(), known);
+        }
+
+        File output = getFile();
+        try {
+            JsonFiles.writeEntries(output, FORMAT_VERSION, entries);
+            unsavedChanges = 0;
+        } catch (IOException e) {
+            SuperMobTracker.LOGGER.error("Failed to write spawn seed store to {}", output.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.supermobtracker.spawn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.EntityList;
+import net.minecraft.entity.EnumCreatureType;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.biome.Biome;
+import net.minecraftforge.fml.common.registry.EntityEntry;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import com.supermobtracker.SuperMobTracker;
+
+
+/**
+ * Immutable indexes over the biome spawn lists and the creature types of the registered entities.
+ * <p>
+ * Built on a background thread when joining a world, once the server and the mods changed the spawn lists,
+ * and published atomically: readers see either no index or a complete one. A reader arriving before the
+ * background build finishes builds the same content itself instead of waiting.
+ * Joining another world invalidates it, builds started before that are never published.
+ */
+public final class SpawnTableIndex {
+    private static volatile SpawnTableIndex current = null;
+    // Incremented by each invalidation, a build only publishes its index if it did not change meanwhile
+    private static int generation = 0;
+
+    /**
+     * An entry of a biome spawn list.
+     */
+    public static final class SpawnEntry {
+        public final String biome;
+        public final EnumCreatureType type;
+        public final int weight;
+        public final int minGroupSize;
+        public final int maxGroupSize;
+
+        SpawnEntry(String biome, EnumCreatureType type, int weight, int minGroupSize, int maxGroupSize) {
+            this.biome = biome;
+            this.type = type;
+            this.weight = weight;
+            this.minGroupSize = minGroupSize;
+            this.maxGroupSize = maxGroupSize;
+        }
+    }
+
+    private final Map<ResourceLocation, List<SpawnEntry>> entitySpawns;
+    private final Map<ResourceLocation, List<String>> entityBiomes;
+    private final Map<String, Set<ResourceLocation>> biomeEntities;
+    private final Map<ResourceLocation, EnumCreatureType> entityTypes;
+    private final Map<EnumCreatureType, Set<ResourceLocation>> typeEntities;
+
+    private SpawnTableIndex(Map<ResourceLocation, List<SpawnEntry>> entitySpawns,
+                            Map<ResourceLocation, List<String>> entityBiomes,
+                            Map<String, Set<ResourceLocation>> biomeEntities,
+                            Map<ResourceLocation, EnumCreatureType> entityTypes,
+                            Map<EnumCreatureType, Set<ResourceLocation>> typeEntities) {
+        this.entitySpawns = entitySpawns;
+        this.entityBiomes = entityBiomes;
+        this.biomeEntities = biomeEntities;
+        this.entityTypes = entityTypes;
+        this.typeEntities = typeEntities;
+    }
+
+    /**
+     * Drop the index and start building a new one on a background thread. Called when joining a world,
+     * as mods and the server may have changed the spawn lists since the last build.
+     */
+    public static void rebuildInBackground() {
+        synchronized (SpawnTableIndex.class) {
+            generation++;
+            current = null;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                get();
+            } catch (RuntimeException e) {
+                // Readers build it again on first use
+                SuperMobTracker.LOGGER.warn("Failed to build the spawn table index in the background", e);
+            }
+        }, "SMT-SpawnTableIndex");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the index, building it on the calling thread if it is not published yet.
+     */
+    public static SpawnTableIndex get() {
+        SpawnTableIndex index = current;
+        if (index != null) return index;
+
+        int builtGeneration;
+        synchronized (SpawnTableIndex.class) {
+            builtGeneration = generation;
+        }
+
+        // Concurrent first uses may both build the index, they produce the same content
+        index = build();
+        synchronized (SpawnTableIndex.class) {
+            if (generation == builtGeneration) current = index;
+        }
+
+        return index;
+    }
+
+    private static SpawnTableIndex build() {
+        long start = System.nanoTime();
+
+        // EntityList.getKey walks the registry, resolve each spawn list class once
+        Map<Class<?>, ResourceLocation> classIds = new HashMap<>();
+        Map<ResourceLocation, List<SpawnEntry>> entitySpawns = new HashMap<>();
+        Map<ResourceLocation, Set<String>> entityBiomes = new HashMap<>();
+        Map<String, Set<ResourceLocation>> biomeEntities = new HashMap<>();
+
+        for (Biome biome : ForgeRegistries.BIOMES.getValuesCollection()) {
+            if (biome.getRegistryName() == null) continue;
+
+            String biomeId = biome.getRegistryName().toString();
+            for (EnumCreatureType type : EnumCreatureType.values()) {
+                for (Biome.SpawnListEntry entry : biome.getSpawnableList(type)) {
+                    ResourceLocation entityId = classIds.computeIfAbsent(entry.entityClass, EntityList::getKey);
+                    if (entityId == null) continue;
+
+                    entitySpawns.computeIfAbsent(entityId, k -> new ArrayList<>())
+                        .add(new SpawnEntry(biomeId, type, entry.itemWeight, entry.minGroupCount, entry.maxGroupCount));
+                    entityBiomes.computeIfAbsent(entityId, k -> new LinkedHashSet<>()).add(biomeId);
+                    biomeEntities.computeIfAbsent(biomeId, k -> new LinkedHashSet<>()).add(entityId);
+                }
+            }
+        }
+
+        Map<ResourceLocation, EnumCreatureType> entityTypes = new HashMap<>();
+        Map<EnumCreatureType, Set<ResourceLocation>> typeEntities = new EnumMap<>(EnumCreatureType.class);
+        for (EntityEntry entry : ForgeRegistries.ENTITIES.getValuesCollection()) {
+            for (EnumCreatureType type : EnumCreatureType.values()) {
+                if (!type.getCreatureClass().isAssignableFrom(entry.getEntityClass())) continue;
+
+                entityTypes.put(entry.getRegistryName(), type);
+                typeEntities.computeIfAbsent(type, k -> new LinkedHashSet<>()).add(entry.getRegistryName());
+                break;
+            }
+        }
+
+        Map<ResourceLocation, List<SpawnEntry>> frozenSpawns = new HashMap<>();
+        entitySpawns.forEach((id, spawns) -> frozenSpawns.put(id, Collections.unmodifiableList(spawns)));
+
+        Map<ResourceLocation, List<String>> frozenBiomes = new HashMap<>();
+        entityBiomes.forEach((id, biomes) -> frozenBiomes.put(id, Collections.unmodifiableList(new ArrayList<>(biomes))));
+
+        Map<String, Set<ResourceLocation>> frozenBiomeEntities = new HashMap<>();
+        biomeEntities.forEach((biome, ids) -> frozenBiomeEntities.put(biome, Collections.unmodifiableSet(ids)));
+
+        Map<EnumCreatureType, Set<ResourceLocation>> frozenTypeEntities = new EnumMap<>(EnumCreatureType.class);
+        typeEntities.forEach((type, ids) -> frozenTypeEntities.put(type, Collections.unmodifiableSet(ids)));
+
+        SuperMobTracker.LOGGER.debug("Indexed the spawn lists of {} entities over {} biomes in {}ms",
+            frozenSpawns.size(), frozenBiomeEntities.size(), (System.nanoTime() - start) / 1_000_000);
+
+        return new SpawnTableIndex(
+            Collections.unmodifiableMap(frozenSpawns),
+            Collections.unmodifiableMap(frozenBiomes),
+            Collections.unmodifiableMap(frozenBiomeEntities),
+            Collections.unmodifiableMap(entityTypes),
+            Collections.unmodifiableMap(frozenTypeEntities)
+        );
+    }
+
+    /**
+     * Spawn list entries of an entity, in biome registry order. Empty if it is in no spawn list.
+     */
+    public List<SpawnEntry> getSpawns(ResourceLocation entityId) {
+        return entitySpawns.getOrDefault(entityId, Collections.emptyList());
+    }
+
+    /**
+     * Distinct biomes whose spawn lists contain an entity, in biome registry order.
+     */
+    public List<String> getBiomes(ResourceLocation entityId) {
+        return entityBiomes.getOrDefault(entityId, Collections.emptyList());
+    }
+
+    /**
+     * Entities in the spawn lists of a biome, by biome registry name.
+     */
+    public Set<ResourceLocation> getEntities(String biomeId) {
+        return biomeEntities.getOrDefault(biomeId, Collections.emptySet());
+    }
+
+    /**
+     * Registry names of the biomes with at least one spawn list entry.
+     */
+    public Set<String> getBiomesWithSpawns() {
+        return biomeEntities.keySet();
+    }
+
+    /**
+     * Creature type of an entity from its class hierarchy, or null if it has none.
+     */
+    @Nullable
+    public EnumCreatureType getCreatureType(ResourceLocation entityId) {
+        return entityTypes.get(entityId);
+    }
+
+    /**
+     * Entities of a creature type, from their class hierarchy.
+     */
+    public Set<ResourceLocation> getEntities(EnumCreatureType type) {
+        return typeEntities.getOrDefault(type, Collections.emptySet());
+    }
+}
@@ -0,0 +1,108 @@
+package com.supermobtracker.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.supermobtracker.SuperMobTracker;
+import com.supermobtracker.config.ModConfig;
+
+
+/**
+ * Runs the per-entity work of a registry-wide analysis on a worker thread under a wall-clock budget,
+ * so a single hanging or pathologically slow mob cannot stall the whole run.
+ * <p>
+ * Java cannot stop a thread safely, so a task that overruns is interrupted and abandoned:
+ * its daemon worker is left to finish (or hang) on its own, and the next task gets a fresh worker.
+ * Not thread-safe, each analysis owns its watchdog.
+ */
+public final class EntityWatchdog {
+    private final String threadName;
+    private final long budgetNanos;
+    private ExecutorService worker;
+    private int abandonedWorkers = 0;
+
+    /**
+     * @param threadName base name of the worker threads
+     * @param budgetNanos wall-clock budget of a single task, in nanoseconds
+     */
+    public EntityWatchdog(String threadName, long budgetNanos) {
+        this.threadName = threadName;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Create a watchdog using the configured per-entity budget.
+     */
+    public static EntityWatchdog fromConfig(String threadName) {
+        return new EntityWatchdog(threadName, TimeUnit.SECONDS.toNanos(ModConfig.clientAnalysisEntityTimeBudget));
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Number of workers abandoned so far because their task overran the budget.
+     */
+    public int getAbandonedWorkers() {
+        return abandonedWorkers;
+    }
+
+    /**
+     * Run the task on the worker thread and wait for it, at most for the budget.
+     * Exceptions thrown by the task are rethrown on the calling thread.
+     *
+     * @throws TimeoutException if the task did not complete within the budget
+     */
+    public <T> T call(Callable<T> task) throws TimeoutException {
+        if (worker == null) worker = createWorker();
+
+        Future<T> future = worker.submit(task);
+        try {
+            return future.get(budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            worker.shutdownNow();
+            worker = null;
+            abandonedWorkers++;
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + threadName, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Release the current worker. Abandoned workers are not waited for.
+     */
+    public void shutdown() {
+        if (worker != null) worker.shutdown();
+        worker = null;
+
+        if (abandonedWorkers > 0) {
+            SuperMobTracker.LOGGER.warn("{}: {} worker(s) were abandoned after exceeding the time budget", threadName, abandonedWorkers);
+        }
+    }
+
+    private ExecutorService createWorker() {
+        String name = threadName + "-Worker-" + (abandonedWorkers + 1);
+
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
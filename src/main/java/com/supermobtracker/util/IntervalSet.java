@@ -0,0 +1,285 @@
+package com.supermobtracker.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * An immutable set of ints, stored as sorted, disjoint and non-adjacent [start, end] ranges.
+ * <p>
+ * A range of any length costs two ints, so "spawns at every Y level" is one range instead of 255 boxed values.
+ * Sets made of many short ranges over a small span are backed by a BitSet instead, which is smaller for them.
+ * Both forms behave the same, and iterating the ranges is proportional to their number.
+ */
+public final class IntervalSet {
+    public static final IntervalSet EMPTY = new IntervalSet(new int[0]);
+
+    /** Minimum number of ranges before a BitSet is considered, smaller sets always use bounds */
+    private static final int BITSET_MIN_RANGES = 8;
+
+    /**
+     * Receives the ranges of a set, in ascending order.
+     */
+    public interface RangeConsumer {
+        void accept(int start, int end);
+    }
+
+    // Bounds form: start0, end0, start1, end1, ... Null in the BitSet form
+    private final int[] bounds;
+    // BitSet form: bit i is value offset + i. Null in the bounds form
+    private final BitSet bits;
+    private final int offset;
+    private final int rangeCount;
+    private final int size;
+
+    private IntervalSet(int[] bounds) {
+        this.bounds = bounds;
+        this.bits = null;
+        this.offset = 0;
+        this.rangeCount = bounds.length / 2;
+
+        int total = 0;
+        for (int i = 0; i < bounds.length; i += 2) total += bounds[i + 1] - bounds[i] + 1;
+        this.size = total;
+    }
+
+    private IntervalSet(BitSet bits, int offset, int rangeCount) {
+        this.bounds = null;
+        this.bits = bits;
+        this.offset = offset;
+        this.rangeCount = rangeCount;
+        this.size = bits.cardinality();
+    }
+
+    /**
+     * The set of all values from start to end, inclusive. Empty if end is before start.
+     */
+    public static IntervalSet range(int start, int end) {
+        if (end < start) return EMPTY;
+
+        return new IntervalSet(new int[]{start, end});
+    }
+
+    /**
+     * The set of the given values, in any order and with any duplicates.
+     */
+    public static IntervalSet of(Collection<Integer> values) {
+        if (values.isEmpty()) return EMPTY;
+
+        int[] sorted = new int[values.size()];
+        int index = 0;
+        for (Integer value : values) sorted[index++] = value;
+        Arrays.sort(sorted);
+
+        List<int[]> ranges = new ArrayList<>();
+        int[] current = null;
+        for (int value : sorted) {
+            if (current != null && value <= current[1] + 1) {
+                current[1] = Math.max(current[1], value);
+            } else {
+                current = new int[]{value, value};
+                ranges.add(current);
+            }
+        }
+
+        return fromSortedRanges(ranges);
+    }
+
+    /**
+     * The union of the given [start, end] ranges, in any order. Overlapping and adjacent ranges are merged.
+     */
+    public static IntervalSet ofRanges(Collection<int[]> ranges) {
+        if (ranges.isEmpty()) return EMPTY;
+
+        List<int[]> sorted = new ArrayList<>();
+        for (int[] range : ranges) {
+            if (range[1] >= range[0]) sorted.add(new int[]{range[0], range[1]});
+        }
+        sorted.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        List<int[]> merged = new ArrayList<>();
+        for (int[] range : sorted) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+
+            // Compared as longs, so a range ending at Integer.MAX_VALUE does not overflow
+            if (last != null && range[0] <= (long) last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+
+        return fromSortedRanges(merged);
+    }
+
+    private static IntervalSet fromSortedRanges(List<int[]> ranges) {
+        if (ranges.isEmpty()) return EMPTY;
+
+        int first = ranges.get(0)[0];
+        long span = (long) ranges.get(ranges.size() - 1)[1] - first + 1;
+
+        // A BitSet costs a bit per value of the span, bounds cost 64 bits per range
+        if (ranges.size() >= BITSET_MIN_RANGES && span < 64L * ranges.size()) {
+            BitSet bits = new BitSet((int) span);
+            for (int[] range : ranges) bits.set(range[0] - first, range[1] - first + 1);
+
+            return new IntervalSet(bits, first, ranges.size());
+        }
+
+        int[] bounds = new int[ranges.size() * 2];
+        for (int i = 0; i < ranges.size(); i++) {
+            bounds[2 * i] = ranges.get(i)[0];
+            bounds[2 * i + 1] = ranges.get(i)[1];
+        }
+
+        return new IntervalSet(bounds);
+    }
+
+    /**
+     * The set of the values in this set or the other.
+     */
+    public IntervalSet union(IntervalSet other) {
+        if (other.isEmpty() || this.equals(other)) return this;
+        if (isEmpty()) return other;
+
+        List<int[]> ranges = ranges();
+        ranges.addAll(other.ranges());
+
+        return ofRanges(ranges);
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /** Number of values in the set */
+    public int size() { return size; }
+
+    /** Number of disjoint ranges in the set */
+    public int rangeCount() { return rangeCount; }
+
+    public boolean contains(int value) {
+        if (bits != null) return value >= offset && bits.get(value - offset);
+
+        // Binary search over the range starts
+        int lo = 0;
+        int hi = rangeCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value < bounds[2 * mid]) {
+                hi = mid - 1;
+            } else if (value > bounds[2 * mid + 1]) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Smallest value of the set. The set must not be empty.
+     */
+    public int min() {
+        if (isEmpty()) throw new IllegalStateException("Empty interval set");
+
+        return bits != null ? offset + bits.nextSetBit(0) : bounds[0];
+    }
+
+    /**
+     * Largest value of the set. The set must not be empty.
+     */
+    public int max() {
+        if (isEmpty()) throw new IllegalStateException("Empty interval set");
+
+        return bits != null ? offset + bits.length() - 1 : bounds[bounds.length - 1];
+    }
+
+    /**
+     * Pass every range of the set to the consumer, in ascending order.
+     */
+    public void forEachRange(RangeConsumer consumer) {
+        if (bits == null) {
+            for (int i = 0; i < bounds.length; i += 2) consumer.accept(bounds[i], bounds[i + 1]);
+            return;
+        }
+
+        for (int start = bits.nextSetBit(0); start >= 0; start = bits.nextSetBit(start)) {
+            int end = bits.nextClearBit(start);
+            consumer.accept(offset + start, offset + end - 1);
+            start = end;
+        }
+    }
+
+    /**
+     * The ranges of the set as [start, end] pairs, in ascending order.
+     */
+    public List<int[]> ranges() {
+        List<int[]> ranges = new ArrayList<>(rangeCount);
+        forEachRange((start, end) -> ranges.add(new int[]{start, end}));
+
+        return ranges;
+    }
+
+    /**
+     * All values of the set, in ascending order.
+     */
+    public List<Integer> toList() {
+        List<Integer> values = new ArrayList<>(size);
+        forEachRange((start, end) -> {
+            for (int value = start; value <= end; value++) values.add(value);
+        });
+
+        return values;
+    }
+
+    /**
+     * Format the set as ranges, e.g. "1-3, 5, 7-9".
+     * @param separator Separator between ranges, ", " if null
+     */
+    public String format(String separator) {
+        String sep = separator != null ? separator : ", ";
+        StringBuilder sb = new StringBuilder();
+
+        forEachRange((start, end) -> {
+            if (sb.length() > 0) sb.append(sep);
+
+            sb.append(start);
+            if (end != start) sb.append("-").append(end);
+        });
+
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof IntervalSet)) return false;
+
+        IntervalSet other = (IntervalSet) obj;
+        if (size != other.size || rangeCount != other.rangeCount) return false;
+
+        List<int[]> ranges = ranges();
+        List<int[]> otherRanges = other.ranges();
+        for (int i = 0; i < ranges.size(); i++) {
+            if (!Arrays.equals(ranges.get(i), otherRanges.get(i))) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {1};
+        forEachRange((start, end) -> hash[0] = 31 * (31 * hash[0] + start) + end);
+
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        return "[" + format(", ") + "]";
+    }
+}
@@ -0,0 +1,85 @@
+package com.supermobtracker.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+
+/**
+ * Reads and writes the versioned JSON stores of the support directory.
+ * <p>
+ * Stores share one layout: {@code v} is the format version and {@code e} maps keys to entries.
+ * They are written to a temporary file first and moved over the previous one, so a crash
+ * during a save never leaves a truncated store behind.
+ */
+public final class JsonFiles {
+    private static final Gson GSON = new Gson();
+
+    private JsonFiles() {}
+
+    /**
+     * Read the entries of a store.
+     *
+     * @return the {@code e} object, or null if the file is missing, empty or of another format version
+     * @throws IOException if the file cannot be read
+     * @throws RuntimeException if the file is not valid JSON
+     */
+    @Nullable
+    public static JsonObject readEntries(File file, int formatVersion) throws IOException {
+        if (!file.exists()) return null;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            JsonElement rootElement = new JsonParser().parse(reader);
+            if (rootElement == null || !rootElement.isJsonObject()) return null;
+
+            JsonObject root = rootElement.getAsJsonObject();
+            if (!root.has("v") || root.get("v").getAsInt() != formatVersion) return null;
+            if (!root.has("e") || !root.get("e").isJsonObject()) return null;
+
+            return root.getAsJsonObject("e");
+        }
+    }
+
+    /**
+     * Write the entries of a store, replacing the previous file atomically where the file system allows it.
+     */
+    public static void writeEntries(File output, int formatVersion, JsonObject entries) throws IOException {
+        File directory = output.getParentFile();
+        if (directory != null && !directory.exists()) directory.mkdirs();
+
+        JsonObject root = new JsonObject();
+        root.addProperty("v", formatVersion);
+        root.add("e", entries);
+
+        File temporary = new File(directory, output.getName() + ".tmp");
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temporary), StandardCharsets.UTF_8))) {
+            GSON.toJson(root, writer);
+        }
+
+        try {
+            Files.move(temporary.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(temporary.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -2,16 +2,18 @@ package com.supermobtracker.util;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public final class ReflectionUtils {
-    /** Cache for declared fields of classes. */
-    private static final Map<Class<?>, Map<String, Field>> fieldCache = new HashMap<>();
+    /** Cache for declared fields of classes. Shared by analyses on different threads. */
+    private static final Map<Class<?>, Map<String, Field>> fieldCache = new ConcurrentHashMap<>();
 
-    /** Cache for declared methods of classes. */
-    private static final Map<Class<?>, Map<String, Method>> methodCache = new HashMap<>();
+    /** Cache for declared methods of classes. Shared by analyses on different threads. */
+    private static final Map<Class<?>, Map<String, Method>> methodCache = new ConcurrentHashMap<>();
 
 
     private ReflectionUtils() {}
@@ -55,33 +57,31 @@ public final class ReflectionUtils {
     }
 
     private static Map<String, Field> getCachedFields(Class<?> clazz) {
-        Map<String, Field> cachedFields = fieldCache.get(clazz);
-        if (cachedFields != null) return cachedFields;
+        return fieldCache.computeIfAbsent(clazz, ReflectionUtils::collectFields);
+    }
+
+    private static Map<String, Method> getCachedMethods(Class<?> clazz) {
+        return methodCache.computeIfAbsent(clazz, ReflectionUtils::collectMethods);
+    }
 
-        cachedFields = new HashMap<>();
+    private static Map<String, Field> collectFields(Class<?> clazz) {
+        Map<String, Field> fields = new HashMap<>();
         for (Field field : clazz.getDeclaredFields()) {
             field.setAccessible(true);
-            cachedFields.put(field.getName(), field);
+            fields.put(field.getName(), field);
         }
 
-        fieldCache.put(clazz, cachedFields);
-
-        return cachedFields;
+        return Collections.unmodifiableMap(fields);
     }
 
-    private static Map<String, Method> getCachedMethods(Class<?> clazz) {
-        Map<String, Method> cachedMethods = methodCache.get(clazz);
-        if (cachedMethods != null) return cachedMethods;
-
-        cachedMethods = new HashMap<>();
+    private static Map<String, Method> collectMethods(Class<?> clazz) {
+        Map<String, Method> methods = new HashMap<>();
         for (Method method : clazz.getDeclaredMethods()) {
             method.setAccessible(true);
-            cachedMethods.put(buildMethodKey(method.getName(), method.getParameterTypes()), method);
+            methods.put(buildMethodKey(method.getName(), method.getParameterTypes()), method);
         }
 
-        methodCache.put(clazz, cachedMethods);
-
-        return cachedMethods;
+        return Collections.unmodifiableMap(methods);
     }
 
     private static String buildMethodKey(String methodName, Class<?>... parameterTypes) {
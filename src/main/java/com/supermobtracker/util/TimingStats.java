@@ -0,0 +1,118 @@
+package com.supermobtracker.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Summary statistics over a set of timing samples, in nanoseconds.
+ * Samples are kept in a sorted primitive array, so percentiles are exact (nearest-rank).
+ */
+public final class TimingStats {
+    private static final TimingStats EMPTY = new TimingStats(new long[0], 0.0, 0.0);
+
+    private final long[] sorted;
+    private final double mean;
+    private final double stdDev;
+
+    private TimingStats(long[] sorted, double mean, double stdDev) {
+        this.sorted = sorted;
+        this.mean = mean;
+        this.stdDev = stdDev;
+    }
+
+    /**
+     * Compute the statistics of the given samples. The array is copied, not modified.
+     */
+    public static TimingStats of(long[] samples) {
+        return of(samples, samples.length);
+    }
+
+    /**
+     * Compute the statistics of the first {@code count} samples. The array is copied, not modified.
+     */
+    public static TimingStats of(long[] samples, int count) {
+        if (count <= 0) return EMPTY;
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        double sum = 0.0;
+        for (long sample : sorted) sum += sample;
+        double mean = sum / count;
+
+        double squaredDeviations = 0.0;
+        for (long sample : sorted) squaredDeviations += (sample - mean) * (sample - mean);
+        double stdDev = count > 1 ? Math.sqrt(squaredDeviations / (count - 1)) : 0.0;
+
+        return new TimingStats(sorted, mean, stdDev);
+    }
+
+    public int getCount() { return sorted.length; }
+    public long getMin() { return sorted.length > 0 ? sorted[0] : 0L; }
+    public long getMax() { return sorted.length > 0 ? sorted[sorted.length - 1] : 0L; }
+    public double getMean() { return mean; }
+
+    /**
+     * Sample standard deviation, 0 with fewer than two samples.
+     */
+    public double getStdDev() { return stdDev; }
+
+    public long getP50() { return getPercentile(50.0); }
+    public long getP90() { return getPercentile(90.0); }
+    public long getP99() { return getPercentile(99.0); }
+
+    /**
+     * Nearest-rank percentile, so the result is always one of the recorded samples.
+     *
+     * @param percentile the percentile, between 0 and 100
+     */
+    public long getPercentile(double percentile) {
+        if (sorted.length == 0) return 0L;
+
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Format the summary in milliseconds, for the text reports.
+     * e.g. "Avg: 1.20ms, P50: 1.10ms, P90: 1.50ms, P99: 2.00ms, StdDev: 0.30ms, Worst: 2.00ms, Best: 0.90ms"
+     */
+    public String formatMillis() {
+        return String.format(Locale.ROOT,
+            "Avg: %.2fms, P50: %.2fms, P90: %.2fms, P99: %.2fms, StdDev: %.2fms, Worst: %.2fms, Best: %.2fms",
+            mean / 1_000_000.0,
+            getP50() / 1_000_000.0,
+            getP90() / 1_000_000.0,
+            getP99() / 1_000_000.0,
+            stdDev / 1_000_000.0,
+            getMax() / 1_000_000.0,
+            getMin() / 1_000_000.0);
+    }
+
+    /**
+     * Write the summary as a JSON object, in nanoseconds, for the machine-readable reports.
+     */
+    public void writeJson(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("count").value(getCount());
+        writer.name("mean").value(mean);
+        writer.name("stdDev").value(stdDev);
+        writer.name("min").value(getMin());
+        writer.name("p50").value(getP50());
+        writer.name("p90").value(getP90());
+        writer.name("p99").value(getP99());
+        writer.name("max").value(getMax());
+        writer.endObject();
+    }
+
+    /**
+     * Get a copy of the samples, in ascending order.
+     */
+    public long[] getSortedSamples() {
+        return sorted.clone();
+    }
+}
@@ -2,48 +2,12 @@ package com.supermobtracker.util;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.stream.Collectors;
 
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.resources.I18n;
 
 
 public class Utils {
-    /**
-     * Formats a list of integers into a range string.
-     * @param list List of integers (e.g., [1,2,3,5,7,8,9])
-     * @return Formatted range string (e.g., "1-3, 5, 7-9")
-     */
-    public static String formatRangeFromList(List<Integer> list, String separator) {
-        if (list.isEmpty()) return "";
-
-        if (separator == null) separator = ", ";
-
-        list = list.stream().distinct().collect(Collectors.toList());
-        Collections.sort(list);
-
-        StringBuilder rangeStr = new StringBuilder();
-
-        for (int i = 0; i < list.size() - 1; i++) {
-            int start = i;
-            while (i < list.size() - 1 && list.get(i + 1) == list.get(i) + 1) i++;
-
-            if (start == i) {
-                rangeStr.append(list.get(start));
-            } else {
-                rangeStr.append(list.get(start)).append("-").append(list.get(i));
-            }
-
-            rangeStr.append(separator);
-        }
-
-        String s = rangeStr.toString();
-        if (s.endsWith(separator)) s = s.substring(0, s.length() - separator.length());
-
-        return s;
-    }
-
     /**
      * Wrap text into multiple lines based on maximum width.
      * @param fr       FontRenderer to measure text width
@@ -168,28 +132,22 @@ public class Utils {
      * Formats a list of time ranges into a human-readable string.
      * Each range is [start, end] in ticks. Handles wrap-around (end > 24000).
      *
-     * @param ranges    List of time ranges [start, end] in ticks
+     * @param ranges    Time ranges in ticks
      * @param separator Separator between ranges (e.g., ", ")
      * @return Formatted time string (e.g., "10:00 - 00:00", "05:00 - 07:30")
      */
-    public static String formatTimeRanges(List<int[]> ranges, String separator) {
+    public static String formatTimeRanges(IntervalSet ranges, String separator) {
         if (ranges == null || ranges.isEmpty()) return "";
-        if (separator == null) separator = I18n.format("gui.mobtracker.separator");
+        String sep = separator != null ? separator : I18n.format("gui.mobtracker.separator");
 
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < ranges.size(); i++) {
-            int[] range = ranges.get(i);
-            int start = range[0];
-            int end = range[1];
+        ranges.forEachRange((start, end) -> {
+            if (sb.length() > 0) sb.append(sep);
 
             // Handle wrap-around (end > 24000 means it continues past midnight)
-            String startStr = ticksToTimeString(start);
-            String endStr = ticksToTimeString(end >= 24000 ? end - 24000 : end);
-
-            sb.append(startStr);
-            if (start != end) sb.append(" - ").append(endStr);
-            if (i < ranges.size() - 1) sb.append(separator);
-        }
+            sb.append(ticksToTimeString(start));
+            if (start != end) sb.append(" - ").append(ticksToTimeString(end >= 24000 ? end - 24000 : end));
+        });
 
         return sb.toString();
     }
@@ -197,27 +155,11 @@ public class Utils {
     /**
      * Checks if a list of time ranges covers the full day (0-24000 ticks).
      *
-     * @param ranges List of time ranges [start, end] in ticks
+     * @param ranges Time ranges in ticks
      * @return true if the ranges cover the full 24-hour day
      */
-    public static boolean isFullDayRange(List<int[]> ranges) {
-        if (ranges == null || ranges.isEmpty()) return false;
-
-        // Calculate total coverage
-        int totalCoverage = 0;
-        for (int[] range : ranges) {
-            int start = range[0];
-            int end = range[1];
-
-            if (end >= 24000) {
-                // Wrap-around range
-                totalCoverage += (end - start);
-            } else {
-                totalCoverage += (end - start + 1);
-            }
-        }
-
-        // Full day is 24000 ticks
-        return totalCoverage >= 24000;
+    public static boolean isFullDayRange(IntervalSet ranges) {
+        // Full day is 24000 ticks, wrap-around ranges count their ticks past midnight
+        return ranges != null && ranges.size() >= 24000;
     }
 }